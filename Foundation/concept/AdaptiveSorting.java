@@ -0,0 +1,246 @@
+/*
+ * ADAPTIVE SORTING - CONCEPT NOTES FOR REVISION
+ * ========================================================
+ * Turning the "WHEN TO USE WHICH ALGORITHM" tree in Sorting.java into
+ * code that looks at the input and picks for you
+ */
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+// ============================================================================
+// 1. INPUT PROFILE
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Four cheap measurements decide the algorithm:
+ *   SIZE           - tiny arrays: Insertion Sort beats everything
+ *   PRESORTEDNESS  - RUNS: places where the order between neighbours
+ *                    flips (up → down or down → up) per element; equal
+ *                    neighbours continue a run. Sorted, reversed and
+ *                    organ-pipe input all have ~0, random input ~2/3
+ *   DUPLICATES     - distinct keys in a sample / sample size
+ *   KEY RANGE      - max - min of the sample (narrow keys = cheap radix)
+ * - Cost must stay far below the sort itself:
+ *   → up to 64K elements: one full pass for the run count
+ *   → larger: 64 blocks of 256 neighbours spread over the array
+ *   → duplicates / range: 1024 evenly spaced elements, sorted and counted
+ *
+ * TIME COMPLEXITY: O(min(n, 64K) + 1024 log 1024)
+ *
+ * SPACE COMPLEXITY: O(1024) - the sample
+ */
+final class InputProfile {
+    private static final int FULL_SCAN_LIMIT = 1 << 16;
+    private static final int BLOCKS = 64, BLOCK_SIZE = 256;
+    private static final int SAMPLE_SIZE = 1024;
+
+    final int n;
+    final double runRatio;        // direction changes / neighbours checked
+    final double distinctRatio;   // distinct keys / sample size
+    final long keyRange;          // max - min of the sample
+
+    private InputProfile(int n, double runRatio, double distinctRatio, long keyRange) {
+        this.n = n;
+        this.runRatio = runRatio;
+        this.distinctRatio = distinctRatio;
+        this.keyRange = keyRange;
+    }
+
+    static InputProfile of(int[] a) {
+        int n = a.length;
+        if (n < 2) return new InputProfile(n, 0, 1, 0);
+
+        // Presortedness: full pass when small, evenly spaced blocks when large
+        long breaks = 0, checked = 0;
+        if (n <= FULL_SCAN_LIMIT) {
+            breaks = runBreaks(a, 0, n);
+            checked = n - 1;
+        } else {
+            long gap = (long) n / BLOCKS;
+            for (int b = 0; b < BLOCKS; b++) {
+                int start = (int) (b * gap);
+                breaks += runBreaks(a, start, start + BLOCK_SIZE);
+                checked += BLOCK_SIZE - 1;
+            }
+        }
+
+        // Duplicates and key range from an evenly spaced sample
+        int m = Math.min(n, SAMPLE_SIZE);
+        int[] sample = new int[m];
+        for (int i = 0; i < m; i++) sample[i] = a[(int) ((long) i * n / m)];
+        IntroSort.introSort(sample);
+        int distinct = 1;
+        for (int i = 1; i < m; i++) if (sample[i] != sample[i - 1]) distinct++;
+        long range = (long) sample[m - 1] - sample[0];
+
+        return new InputProfile(n, (double) breaks / checked, (double) distinct / m, range);
+    }
+
+    // Number of times a[from, to) switches between ascending and descending
+    private static long runBreaks(int[] a, int from, int to) {
+        long breaks = 0;
+        int direction = 0;
+        for (int i = from + 1; i < to; i++) {
+            int c = Integer.compare(a[i], a[i - 1]);
+            if (c == 0) continue;
+            if (direction != 0 && c != direction) breaks++;
+            direction = c;
+        }
+        return breaks;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d runs=%.5f distinct=%.4f range=%d",
+                             n, runRatio, distinctRatio, keyRange);
+    }
+}
+
+
+// ============================================================================
+// 2. ADAPTIVE SORTER
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Profile first, then dispatch (checked top to bottom):
+ *   n <= 32                                → INSERTION  (InsertionSort)
+ *   runs <= 1/4096 per element             → MERGE      (TimSort: natural
+ *                                            runs, reversed runs flipped)
+ *   n >= 4096, or key range < 2^16         → RADIX      (RadixSort LSD)
+ *   distinct keys <= 1/16 of the sample    → THREE_WAY  (QuickSort 3-way)
+ *   otherwise                              → QUICK      (IntroSort)
+ * - Order and thresholds come from SortingBenchmark-style runs at 1M ints:
+ *   TimSort wins only with very few runs (0.4 ms sorted, 5.6 ms organ pipe,
+ *   but 22 ms on 1000 runs vs 9 ms radix); radix beats 3-way Quick Sort
+ *   even on 16 distinct keys (7 ms vs 29 ms) once n is large
+ * - Every call produces a Decision (profile + choice + nanoseconds spent
+ *   profiling and sorting):
+ *   → handed to an optional trace consumer (log it, ship it to metrics)
+ *   → summed per algorithm in thread-safe counters (summary())
+ *   → from real traces the thresholds above can be tuned: e.g. if RADIX
+ *     decisions at n ~ 4096 are slower per element than QUICK ones, raise
+ *     RADIX_MIN_SIZE
+ * - Thread-safe: no mutable state apart from the atomic counters
+ *
+ * TIME COMPLEXITY: that of the chosen algorithm + the profile
+ *
+ * SPACE COMPLEXITY: that of the chosen algorithm
+ *
+ * EXAMPLE:
+ * [5, 1, 4]                          → INSERTION (tiny)
+ * 0, 1, ..., n/2, ..., 1, 0 (1M)     → MERGE     (2 runs)
+ * 2000 keys from {0..15}, range 2^20 → THREE_WAY (distinct ~ 0.008)
+ * 1M random ints                     → RADIX
+ */
+class AdaptiveSorter {
+    enum Choice { INSERTION, MERGE, QUICK, THREE_WAY, RADIX }
+
+    static final int INSERTION_MAX_SIZE = 32;
+    static final double PRESORTED_RUN_RATIO = 1.0 / 4096;
+    static final double FEW_DISTINCT_RATIO = 1.0 / 16;
+    static final int RADIX_MIN_SIZE = 1 << 12;
+    static final long NARROW_KEY_RANGE = 1 << 16;
+
+    // One sort: what was seen, what was picked, what it cost
+    static final class Decision {
+        final InputProfile profile;
+        final Choice choice;
+        final long profileNanos;
+        final long sortNanos;
+
+        Decision(InputProfile profile, Choice choice, long profileNanos, long sortNanos) {
+            this.profile = profile;
+            this.choice = choice;
+            this.profileNanos = profileNanos;
+            this.sortNanos = sortNanos;
+        }
+
+        @Override
+        public String toString() {
+            return choice + " " + profile + " profileNs=" + profileNanos + " sortNs=" + sortNanos;
+        }
+    }
+
+    private final Consumer<Decision> trace;
+    private final AtomicLongArray calls = new AtomicLongArray(Choice.values().length);
+    private final AtomicLongArray elements = new AtomicLongArray(Choice.values().length);
+    private final AtomicLongArray nanos = new AtomicLongArray(Choice.values().length);
+
+    public AdaptiveSorter() {
+        this(null);
+    }
+
+    // trace receives every Decision (may be null)
+    public AdaptiveSorter(Consumer<Decision> trace) {
+        this.trace = trace;
+    }
+
+    public Decision sort(int[] arr) {
+        long start = System.nanoTime();
+        InputProfile profile = InputProfile.of(arr);
+        Choice choice = choose(profile);
+        long sorted = System.nanoTime();
+
+        switch (choice) {
+            case INSERTION: InsertionSort.insertionSort(arr); break;
+            case MERGE:     TimSort.timSort(arr); break;
+            case THREE_WAY: QuickSort.quickSort(arr, QuickSort.PartitionScheme.THREE_WAY); break;
+            case RADIX:     RadixSort.radixSort(arr); break;
+            default:        IntroSort.introSort(arr); break;
+        }
+
+        long end = System.nanoTime();
+        Decision decision = new Decision(profile, choice, sorted - start, end - sorted);
+        int c = choice.ordinal();
+        calls.incrementAndGet(c);
+        elements.addAndGet(c, arr.length);
+        nanos.addAndGet(c, end - start);
+        if (trace != null) trace.accept(decision);
+        return decision;
+    }
+
+    // The decision tree; kept separate so it can be tested on profiles alone
+    static Choice choose(InputProfile p) {
+        if (p.n <= INSERTION_MAX_SIZE) return Choice.INSERTION;
+        if (p.runRatio <= PRESORTED_RUN_RATIO) return Choice.MERGE;
+        if (p.n >= RADIX_MIN_SIZE || p.keyRange < NARROW_KEY_RANGE) return Choice.RADIX;
+        if (p.distinctRatio <= FEW_DISTINCT_RATIO) return Choice.THREE_WAY;
+        return Choice.QUICK;
+    }
+
+    // Calls, elements and average ns per element for each algorithm so far
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (Choice c : Choice.values()) {
+            long count = calls.get(c.ordinal());
+            if (count == 0) continue;
+            long n = elements.get(c.ordinal());
+            sb.append(String.format("%-10s calls=%d elements=%d ns/elem=%.2f%n",
+                                    c, count, n, n == 0 ? 0.0 : (double) nanos.get(c.ordinal()) / n));
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) {
+        AdaptiveSorter sorter = new AdaptiveSorter(d -> System.out.println("  " + d));
+        int n = 1_000_000;
+
+        System.out.println("Decisions:");
+        sorter.sort(new int[] {5, 1, 4});
+        for (Distribution d : Distribution.values()) {
+            int[] arr = d.generate(n, 42);
+            sorter.sort(arr);
+        }
+        // Output (timings vary):
+        //   INSERTION n=3 ...
+        //   RADIX n=1000000 runs=0.66373 distinct=1.0000 ...   (RANDOM)
+        //   MERGE n=1000000 runs=0.00000 ...                   (SORTED)
+        //   MERGE n=1000000 runs=0.00000 ...                   (REVERSED)
+        //   MERGE n=1000000 runs=0.00000 ...                   (ORGAN_PIPE)
+        //   RADIX n=1000000 runs=0.64105 distinct=0.0156 ...   (FEW_UNIQUE)
+        //   RADIX n=1000000 runs=0.00196 ...                   (SAWTOOTH)
+
+        System.out.println("Summary:");
+        System.out.print(sorter.summary());
+    }
+}
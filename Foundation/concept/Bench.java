@@ -0,0 +1,88 @@
+/*
+ * BENCHMARK HARNESS - CONCEPT NOTES FOR REVISION
+ * ========================================================
+ * The measurement loop shared by every *Benchmark class in this folder
+ */
+import java.lang.management.ManagementFactory;
+
+// ============================================================================
+// 1. THE MEASUREMENT LOOP
+// ============================================================================
+/*
+ * CONCEPT (why naive "time one call" benchmarks lie):
+ * - JIT warm-up: the first calls run in the interpreter → run a warm-up
+ *   phase first and throw its numbers away
+ * - Timer resolution: System.nanoTime costs ~20-30 ns, more than sorting
+ *   16 ints → small inputs are measured in BATCHES (many arrays per timing)
+ * - Setup must not be timed: copies of the input are prepared before the
+ *   clock starts (a sort is destructive, every call needs fresh data)
+ * - Allocation: com.sun.management.ThreadMXBean counts bytes allocated by
+ *   the calling thread → bytes/op shows hidden garbage (e.g. MergeSort's
+ *   per-level arrays). Work done on pool threads is NOT counted
+ *
+ * A BatchOp prepares a batch (untimed) and returns how many operations
+ * it contains; run() then executes the whole batch (timed).
+ * Bench.batch(ops, body) builds one with nothing to prepare, and results
+ * go into Bench.sink so the work cannot be optimized away.
+ */
+final class Bench {
+    interface BatchOp {
+        int prepare();
+        void run();
+    }
+
+    static final class Result {
+        final double nsPerOp;
+        final double bytesPerOp;
+        final long ops;
+
+        Result(double nsPerOp, double bytesPerOp, long ops) {
+            this.nsPerOp = nsPerOp;
+            this.bytesPerOp = bytesPerOp;
+            this.ops = ops;
+        }
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Benchmarks add what they computed here so the JIT cannot drop the
+    // measured work as dead code (a static field stays observable)
+    static long sink;
+
+    private Bench() {}
+
+    // A BatchOp without setup: each run() performs ops operations
+    static BatchOp batch(int ops, Runnable body) {
+        return new BatchOp() {
+            public int prepare() {
+                return ops;
+            }
+
+            public void run() {
+                body.run();
+            }
+        };
+    }
+
+    static Result run(BatchOp op, long warmupNanos, long measureNanos) {
+        loop(op, warmupNanos);
+        return loop(op, measureNanos);
+    }
+
+    // Repeats batches until at least minNanos of timed work has been done
+    private static Result loop(BatchOp op, long minNanos) {
+        long elapsed = 0, ops = 0, allocated = 0;
+        long threadId = Thread.currentThread().getId();
+        do {
+            int batch = op.prepare();
+            long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            op.run();
+            elapsed += System.nanoTime() - start;
+            allocated += THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+            ops += batch;
+        } while (elapsed < minNanos);
+        return new Result((double) elapsed / ops, (double) allocated / ops, ops);
+    }
+}
@@ -0,0 +1,1124 @@
+/*
+ * CONCURRENT COLLECTIONS - CONCEPT NOTES FOR REVISION
+ * ========================================================
+ * Stacks and queues shared between threads without one big lock
+ */
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.management.ManagementFactory;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EmptyStackException;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Stack;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicStampedReference;
+import java.util.function.Supplier;
+
+// ============================================================================
+// 1. STACK SURFACE + ArrayStack (SINGLE-THREADED)
+// ============================================================================
+/*
+ * CONCEPT:
+ * - java.util.Stack extends Vector: every push / pop / peek is a
+ *   synchronized method → uncontended it still pays for the lock, with
+ *   many threads they all queue up behind one monitor
+ * - StackOps: the push / pop / peek / isEmpty surface shared by the stacks
+ *   in this file, so callers can swap implementations
+ *   → pop / peek return null when empty instead of throwing
+ *     EmptyStackException: with several threads "isEmpty() then pop()"
+ *     is a race, so emptiness must be part of the pop result
+ *   → null elements are rejected (null means "empty")
+ * - ArrayStack: for stacks owned by ONE thread: a plain Object[] that
+ *   doubles when full, no locks, no atomics; pop clears the slot so the
+ *   element can be garbage collected
+ *
+ * TIME COMPLEXITY: push O(1) amortized, pop / peek / isEmpty O(1)
+ *
+ * SPACE COMPLEXITY: O(n), one reference per element
+ *
+ * EXAMPLE:
+ * StackOps<String> s = new ArrayStack<>();
+ * s.push("A"); s.push("B");
+ * s.pop() → "B",  s.peek() → "A",  s.pop() → "A",  s.pop() → null
+ */
+interface StackOps<E> {
+    void push(E e);
+
+    // Top element removed, or null if the stack is empty
+    E pop();
+
+    // Top element, or null if the stack is empty
+    E peek();
+
+    boolean isEmpty();
+}
+
+class ArrayStack<E> implements StackOps<E> {
+    private Object[] elements;
+    private int size;
+
+    public ArrayStack() {
+        this(16);
+    }
+
+    public ArrayStack(int capacity) {
+        elements = new Object[Math.max(1, capacity)];
+    }
+
+    @Override
+    public void push(E e) {
+        if (e == null) throw new NullPointerException();
+        if (size == elements.length) elements = Arrays.copyOf(elements, size * 2);
+        elements[size++] = e;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E pop() {
+        if (size == 0) return null;
+        E e = (E) elements[--size];
+        elements[size] = null;   // let the GC reclaim it
+        return e;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        return size == 0 ? null : (E) elements[size - 1];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+}
+
+
+// ============================================================================
+// 2. TREIBER STACK (LOCK-FREE)
+// ============================================================================
+/*
+ * CONCEPT:
+ * - A linked list whose head is an AtomicReference
+ * - PUSH: new node → node.next = head → CAS(head: old → node);
+ *   if another thread changed head in between the CAS fails → retry
+ * - POP: read head → CAS(head: old → old.next) → retry on failure
+ * - LOCK-FREE: a failed CAS means some other thread's operation
+ *   SUCCEEDED, so the stack as a whole always makes progress; no thread
+ *   ever waits for a descheduled lock holder
+ * - ABA is not an issue in Java: a popped node cannot be reused while
+ *   another thread still holds a reference to it (the GC sees to that),
+ *   and nodes are never recycled here
+ * - Limit: every operation CASes the SAME head → under heavy contention
+ *   most CASes fail and the head's cache line bounces between cores
+ *   (see EliminationBackoffStack)
+ *
+ * TIME COMPLEXITY: O(1) per operation without contention
+ *
+ * SPACE COMPLEXITY: O(n), one node (~24 bytes) per element
+ */
+class TreiberStack<E> implements StackOps<E> {
+    static final class Node<E> {
+        final E item;
+        Node<E> next;
+
+        Node(E item) {
+            this.item = item;
+        }
+    }
+
+    private final AtomicReference<Node<E>> head = new AtomicReference<>();
+
+    @Override
+    public void push(E e) {
+        if (e == null) throw new NullPointerException();
+        Node<E> node = new Node<>(e);
+        while (!tryPush(node)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public E pop() {
+        while (true) {
+            Node<E> top = head.get();
+            if (top == null) return null;
+            if (head.compareAndSet(top, top.next)) return top.item;
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public E peek() {
+        Node<E> top = head.get();
+        return top == null ? null : top.item;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return head.get() == null;
+    }
+
+    // One CAS attempt; false if head changed since it was read
+    boolean tryPush(Node<E> node) {
+        Node<E> top = head.get();
+        node.next = top;
+        return head.compareAndSet(top, node);
+    }
+
+    // One CAS attempt: the popped node, EMPTY_STACK, or null if head changed
+    Object tryPop() {
+        Node<E> top = head.get();
+        if (top == null) return EMPTY_STACK;
+        return head.compareAndSet(top, top.next) ? top : null;
+    }
+
+    static final Object EMPTY_STACK = new Object();
+}
+
+
+// ============================================================================
+// 3. ELIMINATION BACKOFF STACK
+// ============================================================================
+/*
+ * CONCEPT:
+ * - A push followed immediately by a pop leaves the stack unchanged, so
+ *   a concurrent push / pop PAIR does not need the stack at all: the
+ *   pusher can hand its element straight to the popper
+ * - Try the Treiber CAS once; if it FAILS (contention), back off into an
+ *   ELIMINATION ARRAY instead of retrying on the hot head:
+ *   → pick a random slot, wait there briefly for a partner (an exchanger)
+ *   → push meets pop: element handed over, BOTH done, head never touched
+ *   → push meets push / pop meets pop / nobody came: retry the stack
+ * - The more contention, the more pairs meet in the array → throughput
+ *   grows with thread count where the plain Treiber stack flattens out
+ * - Still lock-free and linearizable: an eliminated pair can be ordered
+ *   as "push, then pop" at the moment they meet
+ * - Exchanger slot states (AtomicStampedReference: item + state):
+ *   EMPTY   → first thread CASes its item in, state WAITING, spins
+ *   WAITING → second thread CASes its item in, state BUSY, takes the first
+ *             item and leaves
+ *   BUSY    → first thread takes the second item, resets to EMPTY
+ *   first thread times out → CAS WAITING → EMPTY, unless a partner
+ *   arrived at the last moment
+ *
+ * TIME COMPLEXITY: O(1) per operation without contention
+ *
+ * SPACE COMPLEXITY: O(n) + O(slots)
+ */
+class EliminationBackoffStack<E> implements StackOps<E> {
+    static final int DEFAULT_SPINS = 256;
+
+    private static final Object POP = new Object();      // what a popper offers
+    private static final Object FAILED = new Object();   // no exchange happened
+
+    private final TreiberStack<E> stack = new TreiberStack<>();
+    private final Exchanger[] slots;
+    private final int spins;
+
+    public EliminationBackoffStack() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), DEFAULT_SPINS);
+    }
+
+    // slots: exchangers in the elimination array; spins: how long to wait in one
+    public EliminationBackoffStack(int slots, int spins) {
+        if (slots < 1 || spins < 1) throw new IllegalArgumentException("slots and spins must be >= 1");
+        this.slots = new Exchanger[slots];
+        for (int i = 0; i < slots; i++) this.slots[i] = new Exchanger();
+        this.spins = spins;
+    }
+
+    @Override
+    public void push(E e) {
+        if (e == null) throw new NullPointerException();
+        TreiberStack.Node<E> node = new TreiberStack.Node<>(e);
+        while (!stack.tryPush(node)) {
+            if (eliminate(e) == POP) return;   // a popper took it
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E pop() {
+        while (true) {
+            Object result = stack.tryPop();
+            if (result == TreiberStack.EMPTY_STACK) return null;
+            if (result != null) return ((TreiberStack.Node<E>) result).item;
+            Object other = eliminate(POP);
+            if (other != POP && other != FAILED) return (E) other;   // a pusher's item
+        }
+    }
+
+    @Override
+    public E peek() {
+        return stack.peek();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return stack.isEmpty();
+    }
+
+    private Object eliminate(Object mine) {
+        int i = ThreadLocalRandom.current().nextInt(slots.length);
+        return slots[i].exchange(mine, spins);
+    }
+
+    private static final class Exchanger {
+        static final int EMPTY = 0, WAITING = 1, BUSY = 2;
+
+        private final AtomicStampedReference<Object> slot = new AtomicStampedReference<>(null, EMPTY);
+
+        // The partner's item, or FAILED if none showed up within spins
+        Object exchange(Object mine, int spins) {
+            int[] state = new int[1];
+            for (int i = 0; i < spins; i++) {
+                Object theirs = slot.get(state);
+                switch (state[0]) {
+                    case EMPTY:
+                        if (slot.compareAndSet(theirs, mine, EMPTY, WAITING)) {
+                            return awaitPartner(mine, spins - i, state);
+                        }
+                        break;
+                    case WAITING:
+                        if (slot.compareAndSet(theirs, mine, WAITING, BUSY)) return theirs;
+                        break;
+                    default:   // BUSY: two other threads are finishing an exchange
+                        break;
+                }
+                Thread.onSpinWait();
+            }
+            return FAILED;
+        }
+
+        private Object awaitPartner(Object mine, int spins, int[] state) {
+            for (int i = 0; i < spins; i++) {
+                Object theirs = slot.get(state);
+                if (state[0] == BUSY) {
+                    slot.set(null, EMPTY);
+                    return theirs;
+                }
+                Thread.onSpinWait();
+            }
+            if (slot.compareAndSet(mine, null, WAITING, EMPTY)) return FAILED;
+            // A partner arrived between the last check and the CAS
+            Object theirs = slot.getReference();
+            slot.set(null, EMPTY);
+            return theirs;
+        }
+    }
+}
+
+
+// ============================================================================
+// 4. STACK CONTENTION BENCHMARK
+// ============================================================================
+/*
+ * CONCEPT:
+ * - T threads (1, 2, 4 ... 64) share one stack; each does pushes and pops
+ *   in random order (50 / 50) for a fixed number of operations
+ * - java.util.Stack (synchronized) vs TreiberStack vs
+ *   EliminationBackoffStack; ArrayStack only single-threaded
+ * - Reports total Mops/s (wall clock, all threads started together)
+ * - Needs as many cores as threads to show contention effects: with
+ *   fewer cores, threads mostly run one after another
+ *
+ * USAGE:
+ *   java -cp out StackBenchmark [opsPerThread] [maxThreads]
+ */
+class StackBenchmark {
+    public static void main(String[] args) throws InterruptedException {
+        int ops = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        System.out.println("cores: " + Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-12s %8s %12s %12s %12s%n", "stack", "threads", "Stack", "Treiber", "Elimination");
+        System.out.printf("%-12s %8d %12.2f%n", "ArrayStack", 1, run(ArrayStack::new, 1, ops));
+        for (int t = 1; t <= maxThreads; t *= 2) {
+            System.out.printf("%-12s %8d %12.2f %12.2f %12.2f%n", "shared", t,
+                run(SynchronizedStack::new, t, ops),
+                run(TreiberStack::new, t, ops),
+                run(EliminationBackoffStack::new, t, ops));
+        }
+    }
+
+    // Mops/s of threads x ops random push / pop on one shared stack
+    private static double run(Supplier<StackOps<Integer>> factory, int threads, int ops)
+            throws InterruptedException {
+        double best = 0;
+        for (int round = 0; round < 3; round++) {   // first rounds warm up the JIT
+            StackOps<Integer> stack = factory.get();
+            for (int i = 0; i < 1024; i++) stack.push(i);
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                workers[t] = new Thread(() -> {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    Integer item = 42;
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < ops; i++) {
+                        if (rnd.nextBoolean()) stack.push(item);
+                        else stack.pop();
+                    }
+                });
+                workers[t].start();
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Thread w : workers) w.join();
+            long elapsed = System.nanoTime() - begin;
+            best = Math.max(best, (double) threads * ops / elapsed * 1000);
+        }
+        return best;
+    }
+
+    // java.util.Stack behind StackOps: null instead of EmptyStackException
+    private static final class SynchronizedStack<E> implements StackOps<E> {
+        private final Stack<E> stack = new Stack<>();
+
+        public void push(E e) {
+            stack.push(e);
+        }
+
+        public E pop() {
+            try {
+                return stack.pop();
+            } catch (EmptyStackException e) {
+                return null;
+            }
+        }
+
+        public E peek() {
+            try {
+                return stack.peek();
+            } catch (EmptyStackException e) {
+                return null;
+            }
+        }
+
+        public boolean isEmpty() {
+            return stack.isEmpty();
+        }
+    }
+}
+
+
+// ============================================================================
+// 5. BOUNDED RING-BUFFER QUEUE (COMMON PART)
+// ============================================================================
+/*
+ * CONCEPT:
+ * - LinkedList as a Queue: one node per offer (garbage, pointer chasing),
+ *   and no thread safety; ArrayBlockingQueue: one lock for both ends
+ * - RING BUFFER: a fixed array of capacity 2^k used in a circle
+ *   → tail = total number of offers, head = total number of polls
+ *     (longs that never wrap in practice); slot = counter & (capacity - 1)
+ *   → empty: head == tail, full: tail - head == capacity
+ *   → no allocation per element, neighbouring elements share cache lines
+ * - One class per "who may call what", because every restriction removes
+ *   synchronization:
+ *   SPSC: 1 producer thread, 1 consumer thread → no CAS at all
+ *   MPSC: any producers, 1 consumer           → CAS on tail only
+ *   MPMC: any producers, any consumers        → CAS on both, plus a
+ *                                               sequence number per slot
+ * - FALSE SHARING: head is written by consumers, tail by producers; if
+ *   both sat in one 64-byte cache line, every write on one side would
+ *   invalidate the other side's copy. The fields are put in separate
+ *   classes of a hierarchy with 7 longs of padding in between (the JVM
+ *   lays out superclass fields first; @Contended needs a JVM flag)
+ * - BATCHES: offerAll / drainTo claim several slots with ONE counter
+ *   update (one CAS instead of one per element)
+ * - Implements java.util.Queue (via AbstractQueue): offer / poll / peek
+ *   never block; add / remove / element throw as the Queue contract says;
+ *   null elements are rejected; the iterator is a weakly consistent
+ *   snapshot without remove()
+ * - size() is a moment-in-time estimate while other threads are active
+ */
+abstract class RingPad0<E> extends AbstractQueue<E> {
+    long p00, p01, p02, p03, p04, p05, p06;
+}
+
+abstract class RingTail<E> extends RingPad0<E> {
+    volatile long tail;   // next position to offer into
+}
+
+abstract class RingPad1<E> extends RingTail<E> {
+    long p10, p11, p12, p13, p14, p15, p16;
+}
+
+abstract class RingHead<E> extends RingPad1<E> {
+    volatile long head;   // next position to poll from
+}
+
+abstract class RingPad2<E> extends RingHead<E> {
+    long p20, p21, p22, p23, p24, p25, p26;
+}
+
+abstract class RingBufferQueue<E> extends RingPad2<E> {
+    static final VarHandle HEAD, TAIL, ELEMENTS, SEQUENCES;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(RingHead.class, "head", long.class);
+            TAIL = lookup.findVarHandle(RingTail.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+        ELEMENTS = MethodHandles.arrayElementVarHandle(Object[].class);
+        SEQUENCES = MethodHandles.arrayElementVarHandle(long[].class);
+    }
+
+    final Object[] buffer;
+    final int mask;
+
+    // capacity is rounded up to a power of two
+    RingBufferQueue(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be in [1, 2^30]: " + capacity);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        buffer = new Object[size];
+        mask = size - 1;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    // Offers items[from, to) in order until the queue is full; returns how many went in
+    public abstract int offerAll(E[] items, int from, int to);
+
+    public int offerAll(E[] items) {
+        return offerAll(items, 0, items.length);
+    }
+
+    // Moves up to max elements into c; returns how many were moved
+    public abstract int drainTo(Collection<? super E> c, int max);
+
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int size() {
+        long after = (long) HEAD.getVolatile(this);
+        while (true) {
+            long before = after;
+            long t = (long) TAIL.getVolatile(this);
+            after = (long) HEAD.getVolatile(this);
+            if (before == after) return (int) Math.max(0, Math.min(buffer.length, t - after));
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return (long) HEAD.getVolatile(this) >= (long) TAIL.getVolatile(this);
+    }
+
+    // Snapshot of the elements between head and tail at some moment
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<E> iterator() {
+        long h = (long) HEAD.getVolatile(this), t = (long) TAIL.getVolatile(this);
+        List<E> snapshot = new ArrayList<>();
+        for (long p = h; p < t && p < h + buffer.length; p++) {
+            Object e = ELEMENTS.getAcquire(buffer, (int) p & mask);
+            if (e != null) snapshot.add((E) e);
+        }
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+
+    static void checkRange(Object[] items, int from, int to) {
+        Objects.checkFromToIndex(from, to, items.length);
+        for (int i = from; i < to; i++) Objects.requireNonNull(items[i]);
+    }
+}
+
+
+// ============================================================================
+// 6. SPSC RING QUEUE (ONE PRODUCER, ONE CONSUMER)
+// ============================================================================
+/*
+ * CONCEPT:
+ * - The slot itself says whether it is free: null = free, else full
+ *   → producer: slot at tail null? store the element (release) → done
+ *   → consumer: slot at head non-null (acquire)? take it, store null
+ *     (release) → done
+ *   → each side only reads the other side's slot writes, never its
+ *     counter: no CAS, and the counters are only kept up for size()
+ * - release / acquire: the element is fully constructed before the
+ *   consumer can see it in the slot (on x86 both are plain moves)
+ * - Calling offer from two threads (or poll from two) breaks it
+ *
+ * TIME COMPLEXITY: O(1) per operation, no CAS
+ */
+class SpscRingQueue<E> extends RingBufferQueue<E> {
+    public SpscRingQueue(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        long t = tail;
+        int i = (int) t & mask;
+        if (ELEMENTS.getAcquire(buffer, i) != null) return false;   // full
+        ELEMENTS.setRelease(buffer, i, e);
+        TAIL.setRelease(this, t + 1);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long h = head;
+        int i = (int) h & mask;
+        Object e = ELEMENTS.getAcquire(buffer, i);
+        if (e == null) return null;   // empty
+        ELEMENTS.setRelease(buffer, i, null);
+        HEAD.setRelease(this, h + 1);
+        return (E) e;
+    }
+
+    // Consumer thread only
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        return (E) ELEMENTS.getAcquire(buffer, (int) head & mask);
+    }
+
+    @Override
+    public int offerAll(E[] items, int from, int to) {
+        checkRange(items, from, to);
+        long t = tail;
+        int n = 0;
+        while (from + n < to) {
+            int i = (int) (t + n) & mask;
+            if (ELEMENTS.getAcquire(buffer, i) != null) break;
+            ELEMENTS.setRelease(buffer, i, items[from + n]);
+            n++;
+        }
+        TAIL.setRelease(this, t + n);
+        return n;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super E> c, int max) {
+        long h = head;
+        int n = 0;
+        try {
+            while (n < max) {
+                int i = (int) (h + n) & mask;
+                Object e = ELEMENTS.getAcquire(buffer, i);
+                if (e == null) break;
+                c.add((E) e);
+                ELEMENTS.setRelease(buffer, i, null);
+                n++;
+            }
+        } finally {
+            HEAD.setRelease(this, h + n);
+        }
+        return n;
+    }
+}
+
+
+// ============================================================================
+// 7. MPSC RING QUEUE (MANY PRODUCERS, ONE CONSUMER)
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Producers CLAIM a position by CAS(tail: t → t + 1) after checking
+ *   t - head < capacity, then store the element into the slot (release)
+ * - A claimed slot can still be null for a moment (producer between its
+ *   CAS and its store) → poll / peek spin briefly when head < tail but
+ *   the slot is empty; drainTo just stops there
+ * - The single consumer frees the slot (null) BEFORE advancing head, so
+ *   a producer that sees head past its lap finds the slot empty
+ * - offerAll claims min(count, free space) positions with ONE CAS
+ *
+ * TIME COMPLEXITY: O(1) per operation, one CAS per offer (retried under
+ *   contention)
+ */
+class MpscRingQueue<E> extends RingBufferQueue<E> {
+    public MpscRingQueue(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        long t;
+        do {
+            t = (long) TAIL.getVolatile(this);
+            if (t - (long) HEAD.getVolatile(this) >= buffer.length) return false;   // full
+        } while (!TAIL.compareAndSet(this, t, t + 1));
+        ELEMENTS.setRelease(buffer, (int) t & mask, e);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long h = head;
+        int i = (int) h & mask;
+        Object e = ELEMENTS.getAcquire(buffer, i);
+        if (e == null) {
+            if (h == (long) TAIL.getVolatile(this)) return null;   // empty
+            while ((e = ELEMENTS.getAcquire(buffer, i)) == null) Thread.onSpinWait();
+        }
+        buffer[i] = null;
+        HEAD.setRelease(this, h + 1);   // also publishes the null above
+        return (E) e;
+    }
+
+    // Consumer thread only
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        long h = head;
+        int i = (int) h & mask;
+        Object e = ELEMENTS.getAcquire(buffer, i);
+        if (e == null && h != (long) TAIL.getVolatile(this)) {
+            while ((e = ELEMENTS.getAcquire(buffer, i)) == null) Thread.onSpinWait();
+        }
+        return (E) e;
+    }
+
+    @Override
+    public int offerAll(E[] items, int from, int to) {
+        checkRange(items, from, to);
+        long t;
+        int n;
+        do {
+            t = (long) TAIL.getVolatile(this);
+            long free = buffer.length - (t - (long) HEAD.getVolatile(this));
+            n = (int) Math.min(free, to - from);
+            if (n <= 0) return 0;
+        } while (!TAIL.compareAndSet(this, t, t + n));
+        for (int k = 0; k < n; k++) ELEMENTS.setRelease(buffer, (int) (t + k) & mask, items[from + k]);
+        return n;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super E> c, int max) {
+        long h = head;
+        int n = 0;
+        try {
+            while (n < max) {
+                int i = (int) (h + n) & mask;
+                Object e = ELEMENTS.getAcquire(buffer, i);
+                if (e == null) break;   // empty, or a producer has not stored yet
+                c.add((E) e);
+                buffer[i] = null;
+                n++;
+            }
+        } finally {
+            HEAD.setRelease(this, h + n);
+        }
+        return n;
+    }
+}
+
+
+// ============================================================================
+// 8. MPMC RING QUEUE (MANY PRODUCERS, MANY CONSUMERS)
+// ============================================================================
+/*
+ * CONCEPT:
+ * - With many consumers "slot non-null" is not enough: a consumer could
+ *   take an element that another consumer already claimed. Each slot
+ *   gets a SEQUENCE NUMBER saying which position it is ready for
+ *   (bounded queue by Dmitry Vyukov):
+ *   sequence == p          → free for the producer of position p
+ *   sequence == p + 1      → holds the element of position p
+ *   sequence == p + capacity → freed, ready for position p + capacity
+ * - offer: t = tail; slot's sequence == t? CAS(tail: t → t + 1), store the
+ *   element, then sequence = t + 1 (release) → visible to consumers
+ *   sequence < t → the slot still holds an element from the last lap: FULL
+ * - poll: h = head; sequence == h + 1? CAS(head: h → h + 1), take the
+ *   element, then sequence = h + capacity (release) → free for producers
+ *   sequence < h + 1 → nothing there yet: EMPTY
+ * - Batches: check the sequences of k slots in a row, then claim all k
+ *   with one CAS
+ *
+ * TIME COMPLEXITY: O(1) per operation, one CAS (retried under contention)
+ *
+ * SPACE COMPLEXITY: capacity references + capacity longs
+ *
+ * EXAMPLE (capacity 4):
+ * sequences [0 1 2 3], head = tail = 0
+ * offer(A): slot 0 seq 0 == tail 0 → tail 1, seq [1 1 2 3]
+ * poll():   slot 0 seq 1 == head 0 + 1 → head 1, seq [4 1 2 3]
+ */
+class MpmcRingQueue<E> extends RingBufferQueue<E> {
+    private final long[] sequences;
+
+    // At least 2 slots: with one, "freed for the next lap" (h + 1) would
+    // read as "holds position h"
+    public MpmcRingQueue(int capacity) {
+        super(Math.max(2, capacity));
+        sequences = new long[buffer.length];
+        for (int i = 0; i < sequences.length; i++) sequences[i] = i;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        while (true) {
+            long t = (long) TAIL.getVolatile(this);
+            int i = (int) t & mask;
+            long seq = (long) SEQUENCES.getAcquire(sequences, i);
+            if (seq == t) {
+                if (TAIL.compareAndSet(this, t, t + 1)) {
+                    buffer[i] = e;
+                    SEQUENCES.setRelease(sequences, i, t + 1);
+                    return true;
+                }
+            } else if (seq < t) {
+                return false;   // full
+            }
+            // else: another producer took position t; retry with the new tail
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        while (true) {
+            long h = (long) HEAD.getVolatile(this);
+            int i = (int) h & mask;
+            long seq = (long) SEQUENCES.getAcquire(sequences, i);
+            if (seq == h + 1) {
+                if (HEAD.compareAndSet(this, h, h + 1)) {
+                    Object e = buffer[i];
+                    buffer[i] = null;
+                    SEQUENCES.setRelease(sequences, i, h + buffer.length);
+                    return (E) e;
+                }
+            } else if (seq < h + 1) {
+                return null;    // empty
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        while (true) {
+            long h = (long) HEAD.getVolatile(this);
+            int i = (int) h & mask;
+            long seq = (long) SEQUENCES.getAcquire(sequences, i);
+            if (seq < h + 1) return null;
+            Object e = buffer[i];
+            // Still the element of position h? (no consumer took it meanwhile)
+            if (seq == h + 1 && (long) HEAD.getVolatile(this) == h) return (E) e;
+        }
+    }
+
+    @Override
+    public int offerAll(E[] items, int from, int to) {
+        checkRange(items, from, to);
+        int total = 0;
+        while (from + total < to) {
+            long t = (long) TAIL.getVolatile(this);
+            int want = Math.min(to - from - total, buffer.length), n = 0;
+            while (n < want && (long) SEQUENCES.getAcquire(sequences, (int) (t + n) & mask) == t + n) n++;
+            if (n == 0) {
+                if ((long) SEQUENCES.getAcquire(sequences, (int) t & mask) < t) break;   // full
+                continue;
+            }
+            if (!TAIL.compareAndSet(this, t, t + n)) continue;
+            for (int k = 0; k < n; k++) {
+                int i = (int) (t + k) & mask;
+                buffer[i] = items[from + total + k];
+                SEQUENCES.setRelease(sequences, i, t + k + 1);
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super E> c, int max) {
+        int total = 0;
+        while (total < max) {
+            long h = (long) HEAD.getVolatile(this);
+            int want = Math.min(max - total, buffer.length), n = 0;
+            while (n < want && (long) SEQUENCES.getAcquire(sequences, (int) (h + n) & mask) == h + n + 1) n++;
+            if (n == 0) {
+                if ((long) SEQUENCES.getAcquire(sequences, (int) h & mask) < h + 1) break;   // empty
+                continue;
+            }
+            if (!HEAD.compareAndSet(this, h, h + n)) continue;
+            int k = 0;
+            try {
+                for (; k < n; k++) {
+                    int i = (int) (h + k) & mask;
+                    c.add((E) buffer[i]);
+                    buffer[i] = null;
+                    SEQUENCES.setRelease(sequences, i, h + k + buffer.length);
+                }
+            } finally {
+                // c.add threw: the claimed slots cannot be handed back (head
+                // has moved on), so drop them; left claimed, producers would
+                // see the queue as full forever
+                for (; k < n; k++) {
+                    int i = (int) (h + k) & mask;
+                    buffer[i] = null;
+                    SEQUENCES.setRelease(sequences, i, h + k + buffer.length);
+                }
+            }
+            total += n;
+        }
+        return total;
+    }
+}
+
+
+// ============================================================================
+// 9. QUEUE BENCHMARK
+// ============================================================================
+/*
+ * CONCEPT:
+ * - SINGLE THREAD: offer 512, then poll 512, repeated → ns and bytes
+ *   allocated per element (LinkedList allocates a node per offer);
+ *   one fresh JVM per queue, so no queue pays for the others' profiles
+ * - THROUGHPUT: P producers and C consumers move N elements through one
+ *   queue (busy-retry with Thread.yield when full / empty) → Mops/s;
+ *   "xN" rows use offerAll / drainTo with batches of 64
+ * - LATENCY: two threads bounce one element through a pair of queues;
+ *   round-trip time percentiles
+ * - LinkedList and ArrayDeque are not thread-safe: single-thread rows
+ *   only. Every queue is used only in the roles it allows (SPSC: 1P1C)
+ * - Multi-threaded numbers need at least P + C cores; with fewer, they
+ *   mostly measure the scheduler
+ *
+ * USAGE:
+ *   java -cp out QueueBenchmark [elements] [measureMillis]
+ *   (the single-thread children get the same JVM flags)
+ *   JMH version (forks, -prof gc, sample-time percentiles):
+ *   see jmh/benchmarks/RingQueueBenchmark.java
+ *
+ * SAMPLE OUTPUT (1 core, so the threaded rows mostly show CAS and
+ * batching overhead, not parallel speed-up):
+ * single thread             ns/elem     B/elem
+ * LinkedList                  10.05      24.00
+ * ArrayDeque                   4.71       0.00
+ * ArrayBlockingQueue          57.68       0.00
+ * SpscRingQueue                6.77       0.00
+ * MpmcRingQueue               38.22       0.00
+ * throughput (Mops/s)          1P1C       4P1C       4P4C
+ * ArrayBlockingQueue          12.72      12.70      12.25
+ * SpscRingQueue               31.33
+ * MpmcRingQueue x64           70.84      52.34      53.59
+ */
+class QueueBenchmark {
+    private static final int CAPACITY = 1024;
+    private static final int BATCH = 64;
+
+    public static void main(String[] args) throws InterruptedException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        long nanos = (args.length > 1 ? Long.parseLong(args[1]) : 500) * 1_000_000L;
+
+        if (args.length > 2) {   // child JVM: one single-thread row
+            singleThread(args[2], nanos);
+            return;
+        }
+
+        System.out.println("cores: " + Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-22s %10s %10s%n", "single thread", "ns/elem", "B/elem");
+        for (String name : SINGLE_THREAD) {
+            forkSingleThread(name, nanos);
+        }
+
+        System.out.printf("%-22s %10s %10s %10s%n", "throughput (Mops/s)", "1P1C", "4P1C", "4P4C");
+        System.out.printf("%-22s %10.2f %10.2f %10.2f%n", "ArrayBlockingQueue",
+            transfer(() -> new ArrayBlockingQueue<>(CAPACITY), 1, 1, n, false),
+            transfer(() -> new ArrayBlockingQueue<>(CAPACITY), 4, 1, n, false),
+            transfer(() -> new ArrayBlockingQueue<>(CAPACITY), 4, 4, n, false));
+        System.out.printf("%-22s %10.2f%n", "SpscRingQueue",
+            transfer(() -> new SpscRingQueue<>(CAPACITY), 1, 1, n, false));
+        System.out.printf("%-22s %10.2f%n", "SpscRingQueue x" + BATCH,
+            transfer(() -> new SpscRingQueue<>(CAPACITY), 1, 1, n, true));
+        System.out.printf("%-22s %10.2f %10.2f%n", "MpscRingQueue",
+            transfer(() -> new MpscRingQueue<>(CAPACITY), 1, 1, n, false),
+            transfer(() -> new MpscRingQueue<>(CAPACITY), 4, 1, n, false));
+        System.out.printf("%-22s %10.2f %10.2f%n", "MpscRingQueue x" + BATCH,
+            transfer(() -> new MpscRingQueue<>(CAPACITY), 1, 1, n, true),
+            transfer(() -> new MpscRingQueue<>(CAPACITY), 4, 1, n, true));
+        System.out.printf("%-22s %10.2f %10.2f %10.2f%n", "MpmcRingQueue",
+            transfer(() -> new MpmcRingQueue<>(CAPACITY), 1, 1, n, false),
+            transfer(() -> new MpmcRingQueue<>(CAPACITY), 4, 1, n, false),
+            transfer(() -> new MpmcRingQueue<>(CAPACITY), 4, 4, n, false));
+        System.out.printf("%-22s %10.2f %10.2f %10.2f%n", "MpmcRingQueue x" + BATCH,
+            transfer(() -> new MpmcRingQueue<>(CAPACITY), 1, 1, n, true),
+            transfer(() -> new MpmcRingQueue<>(CAPACITY), 4, 1, n, true),
+            transfer(() -> new MpmcRingQueue<>(CAPACITY), 4, 4, n, true));
+
+        System.out.printf("%-22s %10s %10s%n", "round trip (ns)", "p50", "p99");
+        roundTrip("ArrayBlockingQueue", () -> new ArrayBlockingQueue<>(CAPACITY));
+        roundTrip("SpscRingQueue", () -> new SpscRingQueue<>(CAPACITY));
+        roundTrip("MpmcRingQueue", () -> new MpmcRingQueue<>(CAPACITY));
+    }
+
+    private static final String[] SINGLE_THREAD = {
+        "LinkedList", "ArrayDeque", "ArrayBlockingQueue", "SpscRingQueue", "MpscRingQueue", "MpmcRingQueue"
+    };
+
+    // Each single-thread row runs in a fresh JVM: after seeing six queue classes,
+    // the offer / poll call sites in one JVM would be megamorphic (no inlining)
+    // The child gets this JVM's flags (-Xmx, -XX:..., --add-modules) too
+    private static void forkSingleThread(String name, long nanos) throws InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + "/bin/java");
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"),
+            "QueueBenchmark", "0", String.valueOf(nanos / 1_000_000), name));
+        int exit;
+        try {
+            exit = new ProcessBuilder(command).inheritIO().start().waitFor();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (exit != 0) throw new IllegalStateException(name + ": child JVM exited with " + exit);
+    }
+
+    private static void singleThread(String name, long nanos) {
+        switch (name) {
+            case "LinkedList":         singleThread(name, new LinkedList<>(), nanos); break;
+            case "ArrayDeque":         singleThread(name, new ArrayDeque<>(), nanos); break;
+            case "ArrayBlockingQueue": singleThread(name, new ArrayBlockingQueue<>(CAPACITY), nanos); break;
+            case "SpscRingQueue":      singleThread(name, new SpscRingQueue<>(CAPACITY), nanos); break;
+            case "MpscRingQueue":      singleThread(name, new MpscRingQueue<>(CAPACITY), nanos); break;
+            case "MpmcRingQueue":      singleThread(name, new MpmcRingQueue<>(CAPACITY), nanos); break;
+            default: throw new IllegalArgumentException("Unknown queue: " + name);
+        }
+    }
+
+    private static void singleThread(String name, Queue<Integer> queue, long nanos) {
+        Integer item = 1000;
+        Bench.Result r = Bench.run(Bench.batch(512, () -> {
+            for (int i = 0; i < 512; i++) queue.offer(item);
+            for (int i = 0; i < 512; i++) Bench.sink += queue.poll();
+        }), nanos, nanos);
+        System.out.printf("%-22s %10.2f %10.2f%n", name, r.nsPerOp, r.bytesPerOp);
+    }
+
+    // Mops/s moving n elements from producers to consumers (best of 3 runs)
+    @SuppressWarnings("unchecked")
+    private static double transfer(Supplier<Queue<Integer>> factory, int producers, int consumers,
+                                   int n, boolean batched) throws InterruptedException {
+        double best = 0;
+        Integer[] items = new Integer[BATCH];
+        Arrays.fill(items, 1000);
+        for (int round = 0; round < 3; round++) {
+            Queue<Integer> queue = factory.get();
+            AtomicLong consumed = new AtomicLong();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int share = n / producers + (p < n % producers ? 1 : 0);
+                threads.add(new Thread(() -> {
+                    await(start);
+                    for (int sent = 0; sent < share; ) {
+                        int k;
+                        if (batched) {
+                            k = ((RingBufferQueue<Integer>) queue).offerAll(items, 0, Math.min(BATCH, share - sent));
+                        } else {
+                            k = queue.offer(items[0]) ? 1 : 0;
+                        }
+                        if (k == 0) Thread.yield();
+                        sent += k;
+                    }
+                }));
+            }
+            for (int c = 0; c < consumers; c++) {
+                threads.add(new Thread(() -> {
+                    List<Integer> sink = new ArrayList<>(BATCH);
+                    await(start);
+                    while (consumed.get() < n) {
+                        int k;
+                        if (batched) {
+                            k = ((RingBufferQueue<Integer>) queue).drainTo(sink, BATCH);
+                            sink.clear();
+                        } else {
+                            k = queue.poll() != null ? 1 : 0;
+                        }
+                        if (k == 0) Thread.yield();
+                        else consumed.addAndGet(k);
+                    }
+                }));
+            }
+            for (Thread t : threads) t.start();
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Thread t : threads) t.join();
+            best = Math.max(best, n * 1000.0 / (System.nanoTime() - begin));
+        }
+        return best;
+    }
+
+    // p50 / p99 of ping → pong round trips between two threads
+    private static void roundTrip(String name, Supplier<Queue<Integer>> factory) throws InterruptedException {
+        int rounds = 100_000;
+        Queue<Integer> ping = factory.get(), pong = factory.get();
+        Integer item = 1000;
+        Thread echo = new Thread(() -> {
+            for (int i = 0; i < rounds; i++) {
+                Integer x;
+                while ((x = ping.poll()) == null) Thread.yield();
+                while (!pong.offer(x)) Thread.yield();
+            }
+        });
+        echo.start();
+        long[] times = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            long begin = System.nanoTime();
+            while (!ping.offer(item)) Thread.yield();
+            while (pong.poll() == null) Thread.yield();
+            times[i] = System.nanoTime() - begin;
+        }
+        echo.join();
+        // Second half only: the first half warms up the JIT
+        long[] measured = Arrays.copyOfRange(times, rounds / 2, rounds);
+        Arrays.sort(measured);
+        System.out.printf("%-22s %10d %10d%n", name,
+            measured[measured.length / 2], measured[(int) (measured.length * 0.99)]);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * INPUT DISTRIBUTIONS - CONCEPT NOTES FOR REVISION
+ * ========================================================
+ * The input shapes every sorting benchmark and demo in this folder runs on
+ */
+import java.util.Random;
+
+// ============================================================================
+// 1. INPUT DISTRIBUTIONS
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Big-O hides constants and depends on the INPUT SHAPE
+ *   (Insertion Sort: O(n) sorted, O(n²) reversed)
+ * - So every algorithm is measured on several shapes:
+ *   RANDOM      - uniform ints, the "average case"
+ *   SORTED      - 0, 1, 2, ...              (kills Lomuto Quick Sort)
+ *   REVERSED    - n, n-1, ..., 1
+ *   ORGAN_PIPE  - 0, 1, ..., n/2, ..., 1, 0 (up then down)
+ *   FEW_UNIQUE  - only 16 distinct keys     (tests duplicate handling)
+ *   SAWTOOTH    - repeated ascending runs of length ~sqrt(n)
+ * - Fixed seed → every algorithm sorts exactly the same data
+ */
+enum Distribution {
+    RANDOM, SORTED, REVERSED, ORGAN_PIPE, FEW_UNIQUE, SAWTOOTH;
+
+    int[] generate(int n, long seed) {
+        Random rnd = new Random(seed);
+        int[] a = new int[n];
+        switch (this) {
+            case RANDOM:
+                for (int i = 0; i < n; i++) a[i] = rnd.nextInt();
+                break;
+            case SORTED:
+                for (int i = 0; i < n; i++) a[i] = i;
+                break;
+            case REVERSED:
+                for (int i = 0; i < n; i++) a[i] = n - i;
+                break;
+            case ORGAN_PIPE:
+                for (int i = 0; i < n; i++) a[i] = Math.min(i, n - 1 - i);
+                break;
+            case FEW_UNIQUE:
+                for (int i = 0; i < n; i++) a[i] = rnd.nextInt(16);
+                break;
+            case SAWTOOTH:
+                int period = Math.max(2, (int) Math.sqrt(n));
+                for (int i = 0; i < n; i++) a[i] = i % period;
+                break;
+        }
+        return a;
+    }
+}
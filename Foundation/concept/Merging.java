@@ -0,0 +1,518 @@
+/*
+ * MERGING - CONCEPT NOTES FOR REVISION
+ * ========================================================
+ * Combining many already-sorted runs (shard outputs, sorted files,
+ * Merge Sort levels) into one sorted sequence
+ */
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+// ============================================================================
+// 1. K-WAY MERGE WITH A LOSER TREE
+// ============================================================================
+/*
+ * CONCEPT:
+ * - MergeSort.merge combines 2 runs; merging k runs pairwise costs
+ *   log2(k) passes over all the data
+ * - One pass instead: repeatedly output the smallest head of all k runs
+ * - BINARY HEAP (PriorityQueue): poll + offer = up to 2*log2(k) compares
+ *   per element (sift-down compares both children)
+ * - LOSER TREE (tournament tree): k leaves = runs; every internal node
+ *   remembers the LOSER of the match played there, tree[0] the overall
+ *   winner. After the winner's run advances, only ITS path is replayed:
+ *   exactly ceil(log2(k)) compares, against stored losers, no sibling
+ *   lookups
+ * - Ties go to the lower run index → the merge is STABLE
+ * - GALLOPING (as in TimSort): when one run wins 7 times in a row, find
+ *   how far it keeps beating the runner-up (the best loser on its path)
+ *   with an exponential + binary search, and copy that whole stretch
+ *   with one arraycopy
+ * - STREAMING: the mergers are Iterators (PrimitiveIterator.OfInt /
+ *   OfLong for primitives) → the merged output never has to exist in
+ *   full; drainTo copies it out in chunks
+ *
+ * TIME COMPLEXITY: O(n log k) for n elements in k runs
+ *   (O(n) + O(k log n) when the runs barely overlap, thanks to galloping)
+ *
+ * SPACE COMPLEXITY: O(k) for the tree (+ the output if materialized)
+ *
+ * EXAMPLE (k = 4):
+ * Runs:   [1, 5, 9]  [2, 6]  [3, 7]  [4, 8]
+ * Tree:   matches (1 vs 2) and (3 vs 4) → losers 2 and 4 stored,
+ *         final (1 vs 3) → loser 3 stored, winner 1
+ * Output 1, replay run 0 (now 5): 5 vs 2 → 2 wins ... → 2
+ * Output: [1, 2, 3, 4, 5, 6, 7, 8, 9]
+ */
+class KWayMerge {
+    // Consecutive wins of one run before switching to galloping
+    static final int MIN_GALLOP = 7;
+
+    // ---------------------------- int[] ----------------------------
+
+    public static int[] merge(int[]... runs) {
+        int[] dst = new int[totalLength(runs)];
+        new IntRunMerger(runs).drainTo(dst, 0, dst.length);
+        return dst;
+    }
+
+    // dst must have room for every element of every run after off
+    public static void mergeInto(int[][] runs, int[] dst, int off) {
+        checkRoom(totalLength(runs), dst.length, off);
+        new IntRunMerger(runs).drainTo(dst, off, dst.length - off);
+    }
+
+    public static PrimitiveIterator.OfInt iterator(int[]... runs) {
+        return new IntRunMerger(runs);
+    }
+
+    // ---------------------------- long[] ----------------------------
+
+    public static long[] merge(long[]... runs) {
+        long[] dst = new long[totalLength(runs)];
+        new LongRunMerger(runs).drainTo(dst, 0, dst.length);
+        return dst;
+    }
+
+    public static void mergeInto(long[][] runs, long[] dst, int off) {
+        checkRoom(totalLength(runs), dst.length, off);
+        new LongRunMerger(runs).drainTo(dst, off, dst.length - off);
+    }
+
+    public static PrimitiveIterator.OfLong iterator(long[]... runs) {
+        return new LongRunMerger(runs);
+    }
+
+    // ---------------------------- T[] ----------------------------
+
+    @SuppressWarnings("unchecked")
+    public static <T> T[] merge(T[][] runs, Comparator<? super T> cmp) {
+        int n = totalLength(runs);
+        // Same element type as the runs (String[][] → String[])
+        Class<?> type = runs.getClass().getComponentType().getComponentType();
+        T[] dst = (T[]) java.lang.reflect.Array.newInstance(type, n);
+        new RunMerger<>(runs, cmp).drainTo(dst, 0, n);
+        return dst;
+    }
+
+    public static <T> void mergeInto(T[][] runs, Comparator<? super T> cmp, T[] dst, int off) {
+        checkRoom(totalLength(runs), dst.length, off);
+        new RunMerger<>(runs, cmp).drainTo(dst, off, dst.length - off);
+    }
+
+    public static <T> Iterator<T> iterator(T[][] runs, Comparator<? super T> cmp) {
+        return new RunMerger<>(runs, cmp);
+    }
+
+    // ---------------------------- helpers ----------------------------
+
+    private static int totalLength(Object[] runs) {
+        long n = 0;
+        for (Object run : runs) n += java.lang.reflect.Array.getLength(run);
+        if (n > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Merged length " + n + " does not fit in an array; use iterator()");
+        }
+        return (int) n;
+    }
+
+    private static void checkRoom(int needed, int length, int off) {
+        if (off < 0 || off > length || length - off < needed) {
+            throw new IndexOutOfBoundsException("Need " + needed + " slots at offset " + off
+                + " of an array of length " + length);
+        }
+    }
+
+    public static void main(String[] args) {
+        int[][] shards = {{1, 5, 9}, {2, 6}, {3, 7}, {4, 8}};
+        System.out.println("K-way merge: " + Arrays.toString(merge(shards)));
+        // Output: [1, 2, 3, 4, 5, 6, 7, 8, 9]
+
+        // Streaming: nothing is materialized, stop whenever
+        PrimitiveIterator.OfInt it = iterator(shards);
+        StringBuilder firstFour = new StringBuilder();
+        for (int i = 0; i < 4 && it.hasNext(); i++) firstFour.append(it.nextInt()).append(' ');
+        System.out.println("First 4: " + firstFour.toString().trim());
+        // Output: First 4: 1 2 3 4
+
+        String[][] names = {{"Alice", "Dave"}, {"Bob", "Carol", "Eve"}};
+        System.out.println("Merged names: "
+            + Arrays.toString(merge(names, Comparator.naturalOrder())));
+        // Output: [Alice, Bob, Carol, Dave, Eve]
+    }
+}
+
+
+// One merger per element type: a loser tree over the runs' heads
+final class IntRunMerger implements PrimitiveIterator.OfInt {
+    private final int[][] runs;
+    private final int[] pos;       // next unread index of each run
+    private final int[] tree;      // tree[0] = winner, tree[1..k-1] = losers
+    private final int k;
+    private long remaining;
+    private int lastWinner = -1, streak;
+
+    IntRunMerger(int[][] runs) {
+        this.runs = runs;
+        this.k = runs.length;
+        this.pos = new int[k];
+        this.tree = new int[Math.max(1, k)];
+        for (int[] run : runs) remaining += run.length;
+        if (k > 0) tree[0] = build(1);
+    }
+
+    // Plays the matches below node; stores losers, returns the winner
+    private int build(int node) {
+        if (node >= k) return node - k;   // leaf (k = 1: node 1 is leaf 0)
+        int a = build(2 * node), b = build(2 * node + 1);
+        if (beats(a, b)) {
+            tree[node] = b;
+            return a;
+        }
+        tree[node] = a;
+        return b;
+    }
+
+    // Run a's head comes before run b's head; exhausted runs always lose,
+    // ties go to the lower run index (stable)
+    private boolean beats(int a, int b) {
+        if (pos[a] == runs[a].length) return false;
+        if (pos[b] == runs[b].length) return true;
+        int c = Integer.compare(runs[a][pos[a]], runs[b][pos[b]]);
+        return c < 0 || (c == 0 && a < b);
+    }
+
+    // Winner's head changed: replay its path from leaf to root
+    private void replay(int w) {
+        for (int node = (w + k) >>> 1; node >= 1; node >>>= 1) {
+            if (beats(tree[node], w)) {
+                int t = tree[node];
+                tree[node] = w;
+                w = t;
+            }
+        }
+        tree[0] = w;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return remaining > 0;
+    }
+
+    @Override
+    public int nextInt() {
+        if (remaining == 0) throw new NoSuchElementException();
+        int w = tree[0];
+        int value = runs[w][pos[w]++];
+        remaining--;
+        replay(w);
+        return value;
+    }
+
+    // Copies the next (at most) len merged elements to dst[off..]; returns
+    // how many were copied
+    int drainTo(int[] dst, int off, int len) {
+        int out = off, end = off + (int) Math.min(len, remaining);
+        while (out < end) {
+            int w = tree[0];
+            dst[out++] = runs[w][pos[w]++];
+            if (w == lastWinner) {
+                if (++streak >= KWayMerge.MIN_GALLOP) {
+                    out += gallop(w, dst, out, end);
+                    streak = 0;
+                }
+            } else {
+                lastWinner = w;
+                streak = 1;
+            }
+            replay(w);
+        }
+        remaining -= out - off;
+        return out - off;
+    }
+
+    // Run w keeps winning: copy its whole prefix that still beats the
+    // runner-up in one arraycopy (exponential + binary search for the end)
+    private int gallop(int w, int[] dst, int out, int end) {
+        // Runner-up = best loser on w's path to the root
+        int r = -1;
+        for (int node = (w + k) >>> 1; node >= 1; node >>>= 1) {
+            int c = tree[node];
+            if (r < 0 || beats(c, r)) r = c;
+        }
+        int[] run = runs[w];
+        int from = pos[w];
+        int limit = Math.min(run.length, from + (end - out));
+        int count;
+        if (r < 0 || pos[r] == runs[r].length) {
+            count = limit - from;   // every other run is exhausted
+        } else {
+            int bound = runs[r][pos[r]];
+            boolean takeEqual = w < r;
+            // Find the first index in [from, limit) whose element does not beat bound
+            int lo = from, step = 1;
+            while (lo + step - 1 < limit && precedes(run[lo + step - 1], bound, takeEqual)) {
+                lo += step;
+                step <<= 1;
+            }
+            int hi = Math.min(limit, lo + step - 1);
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (precedes(run[mid], bound, takeEqual)) lo = mid + 1;
+                else hi = mid;
+            }
+            count = lo - from;
+        }
+        System.arraycopy(run, from, dst, out, count);
+        pos[w] += count;
+        return count;
+    }
+
+    private boolean precedes(int x, int bound, boolean takeEqual) {
+        int c = Integer.compare(x, bound);
+        return c < 0 || (takeEqual && c == 0);
+    }
+}
+
+final class LongRunMerger implements PrimitiveIterator.OfLong {
+    private final long[][] runs;
+    private final int[] pos;
+    private final int[] tree;
+    private final int k;
+    private long remaining;
+    private int lastWinner = -1, streak;
+
+    LongRunMerger(long[][] runs) {
+        this.runs = runs;
+        this.k = runs.length;
+        this.pos = new int[k];
+        this.tree = new int[Math.max(1, k)];
+        for (long[] run : runs) remaining += run.length;
+        if (k > 0) tree[0] = build(1);
+    }
+
+    private int build(int node) {
+        if (node >= k) return node - k;
+        int a = build(2 * node), b = build(2 * node + 1);
+        if (beats(a, b)) {
+            tree[node] = b;
+            return a;
+        }
+        tree[node] = a;
+        return b;
+    }
+
+    private boolean beats(int a, int b) {
+        if (pos[a] == runs[a].length) return false;
+        if (pos[b] == runs[b].length) return true;
+        int c = Long.compare(runs[a][pos[a]], runs[b][pos[b]]);
+        return c < 0 || (c == 0 && a < b);
+    }
+
+    private void replay(int w) {
+        for (int node = (w + k) >>> 1; node >= 1; node >>>= 1) {
+            if (beats(tree[node], w)) {
+                int t = tree[node];
+                tree[node] = w;
+                w = t;
+            }
+        }
+        tree[0] = w;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return remaining > 0;
+    }
+
+    @Override
+    public long nextLong() {
+        if (remaining == 0) throw new NoSuchElementException();
+        int w = tree[0];
+        long value = runs[w][pos[w]++];
+        remaining--;
+        replay(w);
+        return value;
+    }
+
+    int drainTo(long[] dst, int off, int len) {
+        int out = off, end = off + (int) Math.min(len, remaining);
+        while (out < end) {
+            int w = tree[0];
+            dst[out++] = runs[w][pos[w]++];
+            if (w == lastWinner) {
+                if (++streak >= KWayMerge.MIN_GALLOP) {
+                    out += gallop(w, dst, out, end);
+                    streak = 0;
+                }
+            } else {
+                lastWinner = w;
+                streak = 1;
+            }
+            replay(w);
+        }
+        remaining -= out - off;
+        return out - off;
+    }
+
+    private int gallop(int w, long[] dst, int out, int end) {
+        int r = -1;
+        for (int node = (w + k) >>> 1; node >= 1; node >>>= 1) {
+            int c = tree[node];
+            if (r < 0 || beats(c, r)) r = c;
+        }
+        long[] run = runs[w];
+        int from = pos[w];
+        int limit = Math.min(run.length, from + (end - out));
+        int count;
+        if (r < 0 || pos[r] == runs[r].length) {
+            count = limit - from;
+        } else {
+            long bound = runs[r][pos[r]];
+            boolean takeEqual = w < r;
+            int lo = from, step = 1;
+            while (lo + step - 1 < limit && precedes(run[lo + step - 1], bound, takeEqual)) {
+                lo += step;
+                step <<= 1;
+            }
+            int hi = Math.min(limit, lo + step - 1);
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (precedes(run[mid], bound, takeEqual)) lo = mid + 1;
+                else hi = mid;
+            }
+            count = lo - from;
+        }
+        System.arraycopy(run, from, dst, out, count);
+        pos[w] += count;
+        return count;
+    }
+
+    private boolean precedes(long x, long bound, boolean takeEqual) {
+        int c = Long.compare(x, bound);
+        return c < 0 || (takeEqual && c == 0);
+    }
+}
+
+final class RunMerger<T> implements Iterator<T> {
+    private final T[][] runs;
+    private final int[] pos;
+    private final int[] tree;
+    private final int k;
+    private final Comparator<? super T> cmp;
+    private long remaining;
+    private int lastWinner = -1, streak;
+
+    RunMerger(T[][] runs, Comparator<? super T> cmp) {
+        this.runs = runs;
+        this.cmp = cmp;
+        this.k = runs.length;
+        this.pos = new int[k];
+        this.tree = new int[Math.max(1, k)];
+        for (T[] run : runs) remaining += run.length;
+        if (k > 0) tree[0] = build(1);
+    }
+
+    private int build(int node) {
+        if (node >= k) return node - k;
+        int a = build(2 * node), b = build(2 * node + 1);
+        if (beats(a, b)) {
+            tree[node] = b;
+            return a;
+        }
+        tree[node] = a;
+        return b;
+    }
+
+    private boolean beats(int a, int b) {
+        if (pos[a] == runs[a].length) return false;
+        if (pos[b] == runs[b].length) return true;
+        int c = cmp.compare(runs[a][pos[a]], runs[b][pos[b]]);
+        return c < 0 || (c == 0 && a < b);
+    }
+
+    private void replay(int w) {
+        for (int node = (w + k) >>> 1; node >= 1; node >>>= 1) {
+            if (beats(tree[node], w)) {
+                int t = tree[node];
+                tree[node] = w;
+                w = t;
+            }
+        }
+        tree[0] = w;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return remaining > 0;
+    }
+
+    @Override
+    public T next() {
+        if (remaining == 0) throw new NoSuchElementException();
+        int w = tree[0];
+        T value = runs[w][pos[w]++];
+        remaining--;
+        replay(w);
+        return value;
+    }
+
+    int drainTo(T[] dst, int off, int len) {
+        int out = off, end = off + (int) Math.min(len, remaining);
+        while (out < end) {
+            int w = tree[0];
+            dst[out++] = runs[w][pos[w]++];
+            if (w == lastWinner) {
+                if (++streak >= KWayMerge.MIN_GALLOP) {
+                    out += gallop(w, dst, out, end);
+                    streak = 0;
+                }
+            } else {
+                lastWinner = w;
+                streak = 1;
+            }
+            replay(w);
+        }
+        remaining -= out - off;
+        return out - off;
+    }
+
+    private int gallop(int w, T[] dst, int out, int end) {
+        int r = -1;
+        for (int node = (w + k) >>> 1; node >= 1; node >>>= 1) {
+            int c = tree[node];
+            if (r < 0 || beats(c, r)) r = c;
+        }
+        T[] run = runs[w];
+        int from = pos[w];
+        int limit = Math.min(run.length, from + (end - out));
+        int count;
+        if (r < 0 || pos[r] == runs[r].length) {
+            count = limit - from;
+        } else {
+            T bound = runs[r][pos[r]];
+            boolean takeEqual = w < r;
+            int lo = from, step = 1;
+            while (lo + step - 1 < limit && precedes(run[lo + step - 1], bound, takeEqual)) {
+                lo += step;
+                step <<= 1;
+            }
+            int hi = Math.min(limit, lo + step - 1);
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (precedes(run[mid], bound, takeEqual)) lo = mid + 1;
+                else hi = mid;
+            }
+            count = lo - from;
+        }
+        System.arraycopy(run, from, dst, out, count);
+        pos[w] += count;
+        return count;
+    }
+
+    private boolean precedes(T x, T bound, boolean takeEqual) {
+        int c = cmp.compare(x, bound);
+        return c < 0 || (takeEqual && c == 0);
+    }
+}
@@ -0,0 +1,558 @@
+/*
+ * PARALLEL SORTING - CONCEPT NOTES FOR REVISION
+ * ========================================================
+ * Using every core for one big sort (see also ParallelMergeSort and
+ * RadixSort.parallelRadixSort in Sorting.java), or for many small ones
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+// ============================================================================
+// 1. PARALLEL SAMPLE SORT
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Quick Sort with k - 1 pivots ("splitters") instead of 1, chosen so
+ *   that the k buckets come out about equally large
+ * - Steps:
+ *   1. SAMPLE: take k * 16 random elements (oversampling), sort them,
+ *      every 16th becomes a splitter → balanced buckets w.h.p.
+ *   2. CLASSIFY: each worker finds the bucket of every element in its
+ *      chunk and counts per bucket
+ *   3. PREFIX SUM: per-chunk counts in (bucket, chunk) order give every
+ *      worker its own write position inside every bucket
+ *   4. DISTRIBUTE: each worker scatters its chunk into a second array →
+ *      buckets end up contiguous, no locks needed
+ *   5. SORT BUCKETS: independently, in parallel, with Sorter.QUICK
+ *      (the project's introsort), then copy back
+ * - BRANCH-FREE SEARCH TREE: splitters stored as an implicit binary tree
+ *     j = 1; repeat log2(k) times: j = 2*j + (x > tree[j] ? 1 : 0)
+ *   the loop runs the same number of times for every x and the ?: is a
+ *   conditional move → no branch mispredictions while classifying
+ * - EQUALITY BUCKETS: every splitter also gets a bucket for keys equal
+ *   to it; those buckets are already sorted, so heavy duplicates (or an
+ *   all-equal array) do not end up in one giant bucket
+ * - One scratch array of n elements; NOT stable
+ *
+ * TIME COMPLEXITY:
+ * - Work: O(n log n); span ~ O(n/p + (n/k) log(n/k)) with p cores
+ *
+ * SPACE COMPLEXITY: O(n) scratch + O(p * k) counters
+ *
+ * EXAMPLE (k = 4, splitters 20, 50, 80):
+ * Array:   [91, 12, 55, 20, 73, 38, 5, 64]
+ * Buckets: <20: [12, 5] | =20: [20] | (20,50): [38] | =50: []
+ *          (50,80): [55, 73, 64] | =80: [] | >80: [91]
+ * Sort each bucket → [5, 12, 20, 38, 55, 64, 73, 91]
+ */
+class SampleSort {
+    // Below this size, sort sequentially
+    private static final int PARALLEL_THRESHOLD = 1 << 17;
+    // Aim for buckets of at least this many elements
+    private static final int MIN_BUCKET_SIZE = 1 << 14;
+    private static final int MAX_BUCKETS = 1 << 10;
+    // Sample elements per bucket
+    private static final int OVERSAMPLING = 16;
+
+    // Splitters of one sort: implicit search tree + sorted, padded copy
+    private static final class IntSplitters {
+        final int logBuckets;
+        final int buckets;          // k (normal buckets); 2k buckets with equality ones
+        final int[] tree;           // tree[1 .. k-1]
+        final int[] sorted;         // sorted[0 .. k-1], sorted[k-1] = sorted[k-2]
+
+        IntSplitters(int[] unique, int count) {
+            logBuckets = 32 - Integer.numberOfLeadingZeros(count);   // k - 1 >= count
+            buckets = 1 << logBuckets;
+            sorted = new int[buckets];
+            // Pad with the largest splitter: keeps the tree full
+            for (int i = 0; i < buckets; i++) sorted[i] = unique[Math.min(i, count - 1)];
+            tree = new int[buckets];
+            build(1, 0, buckets - 1);
+        }
+
+        // tree[node] = median of sorted[lo, hi)
+        private void build(int node, int lo, int hi) {
+            if (lo >= hi) return;
+            int mid = (lo + hi) >>> 1;
+            tree[node] = sorted[mid];
+            build(2 * node, lo, mid);
+            build(2 * node + 1, mid + 1, hi);
+        }
+
+        // Bucket 2b for sorted[b-1] < x < sorted[b], 2b+1 for x == sorted[b]
+        int classify(int x) {
+            int j = 1;
+            for (int l = 0; l < logBuckets; l++) {
+                j = 2 * j + (x > tree[j] ? 1 : 0);
+            }
+            int b = j - buckets;   // number of splitters < x
+            return 2 * b + (x == sorted[b] ? 1 : 0);
+        }
+    }
+
+    private static final class LongSplitters {
+        final int logBuckets;
+        final int buckets;
+        final long[] tree;
+        final long[] sorted;
+
+        LongSplitters(long[] unique, int count) {
+            logBuckets = 32 - Integer.numberOfLeadingZeros(count);
+            buckets = 1 << logBuckets;
+            sorted = new long[buckets];
+            for (int i = 0; i < buckets; i++) sorted[i] = unique[Math.min(i, count - 1)];
+            tree = new long[buckets];
+            build(1, 0, buckets - 1);
+        }
+
+        private void build(int node, int lo, int hi) {
+            if (lo >= hi) return;
+            int mid = (lo + hi) >>> 1;
+            tree[node] = sorted[mid];
+            build(2 * node, lo, mid);
+            build(2 * node + 1, mid + 1, hi);
+        }
+
+        int classify(long x) {
+            int j = 1;
+            for (int l = 0; l < logBuckets; l++) {
+                j = 2 * j + (x > tree[j] ? 1 : 0);
+            }
+            int b = j - buckets;
+            return 2 * b + (x == sorted[b] ? 1 : 0);
+        }
+    }
+
+    // ---------------------------- int[] ----------------------------
+
+    public static void sampleSort(int[] arr) {
+        int n = arr.length;
+        int workers = ForkJoinPool.getCommonPoolParallelism();
+        if (n < PARALLEL_THRESHOLD || workers < 2) {
+            Sorter.QUICK.sort(arr);
+            return;
+        }
+
+        // 1. Sample and pick k - 1 distinct splitters
+        int wanted = Integer.highestOneBit(Math.min(MAX_BUCKETS, Math.max(2, n / MIN_BUCKET_SIZE)));
+        int[] sample = new int[wanted * OVERSAMPLING];
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        for (int i = 0; i < sample.length; i++) sample[i] = arr[rnd.nextInt(n)];
+        Sorter.QUICK.sort(sample);
+        int[] unique = new int[wanted - 1];
+        int count = 0;
+        for (int i = 1; i < wanted; i++) {
+            int s = sample[i * OVERSAMPLING];
+            if (count == 0 || s != unique[count - 1]) unique[count++] = s;
+        }
+        IntSplitters splitters = new IntSplitters(unique, count);
+        int totalBuckets = 2 * splitters.buckets;
+
+        // 2. Classify: per-chunk bucket counts
+        int chunks = workers;
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[][] offsets = new int[chunks][totalBuckets];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] h = offsets[c];
+            int end = Math.min(n, (c + 1) * chunkSize);
+            for (int i = c * chunkSize; i < end; i++) h[splitters.classify(arr[i])]++;
+        });
+
+        // 3. Prefix sum in (bucket, chunk) order
+        int[] bucketStart = new int[totalBuckets + 1];
+        int sum = 0;
+        for (int b = 0; b < totalBuckets; b++) {
+            bucketStart[b] = sum;
+            for (int c = 0; c < chunks; c++) {
+                int cnt = offsets[c][b];
+                offsets[c][b] = sum;
+                sum += cnt;
+            }
+        }
+        bucketStart[totalBuckets] = n;
+
+        // 4. Distribute into contiguous buckets
+        int[] buf = new int[n];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] pos = offsets[c];
+            int end = Math.min(n, (c + 1) * chunkSize);
+            for (int i = c * chunkSize; i < end; i++) {
+                int x = arr[i];
+                buf[pos[splitters.classify(x)]++] = x;
+            }
+        });
+
+        // 5. Sort buckets (equality buckets are already sorted) and copy back
+        IntStream.range(0, totalBuckets).parallel().forEach(b -> {
+            int from = bucketStart[b], to = bucketStart[b + 1];
+            if ((b & 1) == 0) Sorter.QUICK.sort(buf, from, to);
+            System.arraycopy(buf, from, arr, from, to - from);
+        });
+    }
+
+    // ---------------------------- long[] ----------------------------
+
+    public static void sampleSort(long[] arr) {
+        int n = arr.length;
+        int workers = ForkJoinPool.getCommonPoolParallelism();
+        if (n < PARALLEL_THRESHOLD || workers < 2) {
+            Sorter.QUICK.sort(arr);
+            return;
+        }
+
+        int wanted = Integer.highestOneBit(Math.min(MAX_BUCKETS, Math.max(2, n / MIN_BUCKET_SIZE)));
+        long[] sample = new long[wanted * OVERSAMPLING];
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        for (int i = 0; i < sample.length; i++) sample[i] = arr[rnd.nextInt(n)];
+        Sorter.QUICK.sort(sample);
+        long[] unique = new long[wanted - 1];
+        int count = 0;
+        for (int i = 1; i < wanted; i++) {
+            long s = sample[i * OVERSAMPLING];
+            if (count == 0 || s != unique[count - 1]) unique[count++] = s;
+        }
+        LongSplitters splitters = new LongSplitters(unique, count);
+        int totalBuckets = 2 * splitters.buckets;
+
+        int chunks = workers;
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[][] offsets = new int[chunks][totalBuckets];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] h = offsets[c];
+            int end = Math.min(n, (c + 1) * chunkSize);
+            for (int i = c * chunkSize; i < end; i++) h[splitters.classify(arr[i])]++;
+        });
+
+        int[] bucketStart = new int[totalBuckets + 1];
+        int sum = 0;
+        for (int b = 0; b < totalBuckets; b++) {
+            bucketStart[b] = sum;
+            for (int c = 0; c < chunks; c++) {
+                int cnt = offsets[c][b];
+                offsets[c][b] = sum;
+                sum += cnt;
+            }
+        }
+        bucketStart[totalBuckets] = n;
+
+        long[] buf = new long[n];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] pos = offsets[c];
+            int end = Math.min(n, (c + 1) * chunkSize);
+            for (int i = c * chunkSize; i < end; i++) {
+                long x = arr[i];
+                buf[pos[splitters.classify(x)]++] = x;
+            }
+        });
+
+        IntStream.range(0, totalBuckets).parallel().forEach(b -> {
+            int from = bucketStart[b], to = bucketStart[b + 1];
+            if ((b & 1) == 0) Sorter.QUICK.sort(buf, from, to);
+            System.arraycopy(buf, from, arr, from, to - from);
+        });
+    }
+
+    public static void main(String[] args) {
+        int[] arr = new java.util.Random(1).ints(10_000_000).toArray();
+        int[] expected = arr.clone();
+        Arrays.sort(expected);
+
+        long start = System.nanoTime();
+        sampleSort(arr);
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Sample Sort (10M ints, " + ForkJoinPool.getCommonPoolParallelism()
+            + " workers): " + ms + " ms, correct: " + Arrays.equals(arr, expected));
+        // Output: Sample Sort (10M ints, 63 workers): ... ms, correct: true
+    }
+}
+
+
+// ============================================================================
+// 2. SORT SERVICE (ASYNC JOBS, BATCHING, DEADLINES, METRICS)
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Many request handlers each need a small array sorted; sorting inline
+ *   ties up the handler, and one thread/task per tiny sort costs more in
+ *   hand-offs and wake-ups than the sort itself
+ * - submit(data) returns a CompletableFuture at once; the array is sorted
+ *   in place and the future completes with it
+ * - SMALL jobs (n < 64K) go into one queue served by a few worker threads:
+ *   a worker takes one job, then drainTo()s up to 63 more and runs them
+ *   back to back → one wake-up per BATCH, hot caches and JIT-compiled code
+ *   (sorted with AdaptiveSorter)
+ * - LARGE jobs run on the service's own ForkJoinPool with
+ *   ParallelMergeSort → they use all cores without touching the common
+ *   pool, and cannot starve the small-job workers
+ * - DEADLINES / CANCELLATION: checked when a job is about to start
+ *   → deadline passed: future fails with TimeoutException, no work done
+ *   → future already cancelled / completed by the caller: job skipped
+ *   → a job that has started always runs to the end (sorting in place
+ *     cannot be abandoned halfway without leaving the array scrambled)
+ * - CLOSE: a write lock makes "closed" and every submit atomic with respect
+ *   to each other → once close() holds it, no job can still be on its way
+ *   into the queue; one POISON per worker then follows the last job
+ * - METRICS: queue depth, large jobs in flight, counters, and latency
+ *   (submit → completion) in a log2 histogram: p50 / p99 / max cost a
+ *   few atomic adds per job and no allocation
+ * - Java 17: no virtual threads (preview in 19/20, final in 21), so small
+ *   jobs run on a fixed set of platform worker threads; batching is what
+ *   keeps their hand-off cost low
+ *
+ * EXAMPLE:
+ * SortService service = new SortService();
+ * service.submit(scores).thenAccept(sorted -> reply(sorted));
+ * service.submit(big, 50, TimeUnit.MILLISECONDS)   // must START within 50 ms
+ *        .exceptionally(e -> fallback());
+ * service.metrics()  → queued=12 largeInFlight=1 ... p99=1.0 ms
+ */
+class SortService implements AutoCloseable {
+    static final int DEFAULT_LARGE_JOB = 1 << 16;
+    static final int MAX_BATCH = 64;
+
+    private static final class Job {
+        final int[] data;
+        final CompletableFuture<int[]> future = new CompletableFuture<>();
+        final long submitNanos;
+        final long deadlineNanos;   // Long.MAX_VALUE = none
+
+        Job(int[] data, long submitNanos, long deadlineNanos) {
+            this.data = data;
+            this.submitNanos = submitNanos;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    // Tells a small-job worker to exit
+    private static final Job POISON = new Job(new int[0], 0, 0);
+
+    private final int largeJob;
+    private final ForkJoinPool pool;
+    private final BlockingQueue<Job> smallJobs = new LinkedBlockingQueue<>();
+    private final Thread[] workers;
+    private final AdaptiveSorter sorter = new AdaptiveSorter();
+    // submit holds the read lock while it checks closed and enqueues; close takes the write lock
+    private final ReadWriteLock state = new ReentrantReadWriteLock();
+    private boolean closed;
+
+    private final AtomicInteger largeInFlight = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    // latency[b] = jobs that took [2^b, 2^(b+1)) ns
+    private final AtomicLongArray latency = new AtomicLongArray(64);
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    public SortService() {
+        this(DEFAULT_LARGE_JOB, Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+             Runtime.getRuntime().availableProcessors());
+    }
+
+    // largeJob: arrays at least this long go to the fork/join pool
+    public SortService(int largeJob, int smallWorkers, int parallelism) {
+        if (largeJob < 1 || smallWorkers < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("largeJob, smallWorkers and parallelism must be >= 1");
+        }
+        this.largeJob = largeJob;
+        this.pool = new ForkJoinPool(parallelism);
+        this.workers = new Thread[smallWorkers];
+        for (int i = 0; i < smallWorkers; i++) {
+            workers[i] = new Thread(this::serveSmallJobs, "sort-service-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    public CompletableFuture<int[]> submit(int[] data) {
+        return submit(data, Long.MAX_VALUE);
+    }
+
+    // The job must start within timeout, or its future fails with TimeoutException
+    public CompletableFuture<int[]> submit(int[] data, long timeout, TimeUnit unit) {
+        long now = System.nanoTime();
+        long nanos = unit.toNanos(timeout);
+        return submit(data, nanos >= Long.MAX_VALUE - now ? Long.MAX_VALUE : now + nanos);
+    }
+
+    private CompletableFuture<int[]> submit(int[] data, long deadlineNanos) {
+        Job job = new Job(data, System.nanoTime(), deadlineNanos);
+        state.readLock().lock();
+        try {
+            if (closed) {
+                job.future.completeExceptionally(new RejectedExecutionException("SortService is closed"));
+                return job.future;
+            }
+            if (data.length >= largeJob) {
+                largeInFlight.incrementAndGet();
+                try {
+                    pool.execute(() -> {
+                        try {
+                            run(job);
+                        } finally {
+                            largeInFlight.decrementAndGet();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    largeInFlight.decrementAndGet();
+                    job.future.completeExceptionally(e);
+                    return job.future;
+                }
+            } else {
+                smallJobs.add(job);
+            }
+            submitted.increment();
+            return job.future;
+        } finally {
+            state.readLock().unlock();
+        }
+    }
+
+    private void serveSmallJobs() {
+        List<Job> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                batch.add(smallJobs.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            smallJobs.drainTo(batch, MAX_BATCH - 1);
+            // Every job precedes every POISON, so a batch ends in the POISONs
+            // it swallowed: keep one, give the rest back to the other workers
+            int poisons = 0;
+            for (Job job : batch) {
+                if (job == POISON) poisons++;
+                else run(job);
+            }
+            batch.clear();
+            if (poisons > 0) {
+                for (int i = 1; i < poisons; i++) smallJobs.add(POISON);
+                return;
+            }
+        }
+    }
+
+    private void run(Job job) {
+        if (job.future.isDone()) {   // cancelled or completed by the caller
+            skipped.increment();
+            return;
+        }
+        if (job.deadlineNanos != Long.MAX_VALUE && System.nanoTime() - job.deadlineNanos > 0) {
+            expired.increment();
+            job.future.completeExceptionally(new TimeoutException("Sort job missed its deadline"));
+            return;
+        }
+        try {
+            if (job.data.length >= largeJob) {
+                ParallelMergeSort.parallelMergeSort(job.data, ParallelMergeSort.DEFAULT_CUTOFF, pool);
+            } else {
+                sorter.sort(job.data);
+            }
+            job.future.complete(job.data);
+            completed.increment();
+        } catch (Throwable t) {
+            job.future.completeExceptionally(t);
+            failed.increment();
+        }
+        recordLatency(System.nanoTime() - job.submitNanos);
+    }
+
+    private void recordLatency(long nanos) {
+        latency.incrementAndGet(63 - Long.numberOfLeadingZeros(Math.max(1, nanos)));
+        long max;
+        while (nanos > (max = maxLatency.get()) && !maxLatency.compareAndSet(max, nanos)) { }
+    }
+
+    // Upper bound of the histogram bucket holding quantile q (0 < q <= 1)
+    private long latencyQuantile(double q) {
+        long total = 0;
+        for (int b = 0; b < 64; b++) total += latency.get(b);
+        if (total == 0) return 0;
+        long target = (long) Math.ceil(q * total), seen = 0;
+        for (int b = 0; b < 63; b++) {
+            seen += latency.get(b);
+            if (seen >= target) return 1L << (b + 1);
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public String metrics() {
+        return String.format("queued=%d largeInFlight=%d submitted=%d completed=%d failed=%d"
+                + " expired=%d skipped=%d latency p50<=%.3f ms p99<=%.3f ms max=%.3f ms",
+            smallJobs.size(), largeInFlight.get(), submitted.sum(), completed.sum(), failed.sum(),
+            expired.sum(), skipped.sum(), latencyQuantile(0.50) / 1e6, latencyQuantile(0.99) / 1e6,
+            maxLatency.get() / 1e6);
+    }
+
+    public int queueDepth() {
+        return smallJobs.size();
+    }
+
+    // Stops accepting jobs, finishes the queued ones, then stops the threads.
+    // If interrupted while waiting, returns early with the interrupt flag set
+    // (the workers still finish the queue and exit on their own)
+    @Override
+    public void close() {
+        state.writeLock().lock();
+        try {
+            if (closed) return;
+            closed = true;
+            // No submit is in progress: every accepted job is already queued
+            for (int i = 0; i < workers.length; i++) smallJobs.add(POISON);
+        } finally {
+            state.writeLock().unlock();
+        }
+        pool.shutdown();
+        try {
+            for (Thread worker : workers) worker.join();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        SortService service = new SortService();
+        Random rnd = new Random(42);
+
+        // 20K small jobs (16..1024 elements) + a few large ones
+        List<CompletableFuture<int[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            futures.add(service.submit(rnd.ints(16 + rnd.nextInt(1009)).toArray()));
+        }
+        for (int i = 0; i < 4; i++) futures.add(service.submit(rnd.ints(2_000_000).toArray()));
+        CompletableFuture<int[]> late = service.submit(new int[] {3, 1, 2}, 0, TimeUnit.NANOSECONDS);
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        boolean ok = true;
+        for (CompletableFuture<int[]> f : futures) {
+            int[] a = f.join();
+            for (int i = 1; i < a.length && ok; i++) ok = a[i - 1] <= a[i];
+        }
+        System.out.println("All sorted: " + ok + ", zero-timeout job: "
+            + late.handle((r, e) -> e == null ? "ran" : e.getClass().getSimpleName()).join());
+        // Output: All sorted: true, zero-timeout job: TimeoutException
+        System.out.println(service.metrics());
+        // Output: queued=0 largeInFlight=0 submitted=20005 completed=20004 failed=0 expired=1 ...
+        service.close();
+    }
+}
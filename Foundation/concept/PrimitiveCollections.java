@@ -0,0 +1,1789 @@
+/*
+ * PRIMITIVE COLLECTIONS - CONCEPT NOTES FOR REVISION
+ * ========================================================
+ * Collections that store int / long / double directly instead of
+ * boxed Integer / Long / Double objects
+ */
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.RandomAccess;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+// ============================================================================
+// 1. GROWTH POLICY
+// ============================================================================
+/*
+ * CONCEPT:
+ * - A growable array list is full → allocate a bigger array, copy over
+ * - Growing by a FACTOR keeps add() O(1) amortized: n adds copy < n/(f-1)
+ *   elements in total (f = 1.5 → at most 2n copies, f = 2 → at most n)
+ * - Growing by a fixed STEP is O(n²) over n adds, but wastes at most
+ *   step slots → only for lists with a known, small number of additions
+ * - Trade-off of the factor: 2x copies less, 1.5x (ArrayList's choice)
+ *   wastes less memory right after growing (up to 33% vs 50% unused)
+ * - Every policy returns at least minCapacity (needed by bulk addAll)
+ *   and never more than MAX_CAPACITY
+ *
+ * EXAMPLE:
+ * ONE_AND_A_HALF: 10 → 15 → 22 → 33 → 49 ...
+ * DOUBLING:       10 → 20 → 40 → 80 ...
+ * step(1000):     10 → 1010 → 2010 ...
+ */
+interface GrowthPolicy {
+    // Some VMs reserve header words in arrays; same limit as java.util.ArrayList
+    int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    GrowthPolicy ONE_AND_A_HALF = (capacity, minCapacity) ->
+        clamp((long) capacity + (capacity >> 1), minCapacity);
+    GrowthPolicy DOUBLING = (capacity, minCapacity) ->
+        clamp(2L * capacity, minCapacity);
+
+    static GrowthPolicy step(int step) {
+        if (step < 1) throw new IllegalArgumentException("step must be >= 1: " + step);
+        return (capacity, minCapacity) -> clamp((long) capacity + step, minCapacity);
+    }
+
+    // New capacity for an array of capacity that must hold minCapacity elements
+    int newCapacity(int capacity, int minCapacity);
+
+    static int clamp(long proposed, int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required array length " + minCapacity + " is too large");
+        }
+        return (int) Math.min(MAX_CAPACITY, Math.max(proposed, Math.max(minCapacity, 4)));
+    }
+}
+
+
+// ============================================================================
+// 2. IntArrayList
+// ============================================================================
+/*
+ * CONCEPT:
+ * - ArrayList<Integer>: an Object[] of references to Integer objects
+ *   → 4-8 bytes per reference + 16 bytes per Integer (outside -128..127)
+ *   → every get() follows a pointer to wherever the Integer was allocated
+ *     (cache miss once the list outgrows the cache) and unboxes it
+ * - IntArrayList: the values themselves in one int[] → 4 bytes per element,
+ *   sequential reads, no allocation per add
+ * - Same API shape as ArrayList, with primitive parameters:
+ *   → removeAt(index) / removeValue(value) instead of the overloaded
+ *     remove(int) / remove(Object) pair, which is a classic bug with
+ *     List<Integer> (list.remove(5) removes index 5, not the value 5)
+ *   → addAll(int[]) copies with one arraycopy
+ *   → sort() / sort(Sorter) use the sorters from SortingApi.java on
+ *     [0, size); binarySearch works on the sorted list
+ * - asList(): a live List<Integer> VIEW for code that needs a List
+ *   (boxing per access, so only at API boundaries, not in hot loops)
+ * - equals / hashCode follow List's rules → same hashCode as the
+ *   equivalent List<Integer>
+ * - Not thread-safe (like ArrayList)
+ *
+ * TIME COMPLEXITY:
+ * - get / set / add (amortized): O(1)
+ * - add(index) / removeAt / contains / indexOf: O(n)
+ * - addAll(k values): O(k) amortized
+ *
+ * SPACE COMPLEXITY: 4 bytes per element (+ up to 50% spare capacity)
+ *
+ * EXAMPLE:
+ * IntArrayList list = IntArrayList.of(30, 10, 20);
+ * list.sort();               → [10, 20, 30]
+ * list.binarySearch(20)      → 1
+ * list.removeValue(10)       → [20, 30]
+ * List<Integer> view = list.asList();  view.add(40)  → list is [20, 30, 40]
+ */
+class IntArrayList {
+    private static final int[] EMPTY = {};
+    static final int DEFAULT_CAPACITY = 10;
+
+    private int[] data;
+    private int size;
+    private final GrowthPolicy growth;
+
+    public IntArrayList() {
+        this(DEFAULT_CAPACITY, GrowthPolicy.ONE_AND_A_HALF);
+    }
+
+    public IntArrayList(int capacity) {
+        this(capacity, GrowthPolicy.ONE_AND_A_HALF);
+    }
+
+    public IntArrayList(int capacity, GrowthPolicy growth) {
+        if (capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        this.data = capacity == 0 ? EMPTY : new int[capacity];
+        this.growth = growth;
+    }
+
+    // Wraps a copy of values
+    public static IntArrayList of(int... values) {
+        IntArrayList list = new IntArrayList(values.length);
+        list.addAll(values);
+        return list;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int index) {
+        Objects.checkIndex(index, size);
+        return data[index];
+    }
+
+    // Returns the old value
+    public int set(int index, int value) {
+        Objects.checkIndex(index, size);
+        int old = data[index];
+        data[index] = value;
+        return old;
+    }
+
+    public void add(int value) {
+        if (size == data.length) grow(size + 1);
+        data[size++] = value;
+    }
+
+    public void add(int index, int value) {
+        Objects.checkIndex(index, size + 1);
+        if (size == data.length) grow(size + 1);
+        System.arraycopy(data, index, data, index + 1, size - index);
+        data[index] = value;
+        size++;
+    }
+
+    public void addAll(int[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    // One capacity check and one arraycopy for the whole range
+    public void addAll(int[] values, int from, int to) {
+        Objects.checkFromToIndex(from, to, values.length);
+        int count = to - from;
+        if (size + count > data.length) grow(size + count);
+        System.arraycopy(values, from, data, size, count);
+        size += count;
+    }
+
+    // Removes by position (named apart from removeValue: no int/Object overload trap)
+    public int removeAt(int index) {
+        Objects.checkIndex(index, size);
+        int old = data[index];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        size--;
+        return old;
+    }
+
+    // Removes the first occurrence; false if absent
+    public boolean removeValue(int value) {
+        int index = indexOf(value);
+        if (index < 0) return false;
+        removeAt(index);
+        return true;
+    }
+
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    public int indexOf(int value) {
+        for (int i = 0; i < size; i++) {
+            if (data[i] == value) return i;
+        }
+        return -1;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) grow(minCapacity);
+    }
+
+    // Shrinks the backing array to size
+    public void trimToSize() {
+        if (size < data.length) data = size == 0 ? EMPTY : Arrays.copyOf(data, size);
+    }
+
+    // Sort hooks: any Sorter from SortingApi.java, QUICK by default
+    public void sort() {
+        sort(Sorter.QUICK);
+    }
+
+    public void sort(Sorter sorter) {
+        sorter.sort(data, 0, size);
+    }
+
+    // Only meaningful once sorted; same result convention as Arrays.binarySearch
+    public int binarySearch(int value) {
+        return Arrays.binarySearch(data, 0, size, value);
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) action.accept(data[i]);
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    // List<Integer> view for APIs that need one: reads and writes go to this list,
+    // boxing happens per access
+    public List<Integer> asList() {
+        return new ListView();
+    }
+
+    private final class ListView extends AbstractList<Integer> implements RandomAccess {
+        @Override
+        public Integer get(int index) {
+            return IntArrayList.this.get(index);
+        }
+
+        @Override
+        public Integer set(int index, Integer value) {
+            return IntArrayList.this.set(index, value);
+        }
+
+        @Override
+        public void add(int index, Integer value) {
+            IntArrayList.this.add(index, value);
+            modCount++;
+        }
+
+        @Override
+        public Integer remove(int index) {
+            modCount++;
+            return removeAt(index);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Integer && IntArrayList.this.contains((Integer) o);
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            return o instanceof Integer ? IntArrayList.this.indexOf((Integer) o) : -1;
+        }
+
+        @Override
+        public void clear() {
+            modCount++;
+            IntArrayList.this.clear();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private void grow(int minCapacity) {
+        data = Arrays.copyOf(data, growth.newCapacity(data.length, minCapacity));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IntArrayList)) return false;
+        IntArrayList other = (IntArrayList) o;
+        return Arrays.equals(data, 0, size, other.data, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int i = 0; i < size; i++) h = 31 * h + Integer.hashCode(data[i]);
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(data[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
+
+
+// ============================================================================
+// 3. LongArrayList AND DoubleArrayList
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Same as IntArrayList for long (8 bytes vs 16 + 4-8 for a Long) and
+ *   double (8 bytes vs 16 + 4-8 for a Double)
+ * - double equality follows Double.equals (like List<Double>):
+ *   contains(NaN) finds NaN, and -0.0 is NOT equal to 0.0
+ * - double sort / binarySearch order: -0.0 < 0.0, NaNs last
+ *   (see DOUBLE ORDERING in SortingApi.java)
+ */
+class LongArrayList {
+    private static final long[] EMPTY = {};
+    static final int DEFAULT_CAPACITY = 10;
+
+    private long[] data;
+    private int size;
+    private final GrowthPolicy growth;
+
+    public LongArrayList() {
+        this(DEFAULT_CAPACITY, GrowthPolicy.ONE_AND_A_HALF);
+    }
+
+    public LongArrayList(int capacity) {
+        this(capacity, GrowthPolicy.ONE_AND_A_HALF);
+    }
+
+    public LongArrayList(int capacity, GrowthPolicy growth) {
+        if (capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        this.data = capacity == 0 ? EMPTY : new long[capacity];
+        this.growth = growth;
+    }
+
+    public static LongArrayList of(long... values) {
+        LongArrayList list = new LongArrayList(values.length);
+        list.addAll(values);
+        return list;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long get(int index) {
+        Objects.checkIndex(index, size);
+        return data[index];
+    }
+
+    public long set(int index, long value) {
+        Objects.checkIndex(index, size);
+        long old = data[index];
+        data[index] = value;
+        return old;
+    }
+
+    public void add(long value) {
+        if (size == data.length) grow(size + 1);
+        data[size++] = value;
+    }
+
+    public void add(int index, long value) {
+        Objects.checkIndex(index, size + 1);
+        if (size == data.length) grow(size + 1);
+        System.arraycopy(data, index, data, index + 1, size - index);
+        data[index] = value;
+        size++;
+    }
+
+    public void addAll(long[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    public void addAll(long[] values, int from, int to) {
+        Objects.checkFromToIndex(from, to, values.length);
+        int count = to - from;
+        if (size + count > data.length) grow(size + count);
+        System.arraycopy(values, from, data, size, count);
+        size += count;
+    }
+
+    public long removeAt(int index) {
+        Objects.checkIndex(index, size);
+        long old = data[index];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        size--;
+        return old;
+    }
+
+    public boolean removeValue(long value) {
+        int index = indexOf(value);
+        if (index < 0) return false;
+        removeAt(index);
+        return true;
+    }
+
+    public boolean contains(long value) {
+        return indexOf(value) >= 0;
+    }
+
+    public int indexOf(long value) {
+        for (int i = 0; i < size; i++) {
+            if (data[i] == value) return i;
+        }
+        return -1;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) grow(minCapacity);
+    }
+
+    public void trimToSize() {
+        if (size < data.length) data = size == 0 ? EMPTY : Arrays.copyOf(data, size);
+    }
+
+    public void sort() {
+        sort(Sorter.QUICK);
+    }
+
+    public void sort(Sorter sorter) {
+        sorter.sort(data, 0, size);
+    }
+
+    public int binarySearch(long value) {
+        return Arrays.binarySearch(data, 0, size, value);
+    }
+
+    public void forEach(LongConsumer action) {
+        for (int i = 0; i < size; i++) action.accept(data[i]);
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    public List<Long> asList() {
+        return new ListView();
+    }
+
+    private final class ListView extends AbstractList<Long> implements RandomAccess {
+        @Override
+        public Long get(int index) {
+            return LongArrayList.this.get(index);
+        }
+
+        @Override
+        public Long set(int index, Long value) {
+            return LongArrayList.this.set(index, value);
+        }
+
+        @Override
+        public void add(int index, Long value) {
+            LongArrayList.this.add(index, value);
+            modCount++;
+        }
+
+        @Override
+        public Long remove(int index) {
+            modCount++;
+            return removeAt(index);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Long && LongArrayList.this.contains((Long) o);
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            return o instanceof Long ? LongArrayList.this.indexOf((Long) o) : -1;
+        }
+
+        @Override
+        public void clear() {
+            modCount++;
+            LongArrayList.this.clear();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private void grow(int minCapacity) {
+        data = Arrays.copyOf(data, growth.newCapacity(data.length, minCapacity));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LongArrayList)) return false;
+        LongArrayList other = (LongArrayList) o;
+        return Arrays.equals(data, 0, size, other.data, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int i = 0; i < size; i++) h = 31 * h + Long.hashCode(data[i]);
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(data[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
+
+
+class DoubleArrayList {
+    private static final double[] EMPTY = {};
+    static final int DEFAULT_CAPACITY = 10;
+
+    private double[] data;
+    private int size;
+    private final GrowthPolicy growth;
+
+    public DoubleArrayList() {
+        this(DEFAULT_CAPACITY, GrowthPolicy.ONE_AND_A_HALF);
+    }
+
+    public DoubleArrayList(int capacity) {
+        this(capacity, GrowthPolicy.ONE_AND_A_HALF);
+    }
+
+    public DoubleArrayList(int capacity, GrowthPolicy growth) {
+        if (capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        this.data = capacity == 0 ? EMPTY : new double[capacity];
+        this.growth = growth;
+    }
+
+    public static DoubleArrayList of(double... values) {
+        DoubleArrayList list = new DoubleArrayList(values.length);
+        list.addAll(values);
+        return list;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double get(int index) {
+        Objects.checkIndex(index, size);
+        return data[index];
+    }
+
+    public double set(int index, double value) {
+        Objects.checkIndex(index, size);
+        double old = data[index];
+        data[index] = value;
+        return old;
+    }
+
+    public void add(double value) {
+        if (size == data.length) grow(size + 1);
+        data[size++] = value;
+    }
+
+    public void add(int index, double value) {
+        Objects.checkIndex(index, size + 1);
+        if (size == data.length) grow(size + 1);
+        System.arraycopy(data, index, data, index + 1, size - index);
+        data[index] = value;
+        size++;
+    }
+
+    public void addAll(double[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    public void addAll(double[] values, int from, int to) {
+        Objects.checkFromToIndex(from, to, values.length);
+        int count = to - from;
+        if (size + count > data.length) grow(size + count);
+        System.arraycopy(values, from, data, size, count);
+        size += count;
+    }
+
+    public double removeAt(int index) {
+        Objects.checkIndex(index, size);
+        double old = data[index];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        size--;
+        return old;
+    }
+
+    public boolean removeValue(double value) {
+        int index = indexOf(value);
+        if (index < 0) return false;
+        removeAt(index);
+        return true;
+    }
+
+    public boolean contains(double value) {
+        return indexOf(value) >= 0;
+    }
+
+    public int indexOf(double value) {
+        long bits = Double.doubleToLongBits(value);
+        for (int i = 0; i < size; i++) {
+            if (Double.doubleToLongBits(data[i]) == bits) return i;
+        }
+        return -1;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) grow(minCapacity);
+    }
+
+    public void trimToSize() {
+        if (size < data.length) data = size == 0 ? EMPTY : Arrays.copyOf(data, size);
+    }
+
+    public void sort() {
+        sort(Sorter.QUICK);
+    }
+
+    public void sort(Sorter sorter) {
+        sorter.sort(data, 0, size);
+    }
+
+    public int binarySearch(double value) {
+        return Arrays.binarySearch(data, 0, size, value);
+    }
+
+    public void forEach(DoubleConsumer action) {
+        for (int i = 0; i < size; i++) action.accept(data[i]);
+    }
+
+    public double[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    public List<Double> asList() {
+        return new ListView();
+    }
+
+    private final class ListView extends AbstractList<Double> implements RandomAccess {
+        @Override
+        public Double get(int index) {
+            return DoubleArrayList.this.get(index);
+        }
+
+        @Override
+        public Double set(int index, Double value) {
+            return DoubleArrayList.this.set(index, value);
+        }
+
+        @Override
+        public void add(int index, Double value) {
+            DoubleArrayList.this.add(index, value);
+            modCount++;
+        }
+
+        @Override
+        public Double remove(int index) {
+            modCount++;
+            return removeAt(index);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Double && DoubleArrayList.this.contains((Double) o);
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            return o instanceof Double ? DoubleArrayList.this.indexOf((Double) o) : -1;
+        }
+
+        @Override
+        public void clear() {
+            modCount++;
+            DoubleArrayList.this.clear();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private void grow(int minCapacity) {
+        data = Arrays.copyOf(data, growth.newCapacity(data.length, minCapacity));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DoubleArrayList)) return false;
+        DoubleArrayList other = (DoubleArrayList) o;
+        return Arrays.equals(data, 0, size, other.data, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int i = 0; i < size; i++) h = 31 * h + Double.hashCode(data[i]);
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(data[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
+
+
+// ============================================================================
+// 4. PRIMITIVE LIST BENCHMARK
+// ============================================================================
+/*
+ * CONCEPT:
+ * - BUILD: add n random ints one by one (values outside the Integer cache)
+ *   → time and bytes allocated per element (Integer objects + the arrays
+ *     thrown away while growing)
+ * - SCAN: sum a list that was built and then sorted
+ *   → ArrayList<Integer> now points to Integers scattered through the heap
+ *     in allocation order, not value order: one likely cache miss per get
+ *   → IntArrayList reads one contiguous int[]
+ *
+ * USAGE:
+ *   java -cp out PrimitiveListBenchmark [n] [measureMillis]
+ *
+ * SAMPLE OUTPUT (n = 1000000):
+ * benchmark                     ns/elem     B/elem
+ * build ArrayList<Integer>        79.63      30.59
+ * build IntArrayList               3.92      14.59
+ * scan  ArrayList<Integer>         4.16       0.00
+ * scan  IntArrayList               0.48       0.00
+ */
+class PrimitiveListBenchmark {
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long nanos = (args.length > 1 ? Long.parseLong(args[1]) : 1000) * 1_000_000L;
+        int[] values = new Random(42).ints(n).toArray();
+
+        Bench.BatchOp buildBoxed = Bench.batch(1, () -> {
+            List<Integer> list = new ArrayList<>();
+            for (int v : values) list.add(v);
+            Bench.sink += list.size();
+        });
+        Bench.BatchOp buildPrimitive = Bench.batch(1, () -> {
+            IntArrayList list = new IntArrayList();
+            for (int v : values) list.add(v);
+            Bench.sink += list.size();
+        });
+
+        List<Integer> boxed = new ArrayList<>();
+        IntArrayList primitive = new IntArrayList();
+        for (int v : values) {
+            boxed.add(v);
+            primitive.add(v);
+        }
+        boxed.sort(null);
+        primitive.sort();
+        Bench.BatchOp scanBoxed = Bench.batch(1, () -> {
+            long sum = 0;
+            for (int i = 0; i < boxed.size(); i++) sum += boxed.get(i);
+            Bench.sink += sum;
+        });
+        Bench.BatchOp scanPrimitive = Bench.batch(1, () -> {
+            long sum = 0;
+            for (int i = 0; i < primitive.size(); i++) sum += primitive.get(i);
+            Bench.sink += sum;
+        });
+
+        System.out.printf("%-28s %8s %10s%n", "benchmark", "ns/elem", "B/elem");
+        report("build ArrayList<Integer>", Bench.run(buildBoxed, nanos, nanos), n);
+        report("build IntArrayList", Bench.run(buildPrimitive, nanos, nanos), n);
+        report("scan  ArrayList<Integer>", Bench.run(scanBoxed, nanos, nanos), n);
+        report("scan  IntArrayList", Bench.run(scanPrimitive, nanos, nanos), n);
+    }
+
+    private static void report(String name, Bench.Result r, int n) {
+        System.out.printf("%-28s %8.2f %10.2f%n", name, r.nsPerOp / n, r.bytesPerOp / n);
+    }
+}
+
+
+// ============================================================================
+// 5. IntHashSet (OPEN ADDRESSING, LINEAR PROBING)
+// ============================================================================
+/*
+ * CONCEPT:
+ * - HashSet<Integer> is a HashMap: per element one Node (32 bytes) + one
+ *   Integer (16 bytes) + a slot in the table, and every lookup follows
+ *   table → Node → Integer
+ * - OPEN ADDRESSING: the keys live IN the table, an int[] of power-of-two
+ *   capacity. A key goes to slot hash(key) & mask; if taken, to the next
+ *   slot (LINEAR PROBING) → a lookup reads one or two neighbouring
+ *   cache lines, no pointers at all
+ * - EMPTY SENTINEL: a free slot holds 0, so key 0 cannot be stored in the
+ *   table; it is tracked by a separate flag instead
+ * - MIXING HASH: keys are often sequential ids (1, 2, 3 ...). With the
+ *   identity hash they fill one contiguous block, and any key landing
+ *   next to that block probes through all of it. Multiplying by the
+ *   golden ratio (2^32 / φ) and folding the high bits down spreads them
+ * - BACKWARD-SHIFT DELETION: no tombstones. After emptying a slot, walk
+ *   the probe run that follows it and move back every key whose home slot
+ *   lies at or before the hole (it would no longer be found otherwise),
+ *   until the next free slot → lookups never step over deleted slots, and
+ *   the table never needs a cleanup rehash
+ * - Load factor 0.75 by default; the table doubles when it is exceeded
+ * - CURSOR: iteration without an Iterator<Integer> boxing every key:
+ *   for (IntHashSet.Cursor c = set.cursor(); c.advance(); ) use(c.key());
+ *   (the set must not change while a cursor is in use)
+ *
+ * TIME COMPLEXITY:
+ * - add / remove / contains: O(1) expected
+ * - iteration: O(capacity)
+ *
+ * SPACE COMPLEXITY: 4 bytes per slot → ~5.3-10.7 bytes per key at load
+ *   0.75 (vs ~48+ bytes for HashSet<Integer>)
+ *
+ * EXAMPLE (capacity 8, h = home slot):
+ * add 10 (h=3), add 18 (h=3 → taken → slot 4), add 7 (h=4 → taken → 5)
+ * [_ _ _ 10 18 7 _ _]
+ * remove 10 → hole at 3; 18 (home 3) moves back to 3, 7 (home 4) to 4
+ * [_ _ _ 18 7 _ _ _]   contains(7): slot 4, found in one probe
+ */
+class IntHashSet {
+    static final int DEFAULT_CAPACITY = 16;
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    private int[] keys;
+    private int mask;
+    private int size;           // keys in the table (key 0 not counted)
+    private boolean hasZero;    // 0 is the empty marker, so it is kept here
+    private int threshold;
+    private final float loadFactor;
+
+    public IntHashSet() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    // expectedSize keys fit without resizing
+    public IntHashSet(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Illegal size: " + expectedSize);
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be in (0, 1): " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        allocate(tableSize(expectedSize, loadFactor));
+    }
+
+    // Golden-ratio multiply, then fold the well-mixed high bits down
+    static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Smallest power of two holding expectedSize keys under loadFactor
+    static int tableSize(int expectedSize, float loadFactor) {
+        long needed = (long) Math.ceil(expectedSize / (double) loadFactor) + 1;
+        if (needed > 1 << 30) throw new IllegalArgumentException("Too large: " + expectedSize);
+        return Math.max(4, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    public int size() {
+        return size + (hasZero ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean contains(int key) {
+        if (key == 0) return hasZero;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == 0) return false;
+            if (k == key) return true;
+        }
+    }
+
+    // false if key was already present
+    public boolean add(int key) {
+        if (key == 0) {
+            boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+        int i = mix(key) & mask;
+        for (int k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+            if (k == key) return false;
+        }
+        keys[i] = key;
+        if (++size > threshold) allocate(keys.length * 2);
+        return true;
+    }
+
+    // false if key was not present
+    public boolean remove(int key) {
+        if (key == 0) {
+            boolean removed = hasZero;
+            hasZero = false;
+            return removed;
+        }
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == 0) return false;
+            if (k == key) {
+                shiftBack(i);
+                size--;
+                return true;
+            }
+        }
+    }
+
+    // Backward-shift deletion: refill the hole at free from the probe run after it
+    private void shiftBack(int free) {
+        for (int i = (free + 1) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == 0) break;
+            int home = mix(k) & mask;
+            // k may move into the hole unless its home lies in (free, i]
+            if (((i - home) & mask) >= ((i - free) & mask)) {
+                keys[free] = k;
+                free = i;
+            }
+        }
+        keys[free] = 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+        hasZero = false;
+    }
+
+    public void forEach(IntConsumer action) {
+        if (hasZero) action.accept(0);
+        for (int k : keys) {
+            if (k != 0) action.accept(k);
+        }
+    }
+
+    public int[] toArray() {
+        int[] out = new int[size()];
+        int n = 0;
+        if (hasZero) out[n++] = 0;
+        for (int k : keys) {
+            if (k != 0) out[n++] = k;
+        }
+        return out;
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    // Walks the keys in table order; key 0 (if present) comes first
+    final class Cursor {
+        private int slot = hasZero ? -2 : -1;
+        private int key;
+
+        // Moves to the next key; false when there is none
+        public boolean advance() {
+            if (slot == -2) {
+                slot = -1;
+                key = 0;
+                return true;
+            }
+            while (++slot < keys.length) {
+                if (keys[slot] != 0) {
+                    key = keys[slot];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int key() {
+            return key;
+        }
+    }
+
+    private void allocate(int capacity) {
+        int[] old = keys;
+        keys = new int[capacity];
+        mask = capacity - 1;
+        threshold = Math.min(capacity - 1, (int) (capacity * loadFactor));
+        if (old == null) return;
+        for (int k : old) {
+            if (k == 0) continue;
+            int i = mix(k) & mask;
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = k;
+        }
+    }
+}
+
+
+// ============================================================================
+// 6. IntIntHashMap
+// ============================================================================
+/*
+ * CONCEPT:
+ * - IntHashSet plus a parallel int[] of values: slot i holds
+ *   keys[i] → values[i]; probing, key-0 handling and backward-shift
+ *   deletion are the same (values move along with their keys)
+ * - No null for "absent": get / put / remove return the map's
+ *   missingValue (0 unless given) when there is no entry; use
+ *   containsKey when missingValue is also a real value
+ * - addTo(key, delta): counting without a get + put pair (one probe)
+ * - Cursor gives key() and value() without boxing either
+ *
+ * TIME COMPLEXITY: get / put / remove / addTo: O(1) expected
+ *
+ * SPACE COMPLEXITY: 8 bytes per slot → ~10.7-21.3 bytes per entry at load
+ *   0.75 (vs ~64+ bytes for HashMap<Integer, Integer>)
+ *
+ * EXAMPLE:
+ * IntIntHashMap counts = new IntIntHashMap();
+ * for (int x : {7, 3, 7, 7}) counts.addTo(x, 1);
+ * counts.get(7) → 3,  counts.get(5) → 0 (missing),  counts.containsKey(5) → false
+ */
+class IntIntHashMap {
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private boolean hasZeroKey;
+    private int zeroValue;
+    private int threshold;
+    private final float loadFactor;
+    private final int missingValue;
+
+    public IntIntHashMap() {
+        this(IntHashSet.DEFAULT_CAPACITY, IntHashSet.DEFAULT_LOAD_FACTOR, 0);
+    }
+
+    // missingValue: returned by get / put / remove when the key is absent
+    public IntIntHashMap(int expectedSize, float loadFactor, int missingValue) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Illegal size: " + expectedSize);
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be in (0, 1): " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        this.missingValue = missingValue;
+        allocate(IntHashSet.tableSize(expectedSize, loadFactor));
+    }
+
+    public int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : find(key) >= 0;
+    }
+
+    public int get(int key) {
+        if (key == 0) return hasZeroKey ? zeroValue : missingValue;
+        int i = find(key);
+        return i >= 0 ? values[i] : missingValue;
+    }
+
+    // Returns the previous value, or missingValue if there was none
+    public int put(int key, int value) {
+        if (key == 0) {
+            int old = hasZeroKey ? zeroValue : missingValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return old;
+        }
+        int i = mix(key) & mask;
+        for (int k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+            if (k == key) {
+                int old = values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+        insertAt(i, key, value);
+        return missingValue;
+    }
+
+    // Adds delta to the value of key (missingValue if absent); returns the new value
+    public int addTo(int key, int delta) {
+        if (key == 0) {
+            zeroValue = (hasZeroKey ? zeroValue : missingValue) + delta;
+            hasZeroKey = true;
+            return zeroValue;
+        }
+        int i = mix(key) & mask;
+        for (int k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+            if (k == key) return values[i] += delta;
+        }
+        insertAt(i, key, missingValue + delta);
+        return missingValue + delta;
+    }
+
+    // Returns the removed value, or missingValue if key was absent
+    public int remove(int key) {
+        if (key == 0) {
+            int old = hasZeroKey ? zeroValue : missingValue;
+            hasZeroKey = false;
+            return old;
+        }
+        int i = find(key);
+        if (i < 0) return missingValue;
+        int old = values[i];
+        shiftBack(i);
+        size--;
+        return old;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+        hasZeroKey = false;
+    }
+
+    private static int mix(int key) {
+        return IntHashSet.mix(key);
+    }
+
+    // Slot of a non-zero key, or -1
+    private int find(int key) {
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == 0) return -1;
+            if (k == key) return i;
+        }
+    }
+
+    private void insertAt(int i, int key, int value) {
+        keys[i] = key;
+        values[i] = value;
+        if (++size > threshold) allocate(keys.length * 2);
+    }
+
+    private void shiftBack(int free) {
+        for (int i = (free + 1) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == 0) break;
+            int home = mix(k) & mask;
+            if (((i - home) & mask) >= ((i - free) & mask)) {
+                keys[free] = k;
+                values[free] = values[i];
+                free = i;
+            }
+        }
+        keys[free] = 0;
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    // Walks the entries in table order; key 0 (if present) comes first
+    final class Cursor {
+        private int slot = hasZeroKey ? -2 : -1;
+        private int key, value;
+
+        public boolean advance() {
+            if (slot == -2) {
+                slot = -1;
+                key = 0;
+                value = zeroValue;
+                return true;
+            }
+            while (++slot < keys.length) {
+                if (keys[slot] != 0) {
+                    key = keys[slot];
+                    value = values[slot];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int key() {
+            return key;
+        }
+
+        public int value() {
+            return value;
+        }
+    }
+
+    private void allocate(int capacity) {
+        int[] oldKeys = keys, oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = Math.min(capacity - 1, (int) (capacity * loadFactor));
+        if (oldKeys == null) return;
+        for (int j = 0; j < oldKeys.length; j++) {
+            int k = oldKeys[j];
+            if (k == 0) continue;
+            int i = mix(k) & mask;
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = k;
+            values[i] = oldValues[j];
+        }
+    }
+}
+
+
+// ============================================================================
+// 7. PRIMITIVE HASH BENCHMARK
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Memory: heap retained by a set / map of n sequential ids (the case the
+ *   mixing hash is for), measured as used heap after GC, before vs after
+ * - Speed: n lookups of present keys in random order
+ *
+ * USAGE:
+ *   java -cp out PrimitiveHashBenchmark [n] [measureMillis]
+ *
+ * SAMPLE OUTPUT (n = 1000000):
+ * container (n sequential ids)      B/entry
+ * HashSet<Integer>                    56.39
+ * IntHashSet                           8.39
+ * HashMap<Integer, Integer>           72.38
+ * IntIntHashMap                       16.78
+ * random get                          ns/op
+ * HashMap<Integer, Integer>           73.62
+ * IntIntHashMap                       22.91
+ */
+class PrimitiveHashBenchmark {
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long nanos = (args.length > 1 ? Long.parseLong(args[1]) : 1000) * 1_000_000L;
+
+        System.out.printf("%-30s %10s%n", "container (n sequential ids)", "B/entry");
+        report("HashSet<Integer>", retained(() -> {
+            HashSet<Integer> s = new HashSet<>();
+            for (int i = 1; i <= n; i++) s.add(i);
+            return s;
+        }), n);
+        report("IntHashSet", retained(() -> {
+            IntHashSet s = new IntHashSet();
+            for (int i = 1; i <= n; i++) s.add(i);
+            return s;
+        }), n);
+        report("HashMap<Integer, Integer>", retained(() -> {
+            HashMap<Integer, Integer> m = new HashMap<>();
+            for (int i = 1; i <= n; i++) m.put(i, i);
+            return m;
+        }), n);
+        report("IntIntHashMap", retained(() -> {
+            IntIntHashMap m = new IntIntHashMap();
+            for (int i = 1; i <= n; i++) m.put(i, i);
+            return m;
+        }), n);
+
+        int[] probes = new Random(42).ints(n, 1, n + 1).toArray();
+        HashMap<Integer, Integer> boxed = new HashMap<>();
+        IntIntHashMap primitive = new IntIntHashMap();
+        for (int i = 1; i <= n; i++) {
+            boxed.put(i, i);
+            primitive.put(i, i);
+        }
+        System.out.printf("%-30s %10s%n", "random get", "ns/op");
+        System.out.printf("%-30s %10.2f%n", "HashMap<Integer, Integer>", Bench.run(Bench.batch(n, () -> {
+            long sum = 0;
+            for (int k : probes) sum += boxed.get(k);
+            Bench.sink += sum;
+        }), nanos, nanos).nsPerOp);
+        System.out.printf("%-30s %10.2f%n", "IntIntHashMap", Bench.run(Bench.batch(n, () -> {
+            long sum = 0;
+            for (int k : probes) sum += primitive.get(k);
+            Bench.sink += sum;
+        }), nanos, nanos).nsPerOp);
+    }
+
+    // Used heap after GC with the container alive, minus before
+    private static long retained(Supplier<Object> build) {
+        long before = usedHeap();
+        Object container = build.get();
+        long after = usedHeap();
+        Bench.sink += container.hashCode();   // keeps it reachable until here
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static void report(String name, long bytes, int n) {
+        System.out.printf("%-30s %10.2f%n", name, (double) bytes / n);
+    }
+}
+
+
+// ============================================================================
+// 8. IntPriorityQueue (D-ARY HEAP)
+// ============================================================================
+/*
+ * CONCEPT:
+ * - PriorityQueue<Integer>: binary heap of boxed Integers, and a max-heap
+ *   needs Collections.reverseOrder() → a Comparator call + two unboxings
+ *   per comparison
+ * - IntPriorityQueue: the heap is an int[]; MIN / MAX is a field checked
+ *   in one comparison helper (constant per instance, so the JIT folds the
+ *   branch away) instead of a comparator
+ * - D-ARY HEAP: node i has children d*i + 1 .. d*i + d, parent (i - 1) / d
+ *   → height log_d(n): d = 4 halves the levels of a binary heap
+ *   → sift-down compares all d children, but 4 ints are 16 bytes: mostly
+ *     one cache line, so a level costs about one cache miss, not four
+ *   → sift-up (offer) only gets cheaper with larger d
+ *   → d = 4 is the usual sweet spot; d = 2 is the classic binary heap
+ * - Moves use a HOLE instead of swaps: the moving value is held aside and
+ *   each step writes one element (half the writes of swapping)
+ * - HEAPIFY: build from an array bottom-up (sift down every parent, last
+ *   first) → O(n), not n offers in O(n log n)
+ *
+ * TIME COMPLEXITY:
+ * - offer: O(log_d n)
+ * - poll: O(d log_d n)
+ * - peek: O(1)
+ * - heapify: O(n)
+ *
+ * SPACE COMPLEXITY: 4 bytes per element
+ *
+ * EXAMPLE (4-ary, MIN):
+ * heapify [9, 4, 7, 1, 8, 2]   (last parent: index (6 - 2) / 4 = 1)
+ * → index 1 (4) has child index 5 (2): 2 moves up → [9, 2, 7, 1, 8, 4]
+ * → index 0 (9) has children 1..4 (2, 7, 1, 8): 1 moves up, 9 goes to
+ *   index 3 (no children) → [1, 2, 7, 9, 8, 4]
+ * poll() → 1, poll() → 2, poll() → 4
+ */
+class IntPriorityQueue {
+    enum Order { MIN, MAX }
+
+    static final int DEFAULT_ARITY = 4;
+
+    private int[] heap;
+    private int size;
+    private final int arity;
+    private final boolean max;
+
+    public IntPriorityQueue() {
+        this(Order.MIN, DEFAULT_ARITY, 16);
+    }
+
+    public IntPriorityQueue(Order order, int arity, int capacity) {
+        if (arity < 2) throw new IllegalArgumentException("Arity must be >= 2: " + arity);
+        if (capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        this.arity = arity;
+        this.max = order == Order.MAX;
+        this.heap = new int[Math.max(1, capacity)];
+    }
+
+    // Heap of a copy of values, built in O(n)
+    public static IntPriorityQueue heapify(int[] values, Order order, int arity) {
+        IntPriorityQueue pq = new IntPriorityQueue(order, arity, values.length);
+        System.arraycopy(values, 0, pq.heap, 0, values.length);
+        pq.size = values.length;
+        // Last parent is (size - 2) / arity; 0 or 1 values are already a heap
+        for (int i = pq.size <= 1 ? -1 : (pq.size - 2) / arity; i >= 0; i--) pq.siftDown(i, pq.heap[i]);
+        return pq;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void offer(int value) {
+        if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+        siftUp(size++, value);
+    }
+
+    public int peek() {
+        if (size == 0) throw new NoSuchElementException();
+        return heap[0];
+    }
+
+    public int poll() {
+        if (size == 0) throw new NoSuchElementException();
+        int top = heap[0];
+        int last = heap[--size];
+        if (size > 0) siftDown(0, last);
+        return top;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // a must come out before b
+    private boolean before(int a, int b) {
+        return max ? a > b : a < b;
+    }
+
+    private void siftUp(int hole, int value) {
+        while (hole > 0) {
+            int parent = (hole - 1) / arity;
+            if (!before(value, heap[parent])) break;
+            heap[hole] = heap[parent];
+            hole = parent;
+        }
+        heap[hole] = value;
+    }
+
+    private void siftDown(int hole, int value) {
+        while (true) {
+            int first = hole * arity + 1;
+            if (first >= size) break;
+            int best = first;
+            for (int c = first + 1, end = Math.min(first + arity, size); c < end; c++) {
+                if (before(heap[c], heap[best])) best = c;
+            }
+            if (!before(heap[best], value)) break;
+            heap[hole] = heap[best];
+            hole = best;
+        }
+        heap[hole] = value;
+    }
+}
+
+
+// ============================================================================
+// 9. IndexedIntHeap (D-ARY HEAP WITH DECREASE / INCREASE KEY)
+// ============================================================================
+/*
+ * CONCEPT:
+ * - A scheduler keeps changing priorities: PriorityQueue can only do that
+ *   with remove(o) (O(n) search) + add
+ * - INDEXED HEAP: the heap holds item IDS (0 .. capacity - 1), each with an
+ *   int key (priority); a POSITION index pos[id] = where id sits in the
+ *   heap (-1 if absent), updated on every move
+ *   → changing id's key: jump to pos[id], sift up or down: O(log n)
+ *   → contains(id) / keyOf(id): O(1)
+ * - decreaseKey / increaseKey name the direction of the KEY change (and
+ *   reject the other direction); in a MIN heap a smaller key moves up, in
+ *   a MAX heap down. update(id, key) accepts either
+ * - Same d-ary layout, hole moves and O(n) heapify as IntPriorityQueue
+ * - Typical uses: Dijkstra / Prim (decreaseKey on relaxation), task
+ *   scheduling by deadline, LFU caches
+ *
+ * TIME COMPLEXITY:
+ * - insert / decreaseKey / increaseKey / update / remove: O(d log_d n)
+ * - poll: O(d log_d n), peek / contains / keyOf: O(1)
+ *
+ * SPACE COMPLEXITY: 3 ints per id of capacity (heap, pos, keys)
+ *
+ * EXAMPLE (MIN):
+ * insert(task 0, 50), insert(task 1, 30), insert(task 2, 40)
+ * peekId() → 1
+ * decreaseKey(0, 10) → pollId() → 0, then pollId() → 1
+ */
+class IndexedIntHeap {
+    private final int[] heap;   // ids, in heap order
+    private final int[] pos;    // pos[id] = index in heap, -1 if absent
+    private final int[] keys;   // keys[id] = priority of id
+    private int size;
+    private final int arity;
+    private final boolean max;
+
+    public IndexedIntHeap(int capacity) {
+        this(capacity, IntPriorityQueue.Order.MIN, IntPriorityQueue.DEFAULT_ARITY);
+    }
+
+    // Holds ids 0 .. capacity - 1
+    public IndexedIntHeap(int capacity, IntPriorityQueue.Order order, int arity) {
+        if (arity < 2) throw new IllegalArgumentException("Arity must be >= 2: " + arity);
+        if (capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        this.heap = new int[capacity];
+        this.pos = new int[capacity];
+        this.keys = new int[capacity];
+        this.arity = arity;
+        this.max = order == IntPriorityQueue.Order.MAX;
+        Arrays.fill(pos, -1);
+    }
+
+    // Heap of ids 0 .. keys.length - 1 with the given keys, built in O(n)
+    public static IndexedIntHeap heapify(int[] keys, IntPriorityQueue.Order order, int arity) {
+        IndexedIntHeap h = new IndexedIntHeap(keys.length, order, arity);
+        System.arraycopy(keys, 0, h.keys, 0, keys.length);
+        for (int id = 0; id < keys.length; id++) {
+            h.heap[id] = id;
+            h.pos[id] = id;
+        }
+        h.size = keys.length;
+        // Last parent is (size - 2) / arity; 0 or 1 ids are already a heap
+        for (int i = h.size <= 1 ? -1 : (h.size - 2) / arity; i >= 0; i--) h.siftDown(i, h.heap[i]);
+        return h;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int id) {
+        Objects.checkIndex(id, pos.length);
+        return pos[id] >= 0;
+    }
+
+    public int keyOf(int id) {
+        checkPresent(id);
+        return keys[id];
+    }
+
+    public void insert(int id, int key) {
+        Objects.checkIndex(id, pos.length);
+        if (pos[id] >= 0) throw new IllegalArgumentException("Id already in heap: " + id);
+        keys[id] = key;
+        siftUp(size++, id);
+    }
+
+    // New key must not be larger than the current one
+    public void decreaseKey(int id, int key) {
+        checkPresent(id);
+        if (key > keys[id]) {
+            throw new IllegalArgumentException("decreaseKey: " + key + " > current key " + keys[id]);
+        }
+        update(id, key);
+    }
+
+    // New key must not be smaller than the current one
+    public void increaseKey(int id, int key) {
+        checkPresent(id);
+        if (key < keys[id]) {
+            throw new IllegalArgumentException("increaseKey: " + key + " < current key " + keys[id]);
+        }
+        update(id, key);
+    }
+
+    // Sets id's key, moving it up or down as needed
+    public void update(int id, int key) {
+        checkPresent(id);
+        int old = keys[id];
+        keys[id] = key;
+        if (before(key, old)) siftUp(pos[id], id);
+        else siftDown(pos[id], id);
+    }
+
+    public int peekId() {
+        if (size == 0) throw new NoSuchElementException();
+        return heap[0];
+    }
+
+    public int peekKey() {
+        return keys[peekId()];
+    }
+
+    // Removes and returns the id with the first key
+    public int pollId() {
+        int top = peekId();
+        removeAt(0);
+        return top;
+    }
+
+    public void remove(int id) {
+        checkPresent(id);
+        removeAt(pos[id]);
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) pos[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void removeAt(int i) {
+        int id = heap[i];
+        pos[id] = -1;
+        int last = heap[--size];
+        if (i == size) return;
+        // The last id fills the gap; it may belong above or below it
+        if (i > 0 && before(keys[last], keys[heap[(i - 1) / arity]])) siftUp(i, last);
+        else siftDown(i, last);
+    }
+
+    private void checkPresent(int id) {
+        Objects.checkIndex(id, pos.length);
+        if (pos[id] < 0) throw new NoSuchElementException("Id not in heap: " + id);
+    }
+
+    private boolean before(int a, int b) {
+        return max ? a > b : a < b;
+    }
+
+    private void siftUp(int hole, int id) {
+        int key = keys[id];
+        while (hole > 0) {
+            int parent = (hole - 1) / arity;
+            int p = heap[parent];
+            if (!before(key, keys[p])) break;
+            heap[hole] = p;
+            pos[p] = hole;
+            hole = parent;
+        }
+        heap[hole] = id;
+        pos[id] = hole;
+    }
+
+    private void siftDown(int hole, int id) {
+        int key = keys[id];
+        while (true) {
+            int first = hole * arity + 1;
+            if (first >= size) break;
+            int best = first;
+            for (int c = first + 1, end = Math.min(first + arity, size); c < end; c++) {
+                if (before(keys[heap[c]], keys[heap[best]])) best = c;
+            }
+            int b = heap[best];
+            if (!before(keys[b], key)) break;
+            heap[hole] = b;
+            pos[b] = hole;
+            hole = best;
+        }
+        heap[hole] = id;
+        pos[id] = hole;
+    }
+}
+
+
+// ============================================================================
+// 10. HEAP BENCHMARK
+// ============================================================================
+/*
+ * CONCEPT:
+ * - OFFER + POLL: n random ints in, all n out
+ *   PriorityQueue<Integer> (min and reverseOrder max) vs IntPriorityQueue
+ *   at arity 2 and 4
+ * - RESCHEDULE: n tasks in a heap, then n random priority changes
+ *   PriorityQueue: remove(task) + add (O(n) each, so on n / 64 changes
+ *   only) vs IndexedIntHeap.update (O(log n)); both heaps are built in
+ *   prepare(), so only the changes are timed
+ *
+ * USAGE:
+ *   java -cp out HeapBenchmark [n] [measureMillis]
+ *
+ * SAMPLE OUTPUT (n = 1000000):
+ * offer + poll (n = 1000000)              ns/elem
+ * PriorityQueue<Integer> min               511.76
+ * PriorityQueue<Integer> reverseOrder      500.15
+ * IntPriorityQueue d=2 MIN                 210.98
+ * IntPriorityQueue d=2 MAX                 213.19
+ * IntPriorityQueue d=4 MIN                 167.37
+ * IntPriorityQueue d=4 MAX                 151.64
+ * IntPriorityQueue.heapify d=4 + poll      129.21
+ * reschedule (65536 tasks)              ns/change
+ * PriorityQueue remove + add             14872.14
+ * IndexedIntHeap.update d=4                 33.64
+ */
+class HeapBenchmark {
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+        long nanos = (args.length > 1 ? Long.parseLong(args[1]) : 1000) * 1_000_000L;
+        int[] values = new Random(42).ints(n).toArray();
+
+        System.out.printf("%-36s %10s%n", "offer + poll (n = " + n + ")", "ns/elem");
+        report("PriorityQueue<Integer> min", Bench.run(Bench.batch(n, () -> {
+            PriorityQueue<Integer> pq = new PriorityQueue<>();
+            for (int v : values) pq.offer(v);
+            while (!pq.isEmpty()) Bench.sink += pq.poll();
+        }), nanos, nanos));
+        report("PriorityQueue<Integer> reverseOrder", Bench.run(Bench.batch(n, () -> {
+            PriorityQueue<Integer> pq = new PriorityQueue<>(Collections.reverseOrder());
+            for (int v : values) pq.offer(v);
+            while (!pq.isEmpty()) Bench.sink += pq.poll();
+        }), nanos, nanos));
+        for (int arity : new int[] {2, 4}) {
+            for (IntPriorityQueue.Order order : IntPriorityQueue.Order.values()) {
+                report("IntPriorityQueue d=" + arity + " " + order, Bench.run(Bench.batch(n, () -> {
+                    IntPriorityQueue pq = new IntPriorityQueue(order, arity, 16);
+                    for (int v : values) pq.offer(v);
+                    while (!pq.isEmpty()) Bench.sink += pq.poll();
+                }), nanos, nanos));
+            }
+        }
+        report("IntPriorityQueue.heapify d=4 + poll", Bench.run(Bench.batch(n, () -> {
+            IntPriorityQueue pq = IntPriorityQueue.heapify(values, IntPriorityQueue.Order.MIN, 4);
+            while (!pq.isEmpty()) Bench.sink += pq.poll();
+        }), nanos, nanos));
+
+        // Tasks 0 .. m - 1 with random priorities, then priority changes
+        int m = Math.min(n, 1 << 16);
+        int[] priority = Arrays.copyOf(values, m);
+        int[] changedTask = new Random(7).ints(m, 0, m).toArray();
+        int[] changedPriority = new Random(8).ints(m).toArray();
+        System.out.printf("%-36s %10s%n", "reschedule (" + m + " tasks)", "ns/change");
+        report("PriorityQueue remove + add", Bench.run(new Bench.BatchOp() {
+            PriorityQueue<long[]> pq;
+
+            long[][] task;
+
+            // Building the heap is setup, not part of a change
+            public int prepare() {
+                pq = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+                task = new long[m][];
+                for (int id = 0; id < m; id++) pq.add(task[id] = new long[] {priority[id], id});
+                return m / 64;
+            }
+
+            public void run() {
+                for (int i = 0; i < m / 64; i++) {
+                    long[] t = task[changedTask[i]];
+                    pq.remove(t);
+                    t[0] = changedPriority[i];
+                    pq.add(t);
+                }
+                Bench.sink += pq.peek()[1];
+            }
+        }, nanos, nanos));
+        report("IndexedIntHeap.update d=4", Bench.run(new Bench.BatchOp() {
+            IndexedIntHeap heap;
+
+            public int prepare() {
+                heap = IndexedIntHeap.heapify(priority, IntPriorityQueue.Order.MIN, 4);
+                return m;
+            }
+
+            public void run() {
+                for (int i = 0; i < m; i++) heap.update(changedTask[i], changedPriority[i]);
+                Bench.sink += heap.peekId();
+            }
+        }, nanos, nanos));
+    }
+
+    private static void report(String name, Bench.Result r) {
+        System.out.printf("%-36s %10.2f%n", name, r.nsPerOp);
+    }
+}
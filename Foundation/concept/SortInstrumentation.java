@@ -0,0 +1,894 @@
+/*
+ * SORT INSTRUMENTATION - CONCEPT NOTES FOR REVISION
+ * ========================================================
+ * Counting what a sort actually does, to compare against the
+ * complexity table at the bottom of Sorting.java
+ */
+
+// ============================================================================
+// 1. SortMetrics
+// ============================================================================
+/*
+ * CONCEPT:
+ * - A slow sort is slow for one of three reasons:
+ *   too many COMPARISONS, too much DATA MOVEMENT, or too much ALLOCATION
+ * - SortMetrics counts each one separately:
+ *   comparisons - key comparisons (a < b, a > b, ...)
+ *   swaps       - exchanges of two elements (each is 3 writes)
+ *   moves       - single element writes: shifts, copies, merge output
+ *   maxDepth    - deepest recursion level reached
+ *   allocated   - bytes of temporary arrays the sort created
+ *                 (16-byte array header + data, rounded to 8 bytes)
+ *
+ * ZERO OVERHEAD WHEN DISABLED:
+ * - The classes in Sorting.java are NOT touched: no counters, no
+ *   "if (metrics != null)" test in the inner loops
+ * - Instead InstrumentedSorts below is a separate copy of each algorithm
+ *   that takes a SortMetrics → you only pay for counting when you call it
+ */
+final class SortMetrics {
+    long comparisons;
+    long swaps;
+    long moves;
+    int maxDepth;
+    long allocatedBytes;
+    private int depth;
+
+    void reset() {
+        comparisons = swaps = moves = allocatedBytes = 0;
+        maxDepth = depth = 0;
+    }
+
+    // Counted comparisons
+    boolean less(int a, int b)         { comparisons++; return a < b; }
+    boolean greater(int a, int b)      { comparisons++; return a > b; }
+    boolean lessOrEqual(int a, int b)  { comparisons++; return a <= b; }
+    boolean equal(int a, int b)        { comparisons++; return a == b; }
+
+    void swap(int[] arr, int i, int j) {
+        swaps++;
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    void move(int[] dst, int i, int value) {
+        moves++;
+        dst[i] = value;
+    }
+
+    void copy(int[] src, int srcPos, int[] dst, int dstPos, int length) {
+        moves += length;
+        System.arraycopy(src, srcPos, dst, dstPos, length);
+    }
+
+    // Recursion depth tracking: call enter() on entry, exit() on return
+    void enter() {
+        if (++depth > maxDepth) maxDepth = depth;
+    }
+
+    void exit() {
+        depth--;
+    }
+
+    int[] newIntArray(int length) {
+        allocatedBytes += (16 + 4L * length + 7) & ~7L;
+        return new int[length];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("comparisons=%,d swaps=%,d moves=%,d maxDepth=%d allocated=%,dB",
+            comparisons, swaps, moves, maxDepth, allocatedBytes);
+    }
+}
+
+
+// ============================================================================
+// 2. INSTRUMENTED COPIES OF THE SORTS
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Same algorithms as Sorting.java, line for line, with every comparison,
+ *   swap, write and allocation routed through SortMetrics
+ * - Keep in sync with Sorting.java when an algorithm changes there
+ * - Parallel sorts are not mirrored here: parallel counters would need
+ *   atomics (changing the very cost being measured)
+ * - TimSort never recurses: maxDepth stays 0, its run stack is counted
+ *   as allocation instead
+ */
+final class InstrumentedSorts {
+    private InstrumentedSorts() {}
+
+    static void bubbleSort(int[] arr, SortMetrics m) {
+        int n = arr.length;
+        for (int i = 0; i < n - 1; i++) {
+            boolean swapped = false;
+            for (int j = 0; j < n - i - 1; j++) {
+                if (m.greater(arr[j], arr[j + 1])) {
+                    m.swap(arr, j, j + 1);
+                    swapped = true;
+                }
+            }
+            if (!swapped) break;
+        }
+    }
+
+    static void selectionSort(int[] arr, SortMetrics m) {
+        int n = arr.length;
+        for (int i = 0; i < n - 1; i++) {
+            int minIdx = i;
+            for (int j = i + 1; j < n; j++) {
+                if (m.less(arr[j], arr[minIdx])) minIdx = j;
+            }
+            m.swap(arr, i, minIdx);
+        }
+    }
+
+    static void insertionSort(int[] arr, SortMetrics m) {
+        int n = arr.length;
+        for (int i = 1; i < n; i++) {
+            int key = arr[i];
+            int j = i - 1;
+            while (j >= 0 && m.greater(arr[j], key)) {
+                m.move(arr, j + 1, arr[j]);
+                j--;
+            }
+            m.move(arr, j + 1, key);
+        }
+    }
+
+    static void mergeSort(int[] arr, SortMetrics m) {
+        m.enter();
+        if (arr.length <= SmallSort.MAX_NETWORK_SIZE) {
+            networkSort(arr, 0, arr.length, m);
+        } else {
+            int mid = arr.length / 2;
+            int[] left = m.newIntArray(mid);
+            int[] right = m.newIntArray(arr.length - mid);
+            m.copy(arr, 0, left, 0, mid);
+            m.copy(arr, mid, right, 0, arr.length - mid);
+            mergeSort(left, m);
+            mergeSort(right, m);
+            merge(arr, left, right, m);
+        }
+        m.exit();
+    }
+
+    private static void merge(int[] arr, int[] left, int[] right, SortMetrics m) {
+        int i = 0, j = 0, k = 0;
+        while (i < left.length && j < right.length) {
+            if (m.lessOrEqual(left[i], right[j])) {
+                m.move(arr, k++, left[i++]);
+            } else {
+                m.move(arr, k++, right[j++]);
+            }
+        }
+        while (i < left.length) m.move(arr, k++, left[i++]);
+        while (j < right.length) m.move(arr, k++, right[j++]);
+    }
+
+    static void recursiveBubbleSort(int[] arr, int n, SortMetrics m) {
+        m.enter();
+        if (n > 1) {
+            for (int i = 0; i < n - 1; i++) {
+                if (m.greater(arr[i], arr[i + 1])) m.swap(arr, i, i + 1);
+            }
+            recursiveBubbleSort(arr, n - 1, m);
+        }
+        m.exit();
+    }
+
+    static void recursiveInsertionSort(int[] arr, int n, SortMetrics m) {
+        m.enter();
+        if (n > 1) {
+            recursiveInsertionSort(arr, n - 1, m);
+            int key = arr[n - 1];
+            int j = n - 2;
+            while (j >= 0 && m.greater(arr[j], key)) {
+                m.move(arr, j + 1, arr[j]);
+                j--;
+            }
+            m.move(arr, j + 1, key);
+        }
+        m.exit();
+    }
+
+    static void quickSort(int[] arr, SortMetrics m) {
+        if (arr.length == 0) return;
+        quickSort(arr, 0, arr.length - 1, m);
+    }
+
+    private static void quickSort(int[] arr, int low, int high, SortMetrics m) {
+        m.enter();
+        if (low < high) {
+            // Lomuto partition, pivot = arr[high]
+            int pivot = arr[high];
+            int i = low - 1;
+            for (int j = low; j < high; j++) {
+                if (m.less(arr[j], pivot)) m.swap(arr, ++i, j);
+            }
+            m.swap(arr, i + 1, high);
+            int pi = i + 1;
+            quickSort(arr, low, pi - 1, m);
+            quickSort(arr, pi + 1, high, m);
+        }
+        m.exit();
+    }
+
+    // ---- QuickSort THREE_WAY / DUAL_PIVOT (SmallSort network base case) ----
+
+    static void quickSort(int[] arr, QuickSort.PartitionScheme scheme, SortMetrics m) {
+        if (arr.length == 0) return;
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(arr.length));
+        switch (scheme) {
+            case LOMUTO:     quickSort(arr, 0, arr.length - 1, m); break;
+            case THREE_WAY:  threeWayQuickSort(arr, 0, arr.length - 1, depthLimit, m); break;
+            case DUAL_PIVOT: dualPivotQuickSort(arr, 0, arr.length - 1, depthLimit, m); break;
+            default: throw new IllegalArgumentException("Unknown scheme: " + scheme);
+        }
+    }
+
+    private static void threeWayQuickSort(int[] arr, int low, int high, int depthLimit, SortMetrics m) {
+        m.enter();
+        while (high - low + 1 > SmallSort.MAX_NETWORK_SIZE) {
+            if (depthLimit-- == 0) {
+                heapSort(arr, low, high, m);
+                m.exit();
+                return;
+            }
+            int pivot = arr[quickSortPivot(arr, low, high, m)];
+
+            int lt = low, i = low, gt = high;
+            while (i <= gt) {
+                if (m.less(arr[i], pivot)) {
+                    m.swap(arr, lt++, i++);
+                } else if (m.greater(arr[i], pivot)) {
+                    m.swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            if (lt - low < high - gt) {
+                threeWayQuickSort(arr, low, lt - 1, depthLimit, m);
+                low = gt + 1;
+            } else {
+                threeWayQuickSort(arr, gt + 1, high, depthLimit, m);
+                high = lt - 1;
+            }
+        }
+        networkSort(arr, low, high + 1, m);
+        m.exit();
+    }
+
+    private static void dualPivotQuickSort(int[] arr, int low, int high, int depthLimit, SortMetrics m) {
+        m.enter();
+        while (high - low + 1 > SmallSort.MAX_NETWORK_SIZE) {
+            if (depthLimit-- == 0) {
+                heapSort(arr, low, high, m);
+                m.exit();
+                return;
+            }
+            int third = (high - low + 1) / 3;
+            m.swap(arr, low, low + third);
+            m.swap(arr, high, high - third);
+            if (m.greater(arr[low], arr[high])) m.swap(arr, low, high);
+            int p1 = arr[low], p2 = arr[high];
+
+            int lt = low + 1, i = low + 1, gt = high - 1;
+            while (i <= gt) {
+                if (m.less(arr[i], p1)) {
+                    m.swap(arr, lt++, i++);
+                } else if (m.greater(arr[i], p2)) {
+                    m.swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            m.swap(arr, low, --lt);
+            m.swap(arr, high, ++gt);
+
+            int l = lt + 1, g = gt - 1;
+            if (p1 == p2) {
+                g = l - 1;
+            } else {
+                int k = l;
+                while (k <= g) {
+                    if (m.equal(arr[k], p1)) {
+                        m.swap(arr, l++, k++);
+                    } else if (m.equal(arr[k], p2)) {
+                        m.swap(arr, k, g--);
+                    } else {
+                        k++;
+                    }
+                }
+            }
+
+            int left = lt - low, middle = g - l + 1, right = high - gt;
+            if (left >= middle && left >= right) {
+                dualPivotQuickSort(arr, l, g, depthLimit, m);
+                dualPivotQuickSort(arr, gt + 1, high, depthLimit, m);
+                high = lt - 1;
+            } else if (middle >= right) {
+                dualPivotQuickSort(arr, low, lt - 1, depthLimit, m);
+                dualPivotQuickSort(arr, gt + 1, high, depthLimit, m);
+                low = l;
+                high = g;
+            } else {
+                dualPivotQuickSort(arr, low, lt - 1, depthLimit, m);
+                dualPivotQuickSort(arr, l, g, depthLimit, m);
+                low = gt + 1;
+            }
+        }
+        networkSort(arr, low, high + 1, m);
+        m.exit();
+    }
+
+    // QuickSort's pivot: ninther step ~n/7 (IntroSort below uses n/8)
+    private static int quickSortPivot(int[] arr, int low, int high, SortMetrics m) {
+        int mid = (low + high) >>> 1;
+        int n = high - low + 1;
+        if (n < 128) return medianOfThree(arr, low, mid, high, m);
+        int step = (n >>> 3) + (n >>> 6) + 1;
+        int m1 = medianOfThree(arr, low, low + step, low + 2 * step, m);
+        int m2 = medianOfThree(arr, mid - step, mid, mid + step, m);
+        int m3 = medianOfThree(arr, high - 2 * step, high - step, high, m);
+        return medianOfThree(arr, m1, m2, m3, m);
+    }
+
+    // Sorting network base case (SmallSort): one comparison per
+    // compare-exchange, a swap only when the pair is out of order
+    private static void networkSort(int[] arr, int from, int to, SortMetrics m) {
+        int[] net = SmallSort.network(to - from);
+        for (int k = 0; k < net.length; k += 2) {
+            int i = from + net[k], j = from + net[k + 1];
+            if (m.greater(arr[i], arr[j])) m.swap(arr, i, j);
+        }
+    }
+
+    // ---- IntroSort ----
+
+    static void introSort(int[] arr, SortMetrics m) {
+        if (arr.length <= 1) return;
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(arr.length));
+        introSort(arr, 0, arr.length - 1, depthLimit, m);
+    }
+
+    private static void introSort(int[] arr, int low, int high, int depthLimit, SortMetrics m) {
+        m.enter();
+        while (high - low + 1 > 16) {
+            if (depthLimit-- == 0) {
+                heapSort(arr, low, high, m);
+                m.exit();
+                return;
+            }
+            m.swap(arr, low, choosePivot(arr, low, high, m));
+            int pivot = arr[low];
+            int i = low - 1, j = high + 1;
+            while (true) {
+                do { i++; } while (m.less(arr[i], pivot));
+                do { j--; } while (m.greater(arr[j], pivot));
+                if (i >= j) break;
+                m.swap(arr, i, j);
+            }
+            if (j - low < high - j) {
+                introSort(arr, low, j, depthLimit, m);
+                low = j + 1;
+            } else {
+                introSort(arr, j + 1, high, depthLimit, m);
+                high = j;
+            }
+        }
+        networkSort(arr, low, high + 1, m);
+        m.exit();
+    }
+
+    private static int choosePivot(int[] arr, int low, int high, SortMetrics m) {
+        int mid = (low + high) >>> 1;
+        int n = high - low + 1;
+        if (n < 128) return medianOfThree(arr, low, mid, high, m);
+        int step = n / 8;
+        int m1 = medianOfThree(arr, low, low + step, low + 2 * step, m);
+        int m2 = medianOfThree(arr, mid - step, mid, mid + step, m);
+        int m3 = medianOfThree(arr, high - 2 * step, high - step, high, m);
+        return medianOfThree(arr, m1, m2, m3, m);
+    }
+
+    private static int medianOfThree(int[] arr, int a, int b, int c, SortMetrics m) {
+        if (m.less(arr[a], arr[b])) {
+            if (m.less(arr[b], arr[c])) return b;
+            return m.less(arr[a], arr[c]) ? c : a;
+        } else {
+            if (m.less(arr[a], arr[c])) return a;
+            return m.less(arr[b], arr[c]) ? c : b;
+        }
+    }
+
+    private static void heapSort(int[] arr, int low, int high, SortMetrics m) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(arr, low, i, n, m);
+        for (int end = n - 1; end > 0; end--) {
+            m.swap(arr, low, low + end);
+            siftDown(arr, low, 0, end, m);
+        }
+    }
+
+    private static void siftDown(int[] arr, int offset, int i, int n, SortMetrics m) {
+        int value = arr[offset + i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) break;
+            if (child + 1 < n && m.greater(arr[offset + child + 1], arr[offset + child])) child++;
+            if (m.lessOrEqual(arr[offset + child], value)) break;
+            m.move(arr, offset + i, arr[offset + child]);
+            i = child;
+        }
+        m.move(arr, offset + i, value);
+    }
+
+    // ---- RadixSort (no comparisons: only moves and allocation) ----
+
+    static void radixSort(int[] arr, SortMetrics m) {
+        int n = arr.length;
+        // Same cutoff as RadixSort.INSERTION_THRESHOLD
+        if (n <= 64) {
+            insertionSort(arr, m);
+            return;
+        }
+        int[][] counts = new int[4][];
+        for (int p = 0; p < 4; p++) counts[p] = m.newIntArray(256);
+        for (int x : arr) {
+            int key = x ^ Integer.MIN_VALUE;
+            for (int p = 0; p < 4; p++) counts[p][(key >>> (8 * p)) & 0xFF]++;
+        }
+        int[] src = arr, dst = null;
+        for (int p = 0; p < 4; p++) {
+            int shift = 8 * p;
+            int[] count = counts[p];
+            if (count[((src[0] ^ Integer.MIN_VALUE) >>> shift) & 0xFF] == n) continue;
+            if (dst == null) dst = m.newIntArray(n);
+            int sum = 0;
+            for (int d = 0; d < 256; d++) {
+                int c = count[d];
+                count[d] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < n; i++) {
+                int x = src[i];
+                m.move(dst, count[((x ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++, x);
+            }
+            int[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != arr) m.copy(src, 0, arr, 0, n);
+    }
+
+    // ---- TimSort (binary insertion, run stack, galloping merges) ----
+
+    static void timSort(int[] arr, SortMetrics m) {
+        int lo = 0, hi = arr.length;
+        int nRemaining = hi - lo;
+        if (nRemaining < 2) return;
+
+        if (nRemaining < 32) {
+            int initRunLen = countRunAndMakeAscending(arr, lo, hi, m);
+            binarySort(arr, lo, hi, lo + initRunLen, m);
+            return;
+        }
+
+        TimSortState ts = new TimSortState(arr, m);
+        int minRun = minRunLength(nRemaining);
+        do {
+            int runLen = countRunAndMakeAscending(arr, lo, hi, m);
+            if (runLen < minRun) {
+                int force = Math.min(nRemaining, minRun);
+                binarySort(arr, lo, lo + force, lo + runLen, m);
+                runLen = force;
+            }
+            ts.pushRun(lo, runLen);
+            ts.mergeCollapse();
+            lo += runLen;
+            nRemaining -= runLen;
+        } while (nRemaining != 0);
+
+        ts.mergeForceCollapse();
+    }
+
+    private static int countRunAndMakeAscending(int[] a, int lo, int hi, SortMetrics m) {
+        int runHi = lo + 1;
+        if (runHi == hi) return 1;
+
+        if (m.less(a[runHi++], a[lo])) {
+            while (runHi < hi && m.less(a[runHi], a[runHi - 1])) runHi++;
+            for (int i = lo, j = runHi - 1; i < j; i++, j--) m.swap(a, i, j);
+        } else {
+            while (runHi < hi && m.lessOrEqual(a[runHi - 1], a[runHi])) runHi++;
+        }
+        return runHi - lo;
+    }
+
+    private static void binarySort(int[] a, int lo, int hi, int start, SortMetrics m) {
+        if (start == lo) start++;
+        for (; start < hi; start++) {
+            int pivot = a[start];
+            int left = lo, right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (m.less(pivot, a[mid])) right = mid;
+                else left = mid + 1;
+            }
+            m.copy(a, left, a, left + 1, start - left);
+            m.move(a, left, pivot);
+        }
+    }
+
+    private static int minRunLength(int n) {
+        int r = 0;
+        while (n >= 32) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    private static int gallopLeft(int key, int[] a, int base, int len, int hint, SortMetrics m) {
+        int lastOfs = 0, ofs = 1;
+        if (m.greater(key, a[base + hint])) {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && m.greater(key, a[base + hint + ofs])) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        } else {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && m.lessOrEqual(key, a[base + hint - ofs])) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        }
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int mid = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (m.greater(key, a[base + mid])) lastOfs = mid + 1;
+            else ofs = mid;
+        }
+        return ofs;
+    }
+
+    private static int gallopRight(int key, int[] a, int base, int len, int hint, SortMetrics m) {
+        int lastOfs = 0, ofs = 1;
+        if (m.less(key, a[base + hint])) {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && m.less(key, a[base + hint - ofs])) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        } else {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && m.lessOrEqual(a[base + hint + ofs], key)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        }
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int mid = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (m.less(key, a[base + mid])) ofs = mid;
+            else lastOfs = mid + 1;
+        }
+        return ofs;
+    }
+
+    // TimSort's per-call state: run stack, merge buffer and minGallop
+    private static final class TimSortState {
+        private static final int MIN_GALLOP = 7;
+
+        private final int[] a;
+        private final SortMetrics m;
+        private int minGallop = MIN_GALLOP;
+        private int[] tmp;
+        private int stackSize = 0;
+        private final int[] runBase;
+        private final int[] runLen;
+
+        TimSortState(int[] a, SortMetrics m) {
+            this.a = a;
+            this.m = m;
+            int n = a.length;
+            tmp = m.newIntArray(n < 2 * 256 ? n >>> 1 : 256);
+            int stackLen = n < 120 ? 5 : n < 1542 ? 10 : n < 119151 ? 24 : 49;
+            runBase = m.newIntArray(stackLen);
+            runLen = m.newIntArray(stackLen);
+        }
+
+        void pushRun(int base, int len) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = len;
+            stackSize++;
+        }
+
+        void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) n--;
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) n--;
+                mergeAt(n);
+            }
+        }
+
+        private void mergeAt(int i) {
+            int base1 = runBase[i], len1 = runLen[i];
+            int base2 = runBase[i + 1], len2 = runLen[i + 1];
+
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            int k = gallopRight(a[base2], a, base1, len1, 0, m);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) return;
+
+            len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1, m);
+            if (len2 == 0) return;
+
+            if (len1 <= len2) mergeLo(base1, len1, base2, len2);
+            else mergeHi(base1, len1, base2, len2);
+        }
+
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            int[] a = this.a;
+            int[] tmp = ensureCapacity(len1);
+            m.copy(a, base1, tmp, 0, len1);
+
+            int cursor1 = 0, cursor2 = base2, dest = base1;
+            m.move(a, dest++, a[cursor2++]);
+            if (--len2 == 0) {
+                m.copy(tmp, cursor1, a, dest, len1);
+                return;
+            }
+            if (len1 == 1) {
+                m.copy(a, cursor2, a, dest, len2);
+                m.move(a, dest + len2, tmp[cursor1]);
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0, count2 = 0;
+                do {
+                    if (m.less(a[cursor2], tmp[cursor1])) {
+                        m.move(a, dest++, a[cursor2++]);
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 0) break outer;
+                    } else {
+                        m.move(a, dest++, tmp[cursor1++]);
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 1) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = gallopRight(a[cursor2], tmp, cursor1, len1, 0, m);
+                    if (count1 != 0) {
+                        m.copy(tmp, cursor1, a, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        len1 -= count1;
+                        if (len1 <= 1) break outer;
+                    }
+                    m.move(a, dest++, a[cursor2++]);
+                    if (--len2 == 0) break outer;
+
+                    count2 = gallopLeft(tmp[cursor1], a, cursor2, len2, 0, m);
+                    if (count2 != 0) {
+                        m.copy(a, cursor2, a, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        len2 -= count2;
+                        if (len2 == 0) break outer;
+                    }
+                    m.move(a, dest++, tmp[cursor1++]);
+                    if (--len1 == 1) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+            this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+            if (len1 == 1) {
+                m.copy(a, cursor2, a, dest, len2);
+                m.move(a, dest + len2, tmp[cursor1]);
+            } else {
+                m.copy(tmp, cursor1, a, dest, len1);
+            }
+        }
+
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            int[] a = this.a;
+            int[] tmp = ensureCapacity(len2);
+            m.copy(a, base2, tmp, 0, len2);
+
+            int cursor1 = base1 + len1 - 1, cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+            m.move(a, dest--, a[cursor1--]);
+            if (--len1 == 0) {
+                m.copy(tmp, 0, a, dest - (len2 - 1), len2);
+                return;
+            }
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                m.copy(a, cursor1 + 1, a, dest + 1, len1);
+                m.move(a, dest, tmp[cursor2]);
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0, count2 = 0;
+                do {
+                    if (m.less(tmp[cursor2], a[cursor1])) {
+                        m.move(a, dest--, a[cursor1--]);
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 0) break outer;
+                    } else {
+                        m.move(a, dest--, tmp[cursor2--]);
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 1) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = len1 - gallopRight(tmp[cursor2], a, base1, len1, len1 - 1, m);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        len1 -= count1;
+                        m.copy(a, cursor1 + 1, a, dest + 1, count1);
+                        if (len1 == 0) break outer;
+                    }
+                    m.move(a, dest--, tmp[cursor2--]);
+                    if (--len2 == 1) break outer;
+
+                    count2 = len2 - gallopLeft(a[cursor1], tmp, 0, len2, len2 - 1, m);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        len2 -= count2;
+                        m.copy(tmp, cursor2 + 1, a, dest + 1, count2);
+                        if (len2 <= 1) break outer;
+                    }
+                    m.move(a, dest--, a[cursor1--]);
+                    if (--len1 == 0) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+            this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                m.copy(a, cursor1 + 1, a, dest + 1, len1);
+                m.move(a, dest, tmp[cursor2]);
+            } else {
+                m.copy(tmp, 0, a, dest - (len2 - 1), len2);
+            }
+        }
+
+        private int[] ensureCapacity(int minCapacity) {
+            if (tmp.length < minCapacity) {
+                int newSize = Integer.highestOneBit(minCapacity) << 1;
+                if (newSize < 0) newSize = minCapacity;
+                else newSize = Math.min(newSize, a.length >>> 1);
+                tmp = m.newIntArray(newSize);
+            }
+            return tmp;
+        }
+    }
+}
+
+
+// ============================================================================
+// 3. ACTUAL vs THEORETICAL COST
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Divide the measured count by the complexity-table formula:
+ *   a flat ratio as n grows means the formula holds,
+ *   a growing ratio means the input hit a worse case
+ * - e.g. Merge Sort comparisons / (n log2 n) stays just under 1
+ *        Quick Sort on sorted input: comparisons / (n log2 n) keeps growing
+ *        → it is really n²/2 there
+ *
+ * SAMPLE OUTPUT:
+ * n=1024   Merge Sort           cmp/(n log n) =   0.96  comparisons=9,870 swaps=1,779
+ *          moves=12,288 maxDepth=7 allocated=26,592B
+ *          (the 16-element network base case: a few more comparisons,
+ *          far fewer moves and allocations than splitting down to 1)
+ * n=1024   Quick Sort (sorted)  cmp/(n log n) =  51.15  comparisons=523,776 ...
+ */
+class SortInstrumentationExample {
+    interface InstrumentedSort {
+        void sort(int[] arr, SortMetrics m);
+    }
+
+    static void report(String name, InstrumentedSort sort, int[] input, boolean quadratic) {
+        SortMetrics m = new SortMetrics();
+        int[] arr = input.clone();
+        sort.sort(arr, m);
+        int n = input.length;
+        double model = quadratic ? n * (double) n / 2 : n * (Math.log(n) / Math.log(2));
+        System.out.printf("n=%-6d %-20s cmp/%-9s = %6.2f  %s%n",
+            n, name, quadratic ? "(n^2/2)" : "(n log n)", m.comparisons / model, m);
+    }
+
+    public static void main(String[] args) {
+        java.util.Random rnd = new java.util.Random(1);
+        for (int n : new int[] {256, 1024, 4096}) {
+            int[] random = rnd.ints(n).toArray();
+            report("Bubble Sort", InstrumentedSorts::bubbleSort, random, true);
+            report("Selection Sort", InstrumentedSorts::selectionSort, random, true);
+            report("Insertion Sort", InstrumentedSorts::insertionSort, random, true);
+            report("Merge Sort", InstrumentedSorts::mergeSort, random, false);
+            report("Recursive Bubble", (a, m) -> InstrumentedSorts.recursiveBubbleSort(a, a.length, m), random, true);
+            report("Recursive Insert", (a, m) -> InstrumentedSorts.recursiveInsertionSort(a, a.length, m), random, true);
+            report("Quick Sort", InstrumentedSorts::quickSort, random, false);
+            report("Quick Sort 3-way", (a, m) -> InstrumentedSorts.quickSort(a, QuickSort.PartitionScheme.THREE_WAY, m), random, false);
+            report("Quick Sort 2-pivot", (a, m) -> InstrumentedSorts.quickSort(a, QuickSort.PartitionScheme.DUAL_PIVOT, m), random, false);
+            report("Intro Sort", InstrumentedSorts::introSort, random, false);
+            report("Radix Sort", InstrumentedSorts::radixSort, random, false);
+            report("TimSort", InstrumentedSorts::timSort, random, false);
+
+            int[] sorted = new int[n];
+            for (int i = 0; i < n; i++) sorted[i] = i;
+            report("Quick Sort (sorted)", InstrumentedSorts::quickSort, sorted, false);
+            report("Intro Sort (sorted)", InstrumentedSorts::introSort, sorted, false);
+            report("TimSort (sorted)", InstrumentedSorts::timSort, sorted, false);
+            System.out.println();
+        }
+    }
+}
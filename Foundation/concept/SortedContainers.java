@@ -0,0 +1,300 @@
+/*
+ * SORTED CONTAINERS - CONCEPT NOTES FOR REVISION
+ * ========================================================
+ * Keeping data sorted while it keeps arriving ("online sorting")
+ */
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+
+// ============================================================================
+// 1. PACKED MEMORY ARRAY (GAPPED SORTED ARRAY)
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Plain sorted array: O(log n) search, fastest possible scans, but an
+ *   insert shifts O(n) elements (Insertion Sort's inner loop, every time)
+ * - TreeSet: O(log n) insert, but one node object per key → pointer
+ *   chasing on every search and scan, ~40 bytes per int
+ * - PACKED MEMORY ARRAY: a sorted array with GAPS spread through it
+ *   → an insert only shifts elements up to the next gap
+ * - Array of capacity N split into segments of S ~ log2(N) slots; inside a
+ *   segment the keys are packed to the left, the gaps are at its end
+ * - Segments form an implicit binary tree of WINDOWS (2, 4, 8 ... segments)
+ *   each level has a density limit: 100% for one segment, 75% for the
+ *   whole array, interpolated in between
+ * - INSERT into a full segment: walk up to the smallest window that is
+ *   under its limit and spread its keys out evenly → gaps everywhere again
+ *   → whole array too dense: double the capacity
+ * - REMOVE mirrors it with lower limits (12.5% .. 25%), halving at the root
+ * - Search: binary search on the segments' first keys, then inside one
+ *   segment
+ * - Scans walk the array left to right: purely sequential memory access
+ *
+ * TIME COMPLEXITY:
+ * - contains: O(log n)
+ * - add / remove: O(log² n) amortized
+ * - forEach: O(n), sequential
+ *
+ * SPACE COMPLEXITY: O(n) - typically 1.3 to 4 slots per key (4 bytes each)
+ *
+ * EXAMPLE (S = 4, keys packed left, _ = gap):
+ * [1 4 _ _ | 9 _ _ _]   add(6) → [1 4 6 _ | 9 _ _ _]  (only 0 keys shifted)
+ *                        add(5) → [1 4 5 6 | 9 _ _ _]  (segment 0 now full)
+ * add(3): no gap in segment 0 → window of both segments: 5 keys + 1 new
+ *         fits 75% of 8 slots → spread: [1 4 5 _ | 6 9 _ _]
+ *         → insert:                    [1 3 4 5 | 6 9 _ _]
+ */
+class PackedMemoryArray {
+    private static final int MIN_SEGMENT_SIZE = 8;
+    // Density limits of a single segment (leaf) and of the whole array (root)
+    private static final double LEAF_UPPER = 1.0, ROOT_UPPER = 0.75;
+    private static final double LEAF_LOWER = 0.125, ROOT_LOWER = 0.25;
+
+    private int[] keys;          // segment s occupies [s * segmentSize, (s + 1) * segmentSize)
+    private int[] counts;        // keys in each segment, packed at its start
+    private int segmentSize;
+    private int segments;        // power of two
+    private int height;          // log2(segments)
+    private int size;
+
+    public PackedMemoryArray() {
+        resize(MIN_SEGMENT_SIZE);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int key) {
+        int seg = findSegment(key);
+        return indexIn(seg, key) >= 0;
+    }
+
+    // Adds key; returns false if it was already present (set semantics)
+    public boolean add(int key) {
+        int seg = findSegment(key);
+        int pos = indexIn(seg, key);
+        if (pos >= 0) return false;
+
+        if (counts[seg] == segmentSize) {
+            if (!rebalanceForInsert(seg)) {
+                resize(keys.length * 2);
+            }
+            seg = findSegment(key);
+            pos = indexIn(seg, key);
+        }
+        // Shift the segment's tail one slot right (at most S - 1 elements)
+        int insertAt = -(pos + 1);
+        int end = seg * segmentSize + counts[seg];
+        System.arraycopy(keys, insertAt, keys, insertAt + 1, end - insertAt);
+        keys[insertAt] = key;
+        counts[seg]++;
+        size++;
+        return true;
+    }
+
+    // Removes key; returns false if it was not present
+    public boolean remove(int key) {
+        int seg = findSegment(key);
+        int pos = indexIn(seg, key);
+        if (pos < 0) return false;
+
+        int end = seg * segmentSize + counts[seg];
+        System.arraycopy(keys, pos + 1, keys, pos, end - pos - 1);
+        counts[seg]--;
+        size--;
+
+        // Segments must never run empty (search relies on their first keys)
+        if (segments > 1 && counts[seg] < Math.max(1, (int) (LEAF_LOWER * segmentSize))) {
+            if (!rebalanceForRemove(seg)) {
+                resize(keys.length / 2);
+            }
+        }
+        return true;
+    }
+
+    public int first() {
+        if (size == 0) throw new NoSuchElementException();
+        return keys[0];
+    }
+
+    public int last() {
+        if (size == 0) throw new NoSuchElementException();
+        int seg = segments - 1;
+        while (counts[seg] == 0) seg--;
+        return keys[seg * segmentSize + counts[seg] - 1];
+    }
+
+    // In ascending order, one sequential pass over the array
+    public void forEach(IntConsumer action) {
+        for (int s = 0; s < segments; s++) {
+            int start = s * segmentSize;
+            for (int i = start, end = start + counts[s]; i < end; i++) {
+                action.accept(keys[i]);
+            }
+        }
+    }
+
+    public int[] toArray() {
+        int[] out = new int[size];
+        int n = 0;
+        for (int s = 0; s < segments; s++) {
+            System.arraycopy(keys, s * segmentSize, out, n, counts[s]);
+            n += counts[s];
+        }
+        return out;
+    }
+
+    // Last segment whose first key is <= key (segment 0 if none)
+    private int findSegment(int key) {
+        int lo = 0, hi = segments - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (keys[mid * segmentSize] <= key) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    // Index of key inside segment seg, or -(insertion point + 1)
+    private int indexIn(int seg, int key) {
+        int start = seg * segmentSize;
+        return Arrays.binarySearch(keys, start, start + counts[seg], key);
+    }
+
+    // Smallest window around seg that can take one more key, spread evenly;
+    // false if even the whole array is too dense
+    private boolean rebalanceForInsert(int seg) {
+        for (int level = 1; level <= height; level++) {
+            int width = 1 << level;
+            int from = seg & -width;
+            long count = countKeys(from, width);
+            // Under the density limit, and every segment keeps a free slot
+            if (count + 1 <= upperLimit(level) * width * segmentSize
+                    && count <= (long) width * (segmentSize - 1)) {
+                redistribute(from, width);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Smallest window around seg that is dense enough, spread evenly;
+    // false if the whole array is too sparse
+    private boolean rebalanceForRemove(int seg) {
+        for (int level = 1; level <= height; level++) {
+            int width = 1 << level;
+            int from = seg & -width;
+            long count = countKeys(from, width);
+            if (count >= lowerLimit(level) * width * segmentSize) {
+                redistribute(from, width);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Linear interpolation between leaf (level 0) and root (level = height)
+    private double upperLimit(int level) {
+        return LEAF_UPPER - (LEAF_UPPER - ROOT_UPPER) * level / height;
+    }
+
+    private double lowerLimit(int level) {
+        return LEAF_LOWER + (ROOT_LOWER - LEAF_LOWER) * level / height;
+    }
+
+    private long countKeys(int from, int width) {
+        long count = 0;
+        for (int s = from; s < from + width; s++) count += counts[s];
+        return count;
+    }
+
+    // Spreads the keys of segments [from, from + width) evenly, in place
+    private void redistribute(int from, int width) {
+        // 1. Pack every key of the window to its left end
+        int base = from * segmentSize;
+        int n = 0;
+        for (int s = from; s < from + width; s++) {
+            System.arraycopy(keys, s * segmentSize, keys, base + n, counts[s]);
+            n += counts[s];
+        }
+        // 2. Spread right to left: each segment's destination is at or right
+        //    of its packed source, so no key is overwritten before it moves
+        int per = n / width, extra = n % width;
+        int src = n;
+        for (int s = from + width - 1; s >= from; s--) {
+            int c = per + (s - from < extra ? 1 : 0);
+            src -= c;
+            System.arraycopy(keys, base + src, keys, s * segmentSize, c);
+            counts[s] = c;
+        }
+    }
+
+    // New capacity (power of two), keys spread evenly over all segments
+    private void resize(int capacity) {
+        int[] old = keys == null ? new int[0] : toArray();
+        segmentSize = segmentSizeFor(capacity);
+        // Every segment needs at least one key (a smaller S can mean more segments)
+        while (capacity > MIN_SEGMENT_SIZE && old.length < capacity / segmentSize) {
+            capacity >>= 1;
+            segmentSize = segmentSizeFor(capacity);
+        }
+        segments = capacity / segmentSize;
+        height = 31 - Integer.numberOfLeadingZeros(segments);
+        keys = new int[capacity];
+        counts = new int[segments];
+
+        int per = old.length / segments, extra = old.length % segments;
+        int src = 0;
+        for (int s = 0; s < segments; s++) {
+            int c = per + (s < extra ? 1 : 0);
+            System.arraycopy(old, src, keys, s * segmentSize, c);
+            counts[s] = c;
+            src += c;
+        }
+    }
+
+    // ~log2(capacity), rounded down to a power of two
+    private static int segmentSizeFor(int capacity) {
+        int log = 31 - Integer.numberOfLeadingZeros(capacity);
+        return Math.min(capacity, Math.max(MIN_SEGMENT_SIZE, Integer.highestOneBit(log)));
+    }
+
+    public static void main(String[] args) {
+        PackedMemoryArray pma = new PackedMemoryArray();
+        for (int x : new int[] {50, 20, 90, 10, 70, 30, 80, 60, 40, 20}) pma.add(x);
+        pma.remove(90);
+        System.out.println("PMA: " + Arrays.toString(pma.toArray())
+            + " contains(70) = " + pma.contains(70));
+        // Output: PMA: [10, 20, 30, 40, 50, 60, 70, 80] contains(70) = true
+
+        // 1M random inserts, then one full scan: PMA vs TreeSet
+        int n = 1_000_000;
+        int[] data = new Random(42).ints(n).toArray();
+
+        long start = System.nanoTime();
+        PackedMemoryArray big = new PackedMemoryArray();
+        for (int x : data) big.add(x);
+        long[] sum = {0};
+        big.forEach(x -> sum[0] += x);
+        long pmaMs = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        TreeSet<Integer> tree = new TreeSet<>();
+        for (int x : data) tree.add(x);
+        long treeSum = 0;
+        for (int x : tree) treeSum += x;
+        long treeMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("1M inserts + scan: PMA " + pmaMs + " ms, TreeSet " + treeMs
+            + " ms, same result: " + (sum[0] == treeSum));
+        // Output: 1M inserts + scan: PMA ... ms, TreeSet ... ms, same result: true
+    }
+}
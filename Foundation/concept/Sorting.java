@@ -147,7 +147,21 @@ class InsertionSort {
             arr[j + 1] = key;
         }
     }
-    
+
+    // Range version: sorts arr[low..high] (both inclusive)
+    // Used as the base case of the hybrid sorts below
+    public static void insertionSort(int[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            int key = arr[i];
+            int j = i - 1;
+            while (j >= low && arr[j] > key) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = key;
+        }
+    }
+
     public static void main(String[] args) {
         int[] arr = {64, 34, 25, 12, 22};
         insertionSort(arr);
@@ -167,6 +181,9 @@ class InsertionSort {
  * - Stable sort (maintains relative order of equal elements)
  * - Efficient for large datasets
  * - Requires additional space for merging
+ * - Halves of <= 16 elements are not split further: a sorting network
+ *   (SmallSort, section 12) finishes them with no data-dependent branches
+ *   and no more copying (not stable, but equal ints are indistinguishable)
  * 
  * TIME COMPLEXITY:
  * - Best: O(n log n)
@@ -184,7 +201,10 @@ class InsertionSort {
  */
 class MergeSort {
     public static void mergeSort(int[] arr) {
-        if (arr.length <= 1) return;
+        if (arr.length <= SmallSort.MAX_NETWORK_SIZE) {
+            SmallSort.networkSort(arr, 0, arr.length);
+            return;
+        }
         int mid = arr.length / 2;
         
         // Create left and right subarrays
@@ -345,6 +365,8 @@ class RecursiveInsertionSort {
  * - Best: O(n log n) - well-balanced partitions
  * - Average: O(n log n)
  * - Worst: O(n²) - when pivot is smallest/largest (rare with good pivot selection)
+ *   (this version always picks arr[high], so sorted input IS the worst case;
+ *    see IntroSort below for a version that cannot go quadratic)
  * 
  * SPACE COMPLEXITY: O(log n) - call stack depth
  * 
@@ -353,12 +375,47 @@ class RecursiveInsertionSort {
  * Pivot: 64
  * Partition: [34, 25, 12, 22] | 64 | []
  * Continue recursively on subarrays
+ *
+ * PARTITION SCHEMES (selectable with PartitionScheme):
+ * - LOMUTO (default): one pivot, strict arr[j] < pivot test
+ *   → all keys equal to the pivot go right; many duplicates = O(n²)
+ * - THREE_WAY (Dutch national flag): splits into < pivot | == pivot | > pivot
+ *   → the == block is final and never recursed into
+ *   → O(n) when all keys are equal, O(n log k) for k distinct keys
+ * - DUAL_PIVOT (Yaroslavskiy): two pivots p1 <= p2 give three parts
+ *   < p1 | p1..p2 | > p2; keys equal to p1/p2 are then swept to the edges
+ *   of the middle part so only p1 < x < p2 is recursed into
+ * - THREE_WAY and DUAL_PIVOT recurse into the smaller part(s) and loop on
+ *   the largest (O(log n) stack), and switch to Heap Sort after
+ *   2*log2(n) levels like IntroSort → O(n log n) worst case even on
+ *   adversarial ("antiqsort") input, where the ninther alone does not help
+ *
+ * Array: [2, 1, 2, 0, 2, 1, 2], THREE_WAY with pivot 2
+ * Partition: [1, 0, 1] | [2, 2, 2, 2] | []  → only [1, 0, 1] recursed
  */
 class QuickSort {
+    enum PartitionScheme { LOMUTO, THREE_WAY, DUAL_PIVOT }
+
+    // Ranges up to this size are finished with a sorting network (SmallSort)
+    // (THREE_WAY and DUAL_PIVOT only; LOMUTO is kept as the textbook version)
+    private static final int SMALL_THRESHOLD = SmallSort.MAX_NETWORK_SIZE;
+    private static final int NINTHER_THRESHOLD = 128;
+
     public static void quickSort(int[] arr) {
         if (arr.length == 0) return;
         quickSort(arr, 0, arr.length - 1);
     }
+
+    public static void quickSort(int[] arr, PartitionScheme scheme) {
+        if (arr.length == 0) return;
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(arr.length));
+        switch (scheme) {
+            case LOMUTO:     quickSort(arr, 0, arr.length - 1); break;
+            case THREE_WAY:  threeWayQuickSort(arr, 0, arr.length - 1, depthLimit); break;
+            case DUAL_PIVOT: dualPivotQuickSort(arr, 0, arr.length - 1, depthLimit); break;
+            default: throw new IllegalArgumentException("Unknown scheme: " + scheme);
+        }
+    }
     
     private static void quickSort(int[] arr, int low, int high) {
         if (low < high) {
@@ -394,107 +451,2241 @@ class QuickSort {
         
         return i + 1;
     }
-    
+
+    // Sorts arr[low..high]: recurses into the smaller side, loops on the
+    // larger, and hands the range to Heap Sort once depthLimit runs out
+    private static void threeWayQuickSort(int[] arr, int low, int high, int depthLimit) {
+        while (high - low + 1 > SMALL_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(arr, low, high);
+                return;
+            }
+            int pivot = arr[choosePivot(arr, low, high)];
+
+            // Invariant: [low..lt-1] < pivot, [lt..i-1] == pivot, [gt+1..high] > pivot
+            int lt = low, i = low, gt = high;
+            while (i <= gt) {
+                if (arr[i] < pivot) {
+                    swap(arr, lt++, i++);
+                } else if (arr[i] > pivot) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            // [lt..gt] holds every key equal to the pivot: already in place
+            if (lt - low < high - gt) {
+                threeWayQuickSort(arr, low, lt - 1, depthLimit);
+                low = gt + 1;
+            } else {
+                threeWayQuickSort(arr, gt + 1, high, depthLimit);
+                high = lt - 1;
+            }
+        }
+        SmallSort.sort(arr, low, high + 1);
+    }
+
+    private static void dualPivotQuickSort(int[] arr, int low, int high, int depthLimit) {
+        while (high - low + 1 > SMALL_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(arr, low, high);
+                return;
+            }
+            // Pivots from the thirds of the range (not the ends) so that
+            // sorted input still splits evenly
+            int third = (high - low + 1) / 3;
+            swap(arr, low, low + third);
+            swap(arr, high, high - third);
+            if (arr[low] > arr[high]) swap(arr, low, high);
+            int p1 = arr[low], p2 = arr[high];
+
+            // Invariant: [low+1..lt-1] < p1, [lt..i-1] in [p1, p2], [gt+1..high-1] > p2
+            int lt = low + 1, i = low + 1, gt = high - 1;
+            while (i <= gt) {
+                if (arr[i] < p1) {
+                    swap(arr, lt++, i++);
+                } else if (arr[i] > p2) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            // Move the pivots into their final positions
+            swap(arr, low, --lt);
+            swap(arr, high, ++gt);
+
+            // Sweep keys equal to p1 / p2 to the edges of the middle part
+            int l = lt + 1, g = gt - 1;
+            if (p1 == p2) {
+                g = l - 1;   // the whole middle part equals the pivot
+            } else {
+                int k = l;
+                while (k <= g) {
+                    if (arr[k] == p1) {
+                        swap(arr, l++, k++);
+                    } else if (arr[k] == p2) {
+                        swap(arr, k, g--);
+                    } else {
+                        k++;
+                    }
+                }
+            }
+
+            // Unsorted: [low..lt-1] < p1, [l..g] strictly between, [gt+1..high] > p2
+            // Recurse into the two smaller parts, loop on the largest
+            int left = lt - low, middle = g - l + 1, right = high - gt;
+            if (left >= middle && left >= right) {
+                dualPivotQuickSort(arr, l, g, depthLimit);
+                dualPivotQuickSort(arr, gt + 1, high, depthLimit);
+                high = lt - 1;
+            } else if (middle >= right) {
+                dualPivotQuickSort(arr, low, lt - 1, depthLimit);
+                dualPivotQuickSort(arr, gt + 1, high, depthLimit);
+                low = l;
+                high = g;
+            } else {
+                dualPivotQuickSort(arr, low, lt - 1, depthLimit);
+                dualPivotQuickSort(arr, l, g, depthLimit);
+                low = gt + 1;
+            }
+        }
+        SmallSort.sort(arr, low, high + 1);
+    }
+
+    // Depth-limit fallback: in-place Heap Sort of arr[low..high]
+    private static void heapSort(int[] arr, int low, int high) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(arr, low, i, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(arr, low, low + end);
+            siftDown(arr, low, 0, end);
+        }
+    }
+
+    // Max-heap of size n stored at arr[offset..offset+n-1]
+    private static void siftDown(int[] arr, int offset, int i, int n) {
+        int value = arr[offset + i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) break;
+            if (child + 1 < n && arr[offset + child + 1] > arr[offset + child]) child++;
+            if (arr[offset + child] <= value) break;
+            arr[offset + i] = arr[offset + child];
+            i = child;
+        }
+        arr[offset + i] = value;
+    }
+
+    // Median of three for small ranges, Tukey's ninther for large ones
+    // (the 3-way sweep rotates the > pivot block, so sorted and organ-pipe
+    // input would otherwise keep producing bad median-of-three pivots)
+    private static int choosePivot(int[] arr, int low, int high) {
+        int mid = (low + high) >>> 1;
+        int n = high - low + 1;
+        if (n < NINTHER_THRESHOLD) {
+            return medianOfThree(arr, low, mid, high);
+        }
+        // ~n/7 rather than n/8: a power-of-two step lands on the same value
+        // again and again in periodic (sawtooth) input
+        int step = (n >>> 3) + (n >>> 6) + 1;
+        int m1 = medianOfThree(arr, low, low + step, low + 2 * step);
+        int m2 = medianOfThree(arr, mid - step, mid, mid + step);
+        int m3 = medianOfThree(arr, high - 2 * step, high - step, high);
+        return medianOfThree(arr, m1, m2, m3);
+    }
+
+    // Index of the median of arr[a], arr[b], arr[c]
+    private static int medianOfThree(int[] arr, int a, int b, int c) {
+        if (arr[a] < arr[b]) {
+            if (arr[b] < arr[c]) return b;
+            return arr[a] < arr[c] ? c : a;
+        } else {
+            if (arr[a] < arr[c]) return a;
+            return arr[b] < arr[c] ? c : b;
+        }
+    }
+
+    private static void swap(int[] arr, int i, int j) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
     public static void main(String[] args) {
         int[] arr = {64, 34, 25, 12, 22};
         quickSort(arr);
         System.out.println("Quick Sort: " + java.util.Arrays.toString(arr));
         // Output: [12, 22, 25, 34, 64]
+
+        int[] dups = {2, 1, 2, 0, 2, 1, 2};
+        quickSort(dups, PartitionScheme.THREE_WAY);
+        System.out.println("Quick Sort (3-way): " + java.util.Arrays.toString(dups));
+        // Output: [0, 1, 1, 2, 2, 2, 2]
+
+        int[] dups2 = {5, 3, 5, 1, 3, 5, 1, 3};
+        quickSort(dups2, PartitionScheme.DUAL_PIVOT);
+        System.out.println("Quick Sort (dual-pivot): " + java.util.Arrays.toString(dups2));
+        // Output: [1, 1, 3, 3, 3, 5, 5, 5]
     }
 }
 
 
 // ============================================================================
-// SORTING ALGORITHMS QUICK COMPARISON
+// 8. PARALLEL MERGE SORT (FORK/JOIN)
 // ============================================================================
+/*
+ * CONCEPT:
+ * - Merge sort split across cores with ForkJoinPool / RecursiveAction
+ * - Left and right halves are sorted in parallel, then merged
+ * - ONE auxiliary buffer is allocated up front (not a new array per level)
+ * - Ping-pong: each level sorts its halves INTO the other array and merges
+ *   back, so no level ever copies data just to make room for merging
+ * - Small ranges (<= cutoff) are finished with Insertion Sort
+ * - Big merges are parallel too: take the middle of the larger run,
+ *   binary search its position in the other run, and merge both sides
+ *   independently -> the final merge is not a single-threaded bottleneck
+ * - Stable sort
+ *
+ * TIME COMPLEXITY:
+ * - Work: O(n log n) in all cases
+ * - Span (with parallel merge): O(log³ n)
+ *
+ * SPACE COMPLEXITY: O(n) - one buffer for the whole sort
+ *
+ * EXAMPLE:
+ * Array: [64, 34, 25, 12, 22, 11, 90, 5]
+ * Fork:  [64, 34, 25, 12] || [22, 11, 90, 5]   (sorted on different threads)
+ * Join:  [12, 25, 34, 64]    [5, 11, 22, 90]
+ * Merge: [5, 11, 12, 22, 25, 34, 64, 90]
+ */
+class ParallelMergeSort {
+    // Ranges up to this size are finished with Insertion Sort
+    static final int DEFAULT_CUTOFF = 32;
+    // Below this size a task recurses sequentially instead of forking
+    private static final int FORK_THRESHOLD = 1 << 13;
+    // Below this size a merge is done sequentially
+    private static final int MERGE_THRESHOLD = 1 << 14;
+
+    public static void parallelMergeSort(int[] arr) {
+        parallelMergeSort(arr, DEFAULT_CUTOFF);
+    }
+
+    public static void parallelMergeSort(int[] arr, int cutoff) {
+        parallelMergeSort(arr, cutoff, java.util.concurrent.ForkJoinPool.commonPool());
+    }
+
+    // Runs the fork/join tasks in the given pool instead of the common pool
+    public static void parallelMergeSort(int[] arr, int cutoff, java.util.concurrent.ForkJoinPool pool) {
+        if (cutoff < 1) throw new IllegalArgumentException("cutoff must be >= 1: " + cutoff);
+        if (arr.length <= 1) return;
+        if (arr.length <= cutoff) {
+            InsertionSort.insertionSort(arr, 0, arr.length - 1);
+            return;
+        }
+        // The single scratch buffer; starts as a copy so both arrays hold
+        // the original data of every range that has not been touched yet
+        int[] buf = arr.clone();
+        pool.invoke(new SortTask(buf, arr, 0, arr.length, cutoff));
+    }
+
+    // Sorts src[lo, hi) and leaves the result in dst[lo, hi)
+    private static final class SortTask extends java.util.concurrent.RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src, dst;
+        private final int lo, hi, cutoff;
+
+        SortTask(int[] src, int[] dst, int lo, int hi, int cutoff) {
+            this.src = src;
+            this.dst = dst;
+            this.lo = lo;
+            this.hi = hi;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= FORK_THRESHOLD) {
+                sortSequential(src, dst, lo, hi, cutoff);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            // Roles swap: halves are sorted into src, then merged into dst
+            invokeAll(new SortTask(dst, src, lo, mid, cutoff),
+                      new SortTask(dst, src, mid, hi, cutoff));
+            new MergeTask(src, lo, mid, mid, hi, dst, lo).compute();
+        }
+    }
+
+    private static void sortSequential(int[] src, int[] dst, int lo, int hi, int cutoff) {
+        if (hi - lo <= cutoff) {
+            // Untouched range: dst still holds the original data
+            InsertionSort.insertionSort(dst, lo, hi - 1);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        sortSequential(dst, src, lo, mid, cutoff);
+        sortSequential(dst, src, mid, hi, cutoff);
+        // Already in order? Just move the block across
+        if (src[mid - 1] <= src[mid]) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            return;
+        }
+        mergeSequential(src, lo, mid, mid, hi, dst, lo);
+    }
+
+    // Merges src[lo1, hi1) and src[lo2, hi2) into dst starting at k
+    private static void mergeSequential(int[] src, int lo1, int hi1, int lo2, int hi2,
+                                        int[] dst, int k) {
+        while (lo1 < hi1 && lo2 < hi2) {
+            // <= keeps equal elements in their original order (stable)
+            dst[k++] = src[lo1] <= src[lo2] ? src[lo1++] : src[lo2++];
+        }
+        System.arraycopy(src, lo1, dst, k, hi1 - lo1);
+        k += hi1 - lo1;
+        System.arraycopy(src, lo2, dst, k, hi2 - lo2);
+    }
+
+    private static final class MergeTask extends java.util.concurrent.RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src, dst;
+        private final int lo1, hi1, lo2, hi2, k;
+
+        MergeTask(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int k) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.k = k;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = hi1 - lo1, n2 = hi2 - lo2;
+            if (n1 + n2 <= MERGE_THRESHOLD) {
+                mergeSequential(src, lo1, hi1, lo2, hi2, dst, k);
+                return;
+            }
+            int split1, split2;
+            if (n1 >= n2) {
+                // Split the left run in the middle; left-run elements go
+                // before equal right-run elements, so use lower bound
+                split1 = (lo1 + hi1) >>> 1;
+                split2 = lowerBound(src, lo2, hi2, src[split1]);
+            } else {
+                split2 = (lo2 + hi2) >>> 1;
+                split1 = upperBound(src, lo1, hi1, src[split2]);
+            }
+            int k2 = k + (split1 - lo1) + (split2 - lo2);
+            invokeAll(new MergeTask(src, lo1, split1, lo2, split2, dst, k),
+                      new MergeTask(src, split1, hi1, split2, hi2, dst, k2));
+        }
+    }
+
+    // First index in [lo, hi) with arr[i] >= key
+    private static int lowerBound(int[] arr, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // First index in [lo, hi) with arr[i] > key
+    private static int upperBound(int[] arr, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] <= key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    public static void main(String[] args) {
+        int[] arr = {64, 34, 25, 12, 22, 11, 90, 5};
+        parallelMergeSort(arr);
+        System.out.println("Parallel Merge Sort: " + java.util.Arrays.toString(arr));
+        // Output: [5, 11, 12, 22, 25, 34, 64, 90]
+    }
+}
 
+
+// ============================================================================
+// 9. INTROSORT (INTROSPECTIVE QUICK SORT)
+// ============================================================================
 /*
-╔═════════════════════════════════════════════════════════════════════════════╗
-║                    SORTING ALGORITHMS - QUICK RECAP                        ║
-╚═════════════════════════════════════════════════════════════════════════════╝
+ * CONCEPT:
+ * - Quick Sort that watches its own recursion depth
+ * - Pivot = median-of-three (small ranges) or Tukey's ninther
+ *   (median of three medians-of-three) for large ranges
+ *   → sorted / reverse-sorted input no longer picks the worst pivot
+ * - Recurse on the SMALLER side, loop on the larger one
+ *   → stack depth is at most log2(n), no StackOverflowError
+ * - If depth exceeds 2*log2(n), switch that range to Heap Sort
+ *   → worst case is capped at O(n log n)
+ * - Ranges of <= 16 elements are finished with a sorting network
+ *   (SmallSort, section 12): no mispredicted branches
+ * - NOT stable
+ *
+ * TIME COMPLEXITY:
+ * - Best: O(n log n)
+ * - Average: O(n log n)
+ * - Worst: O(n log n) - heap sort fallback
+ *
+ * SPACE COMPLEXITY: O(log n) - smaller side recursion only
+ *
+ * EXAMPLE:
+ * Array: [1, 2, 3, 4, 5, 6, 7, 8, 9] (already sorted)
+ * Lomuto picks 9 → [1..8] | 9 | []        (n levels deep)
+ * Median-of-three picks median(1, 5, 9) = 5
+ *          → [1..4] | 5 | [6..9]           (log n levels deep)
+ */
+class IntroSort {
+    private static final int SMALL_THRESHOLD = SmallSort.MAX_NETWORK_SIZE;
+    private static final int NINTHER_THRESHOLD = 128;
 
-ALGORITHM              TIME COMPLEXITY          SPACE    STABLE  BEST FOR
-                   BEST       AVG       WORST    COMP
-─────────────────────────────────────────────────────────────────────────────
-Bubble Sort        O(n)       O(n²)     O(n²)    O(1)     YES     Educational
-Selection Sort     O(n²)      O(n²)     O(n²)    O(1)     NO      Small datasets
-Insertion Sort     O(n)       O(n²)     O(n²)    O(1)     YES     Small/nearly sorted
-Merge Sort         O(n log n) O(n log n) O(n log n) O(n)  YES     Large datasets
-Recursive Bubble   O(n)       O(n²)     O(n²)    O(n)     YES     Educational
-Recursive Insert   O(n)       O(n²)     O(n²)    O(n)     YES     Educational
-Quick Sort         O(n log n) O(n log n) O(n²)   O(log n) NO      General purpose
+    public static void introSort(int[] arr) {
+        if (arr.length <= 1) return;
+        introSort(arr, 0, arr.length - 1);
+    }
 
-╔═════════════════════════════════════════════════════════════════════════════╗
-║                         KEY CHARACTERISTICS                                 ║
-╚═════════════════════════════════════════════════════════════════════════════╝
+    // Sorts arr[low..high] (both inclusive)
+    public static void introSort(int[] arr, int low, int high) {
+        if (low >= high) return;
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(high - low + 1));
+        introSort(arr, low, high, depthLimit);
+    }
 
-1. BUBBLE SORT
-   ├─ Compares adjacent elements
-   ├─ Stable and in-place
-   ├─ Optimization: break if no swaps
-   └─ Use: Learning, small arrays
+    private static void introSort(int[] arr, int low, int high, int depthLimit) {
+        while (high - low + 1 > SMALL_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                // Too many bad pivots: guaranteed O(n log n) from here
+                heapSort(arr, low, high);
+                return;
+            }
+            int p = partition(arr, low, high);
 
-2. SELECTION SORT
-   ├─ Finds and places minimum
-   ├─ Not stable, in-place
-   ├─ Consistent O(n²) performance
-   └─ Use: When memory is critical
+            // Recurse into the smaller part, loop on the larger part
+            if (p - low < high - p) {
+                introSort(arr, low, p, depthLimit);
+                low = p + 1;
+            } else {
+                introSort(arr, p + 1, high, depthLimit);
+                high = p;
+            }
+        }
+        SmallSort.sort(arr, low, high + 1);
+    }
 
-3. INSERTION SORT
-   ├─ Builds sorted array incrementally
-   ├─ Stable and in-place
-   ├─ O(n) for nearly sorted data
-   └─ Use: Small arrays, online sorting
+    // Hoare partition around the chosen pivot
+    // Returns p such that arr[low..p] <= pivot <= arr[p+1..high]
+    private static int partition(int[] arr, int low, int high) {
+        // Move pivot to the front so that low <= p < high always holds
+        swap(arr, low, choosePivot(arr, low, high));
+        int pivot = arr[low];
+        int i = low - 1, j = high + 1;
+        while (true) {
+            // Stopping on equal keys keeps partitions balanced for duplicates
+            do { i++; } while (arr[i] < pivot);
+            do { j--; } while (arr[j] > pivot);
+            if (i >= j) return j;
+            swap(arr, i, j);
+        }
+    }
 
-4. MERGE SORT
-   ├─ Divide and conquer approach
-   ├─ Stable, requires O(n) space
-   ├─ Guaranteed O(n log n)
-   └─ Use: Large datasets, consistent performance
+    private static int choosePivot(int[] arr, int low, int high) {
+        int mid = (low + high) >>> 1;
+        int n = high - low + 1;
+        if (n < NINTHER_THRESHOLD) {
+            return medianOfThree(arr, low, mid, high);
+        }
+        // Tukey's ninther: median of three medians-of-three
+        int step = n / 8;
+        int m1 = medianOfThree(arr, low, low + step, low + 2 * step);
+        int m2 = medianOfThree(arr, mid - step, mid, mid + step);
+        int m3 = medianOfThree(arr, high - 2 * step, high - step, high);
+        return medianOfThree(arr, m1, m2, m3);
+    }
 
-5. RECURSIVE BUBBLE SORT
-   ├─ Bubble sort using recursion
-   ├─ Stable, uses O(n) stack space
-   ├─ Same time complexity as iterative
-   └─ Use: Understanding recursion
+    // Index of the median of arr[a], arr[b], arr[c]
+    private static int medianOfThree(int[] arr, int a, int b, int c) {
+        if (arr[a] < arr[b]) {
+            if (arr[b] < arr[c]) return b;
+            return arr[a] < arr[c] ? c : a;
+        } else {
+            if (arr[a] < arr[c]) return a;
+            return arr[b] < arr[c] ? c : b;
+        }
+    }
 
-6. RECURSIVE INSERTION SORT
-   ├─ Insertion sort using recursion
-   ├─ Stable, uses O(n) stack space
-   ├─ Elegant recursive pattern
-   └─ Use: Understanding recursion
+    // In-place heap sort of arr[low..high]
+    private static void heapSort(int[] arr, int low, int high) {
+        int n = high - low + 1;
+        // Build max-heap
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, low, i, n);
+        }
+        // Repeatedly move max to the end
+        for (int end = n - 1; end > 0; end--) {
+            swap(arr, low, low + end);
+            siftDown(arr, low, 0, end);
+        }
+    }
 
-7. QUICK SORT
-   ├─ Divide and conquer with partitioning
-   ├─ Not stable, uses O(log n) stack space
-   ├─ O(n log n) average, O(n²) worst case
-   └─ Use: General-purpose, industrial standard
+    // Heap of size n stored at arr[offset..offset+n-1]
+    private static void siftDown(int[] arr, int offset, int i, int n) {
+        int value = arr[offset + i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) break;
+            if (child + 1 < n && arr[offset + child + 1] > arr[offset + child]) child++;
+            if (arr[offset + child] <= value) break;
+            arr[offset + i] = arr[offset + child];
+            i = child;
+        }
+        arr[offset + i] = value;
+    }
 
-╔═════════════════════════════════════════════════════════════════════════════╗
-║                      WHEN TO USE WHICH ALGORITHM                           ║
-╚═════════════════════════════════════════════════════════════════════════════╝
+    private static void swap(int[] arr, int i, int j) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
 
-Small Dataset (< 50 elements)?
-  → Use Insertion Sort (O(n) best case, simple implementation)
+    public static void main(String[] args) {
+        int[] arr = {64, 34, 25, 12, 22, 11, 90, 5};
+        introSort(arr);
+        System.out.println("Intro Sort: " + java.util.Arrays.toString(arr));
+        // Output: [5, 11, 12, 22, 25, 34, 64, 90]
 
-Large Dataset?
-  → Merge Sort (guaranteed O(n log n), stable)
-  → Quick Sort (average O(n log n), widely used)
+        // Sorted input of 1M elements: plain QuickSort overflows the stack here
+        int[] sorted = new int[1_000_000];
+        for (int i = 0; i < sorted.length; i++) sorted[i] = i;
+        introSort(sorted);
+        System.out.println("Sorted 1M input: OK");
+    }
+}
 
-Need Stable Sort?
-  → Bubble Sort, Insertion Sort, Merge Sort
 
-Memory Critical?
-  → Selection Sort, Bubble Sort (O(1) space)
+// ============================================================================
+// 10. RADIX SORT (LSD)
+// ============================================================================
+/*
+ * CONCEPT:
+ * - NOT comparison based: sorts by digits, least significant digit first
+ * - Each pass is a stable counting sort on one digit:
+ *   count digits → prefix sum → scatter into a second array
+ * - int keys: 4 passes of 8-bit digits (256 buckets, fits in L1 cache)
+ * - long keys: 6 passes of 11-bit digits (2048 buckets)
+ * - Signed keys: flip the sign bit before taking digits so negatives
+ *   sort before positives (-5 → 0x7FFFFFFB, 5 → 0x80000005)
+ * - Skip trivial digits: if every key has the same digit in a pass
+ *   (e.g. small values → top bytes all equal) the pass does nothing → skip
+ * - All histograms are built in ONE read pass up front
+ * - Parallel mode: each worker counts its own chunk, the per-chunk
+ *   histograms are prefix-summed in (digit, chunk) order, then each worker
+ *   scatters its chunk to disjoint slots - stable, no locks
+ * - ONE scratch buffer, ping-ponged between passes
+ * - Stable sort
+ *
+ * TIME COMPLEXITY:
+ * - O(d * (n + b)) where d = number of digits, b = buckets per digit
+ * - For fixed-width keys: O(n) in all cases
+ *
+ * SPACE COMPLEXITY: O(n + b) - scratch buffer + histograms
+ *
+ * EXAMPLE (decimal digits for readability):
+ * Array:        [170, 45, 75, 90, 802, 24, 2, 66]
+ * By 1s digit:  [170, 90, 802, 2, 24, 45, 75, 66]
+ * By 10s digit: [802, 2, 24, 45, 66, 170, 75, 90]
+ * By 100s:      [2, 24, 45, 66, 75, 90, 170, 802]
+ */
+class RadixSort {
+    private static final int INT_BITS = 8;
+    private static final int INT_RADIX = 1 << INT_BITS;
+    private static final int INT_MASK = INT_RADIX - 1;
+    private static final int INT_PASSES = 4;
 
-Already Nearly Sorted?
-  → Insertion Sort (O(n) best case)
+    private static final int LONG_BITS = 11;
+    private static final int LONG_RADIX = 1 << LONG_BITS;
+    private static final int LONG_MASK = LONG_RADIX - 1;
+    private static final int LONG_PASSES = 6;
 
-Need Best Average Performance?
-  → Quick Sort (O(n log n) average, faster in practice)
+    // Small arrays: counting overhead is not worth it
+    private static final int INSERTION_THRESHOLD = 64;
+    // Below this size the parallel version runs sequentially
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    // ---------------------------- int[] ----------------------------
+
+    public static void radixSort(int[] arr) {
+        int n = arr.length;
+        if (n <= INSERTION_THRESHOLD) {
+            InsertionSort.insertionSort(arr, 0, n - 1);
+            return;
+        }
+        // One read pass builds the histogram of every digit
+        int[][] counts = new int[INT_PASSES][INT_RADIX];
+        for (int x : arr) {
+            int key = x ^ Integer.MIN_VALUE;
+            counts[0][key & INT_MASK]++;
+            counts[1][(key >>> 8) & INT_MASK]++;
+            counts[2][(key >>> 16) & INT_MASK]++;
+            counts[3][key >>> 24]++;
+        }
+
+        int[] src = arr, dst = null;
+        for (int pass = 0; pass < INT_PASSES; pass++) {
+            int shift = pass * INT_BITS;
+            int[] count = counts[pass];
+            // Every key has the same digit → this pass would not move anything
+            if (count[((src[0] ^ Integer.MIN_VALUE) >>> shift) & INT_MASK] == n) continue;
+            if (dst == null) dst = new int[n];
+
+            // Counts → starting offset of each bucket
+            int sum = 0;
+            for (int d = 0; d < INT_RADIX; d++) {
+                int c = count[d];
+                count[d] = sum;
+                sum += c;
+            }
+            // Stable scatter
+            for (int i = 0; i < n; i++) {
+                int x = src[i];
+                dst[count[((x ^ Integer.MIN_VALUE) >>> shift) & INT_MASK]++] = x;
+            }
+            int[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+        // Odd number of passes: result lives in the scratch buffer
+        if (src != arr) System.arraycopy(src, 0, arr, 0, n);
+    }
+
+    public static void parallelRadixSort(int[] arr) {
+        int n = arr.length;
+        int chunks = Math.min(java.util.concurrent.ForkJoinPool.getCommonPoolParallelism(),
+                              n / PARALLEL_THRESHOLD);
+        if (chunks <= 1) {
+            radixSort(arr);
+            return;
+        }
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[][] hist = new int[chunks][INT_RADIX];
+        int[] src = arr, dst = new int[n];
+
+        for (int pass = 0; pass < INT_PASSES; pass++) {
+            int shift = pass * INT_BITS;
+            final int[] from = src;
+
+            // 1. Each worker counts digits of its own chunk
+            java.util.stream.IntStream.range(0, chunks).parallel().forEach(c -> {
+                int[] h = hist[c];
+                java.util.Arrays.fill(h, 0);
+                int end = Math.min(n, (c + 1) * chunkSize);
+                for (int i = c * chunkSize; i < end; i++) {
+                    h[((from[i] ^ Integer.MIN_VALUE) >>> shift) & INT_MASK]++;
+                }
+            });
+
+            // 2. Prefix sum in (digit, chunk) order → disjoint output slots
+            int first = ((src[0] ^ Integer.MIN_VALUE) >>> shift) & INT_MASK;
+            int firstTotal = 0;
+            for (int c = 0; c < chunks; c++) firstTotal += hist[c][first];
+            if (firstTotal == n) continue;   // trivial digit
+            int sum = 0;
+            for (int d = 0; d < INT_RADIX; d++) {
+                for (int c = 0; c < chunks; c++) {
+                    int count = hist[c][d];
+                    hist[c][d] = sum;
+                    sum += count;
+                }
+            }
+
+            // 3. Each worker scatters its chunk
+            final int[] to = dst;
+            java.util.stream.IntStream.range(0, chunks).parallel().forEach(c -> {
+                int[] offset = hist[c];
+                int end = Math.min(n, (c + 1) * chunkSize);
+                for (int i = c * chunkSize; i < end; i++) {
+                    int x = from[i];
+                    to[offset[((x ^ Integer.MIN_VALUE) >>> shift) & INT_MASK]++] = x;
+                }
+            });
+            src = to;
+            dst = from;
+        }
+        if (src != arr) System.arraycopy(src, 0, arr, 0, n);
+    }
+
+    // ---------------------------- long[] ----------------------------
+
+    public static void radixSort(long[] arr) {
+        int n = arr.length;
+        if (n <= INSERTION_THRESHOLD) {
+            insertionSort(arr, 0, n - 1);
+            return;
+        }
+        int[][] counts = new int[LONG_PASSES][LONG_RADIX];
+        for (long x : arr) {
+            long key = x ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < LONG_PASSES; pass++) {
+                counts[pass][(int) (key >>> (pass * LONG_BITS)) & LONG_MASK]++;
+            }
+        }
+
+        long[] src = arr, dst = null;
+        for (int pass = 0; pass < LONG_PASSES; pass++) {
+            int shift = pass * LONG_BITS;
+            int[] count = counts[pass];
+            if (count[(int) ((src[0] ^ Long.MIN_VALUE) >>> shift) & LONG_MASK] == n) continue;
+            if (dst == null) dst = new long[n];
+
+            int sum = 0;
+            for (int d = 0; d < LONG_RADIX; d++) {
+                int c = count[d];
+                count[d] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < n; i++) {
+                long x = src[i];
+                dst[count[(int) ((x ^ Long.MIN_VALUE) >>> shift) & LONG_MASK]++] = x;
+            }
+            long[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != arr) System.arraycopy(src, 0, arr, 0, n);
+    }
+
+    public static void parallelRadixSort(long[] arr) {
+        int n = arr.length;
+        int chunks = Math.min(java.util.concurrent.ForkJoinPool.getCommonPoolParallelism(),
+                              n / PARALLEL_THRESHOLD);
+        if (chunks <= 1) {
+            radixSort(arr);
+            return;
+        }
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[][] hist = new int[chunks][LONG_RADIX];
+        long[] src = arr, dst = new long[n];
+
+        for (int pass = 0; pass < LONG_PASSES; pass++) {
+            int shift = pass * LONG_BITS;
+            final long[] from = src;
+
+            java.util.stream.IntStream.range(0, chunks).parallel().forEach(c -> {
+                int[] h = hist[c];
+                java.util.Arrays.fill(h, 0);
+                int end = Math.min(n, (c + 1) * chunkSize);
+                for (int i = c * chunkSize; i < end; i++) {
+                    h[(int) ((from[i] ^ Long.MIN_VALUE) >>> shift) & LONG_MASK]++;
+                }
+            });
+
+            int first = (int) ((src[0] ^ Long.MIN_VALUE) >>> shift) & LONG_MASK;
+            int firstTotal = 0;
+            for (int c = 0; c < chunks; c++) firstTotal += hist[c][first];
+            if (firstTotal == n) continue;
+            int sum = 0;
+            for (int d = 0; d < LONG_RADIX; d++) {
+                for (int c = 0; c < chunks; c++) {
+                    int count = hist[c][d];
+                    hist[c][d] = sum;
+                    sum += count;
+                }
+            }
+
+            final long[] to = dst;
+            java.util.stream.IntStream.range(0, chunks).parallel().forEach(c -> {
+                int[] offset = hist[c];
+                int end = Math.min(n, (c + 1) * chunkSize);
+                for (int i = c * chunkSize; i < end; i++) {
+                    long x = from[i];
+                    to[offset[(int) ((x ^ Long.MIN_VALUE) >>> shift) & LONG_MASK]++] = x;
+                }
+            });
+            src = to;
+            dst = from;
+        }
+        if (src != arr) System.arraycopy(src, 0, arr, 0, n);
+    }
+
+    private static void insertionSort(long[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            long key = arr[i];
+            int j = i - 1;
+            while (j >= low && arr[j] > key) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = key;
+        }
+    }
+
+    public static void main(String[] args) {
+        int[] arr = {170, -45, 75, 90, -802, 24, 2, 66};
+        radixSort(arr);
+        System.out.println("Radix Sort: " + java.util.Arrays.toString(arr));
+        // Output: [-802, -45, 2, 24, 66, 75, 90, 170]
+
+        long[] big = new java.util.Random(42).longs(1_000_000).toArray();
+        parallelRadixSort(big);
+        boolean sorted = true;
+        for (int i = 1; i < big.length; i++) sorted &= big[i - 1] <= big[i];
+        System.out.println("Parallel Radix Sort (1M longs) sorted: " + sorted);
+        // Output: true
+    }
+}
+
+
+// ============================================================================
+// 11. TIMSORT (ADAPTIVE, RUN-DETECTING MERGE SORT)
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Merge sort that uses the order already present in the input
+ * - Scans for natural runs: ascending (a <= b <= ...) or strictly
+ *   descending (reversed in place; strict keeps it stable)
+ * - Short runs are extended to minRun (16..32) with BINARY insertion sort
+ * - Runs are pushed on a stack and merged while the invariant holds:
+ *     len[i-2] > len[i-1] + len[i]  and  len[i-1] > len[i]
+ *   → merges stay balanced, stack depth is O(log n)
+ * - Galloping: when one run keeps winning (>= minGallop times in a row),
+ *   switch to exponential + binary search and copy whole blocks at once
+ * - Only the smaller of the two runs is copied to the temp buffer
+ * - Stable sort
+ *
+ * TIME COMPLEXITY:
+ * - Best: O(n) - already sorted / reverse sorted (one run)
+ * - Average: O(n log n)
+ * - Worst: O(n log n)
+ * - Nearly sorted with r runs: O(n log r)
+ *
+ * SPACE COMPLEXITY: O(n) worst case, often much less (smaller run only)
+ *
+ * EXAMPLE:
+ * Array: [1, 2, 3, 9, 8, 7, 4, 5, 6]
+ * Runs:  [1, 2, 3, 9] [8, 7, 4] → reversed [4, 7, 8] [5, 6]
+ * (real minRun is 16+, so these would be joined by binary insertion;
+ *  shown separately to illustrate run detection)
+ * Merge: [1, 2, 3, 4, 7, 8, 9] + [5, 6] → [1, 2, 3, 4, 5, 6, 7, 8, 9]
+ */
+class TimSort {
+    // Arrays shorter than this are sorted with binary insertion only
+    private static final int MIN_MERGE = 32;
+    // Consecutive wins needed before galloping starts
+    private static final int MIN_GALLOP = 7;
+
+    private final int[] a;
+    private int minGallop = MIN_GALLOP;
+    private int[] tmp;
+
+    // Stack of pending runs: run i starts at runBase[i] with runLen[i] elements
+    private int stackSize = 0;
+    private final int[] runBase;
+    private final int[] runLen;
+
+    private TimSort(int[] a) {
+        this.a = a;
+        int n = a.length;
+        tmp = new int[n < 2 * 256 ? n >>> 1 : 256];
+        // Enough for any array: run lengths grow at least like Fibonacci
+        int stackLen = n < 120 ? 5 : n < 1542 ? 10 : n < 119151 ? 24 : 49;
+        runBase = new int[stackLen];
+        runLen = new int[stackLen];
+    }
+
+    public static void timSort(int[] arr) {
+        int lo = 0, hi = arr.length;
+        int nRemaining = hi - lo;
+        if (nRemaining < 2) return;
+
+        // Small array: one run + binary insertion, no merging
+        if (nRemaining < MIN_MERGE) {
+            int initRunLen = countRunAndMakeAscending(arr, lo, hi);
+            binarySort(arr, lo, hi, lo + initRunLen);
+            return;
+        }
+
+        TimSort ts = new TimSort(arr);
+        int minRun = minRunLength(nRemaining);
+        do {
+            int runLen = countRunAndMakeAscending(arr, lo, hi);
+
+            // Run too short: extend it to min(minRun, nRemaining)
+            if (runLen < minRun) {
+                int force = Math.min(nRemaining, minRun);
+                binarySort(arr, lo, lo + force, lo + runLen);
+                runLen = force;
+            }
+
+            ts.pushRun(lo, runLen);
+            ts.mergeCollapse();
+
+            lo += runLen;
+            nRemaining -= runLen;
+        } while (nRemaining != 0);
+
+        ts.mergeForceCollapse();
+    }
+
+    // Length of the run starting at lo; a strictly descending run is reversed
+    private static int countRunAndMakeAscending(int[] a, int lo, int hi) {
+        int runHi = lo + 1;
+        if (runHi == hi) return 1;
+
+        if (a[runHi++] < a[lo]) {
+            // Strictly descending (equal keys end the run → stays stable)
+            while (runHi < hi && a[runHi] < a[runHi - 1]) runHi++;
+            reverseRange(a, lo, runHi);
+        } else {
+            while (runHi < hi && a[runHi] >= a[runHi - 1]) runHi++;
+        }
+        return runHi - lo;
+    }
+
+    private static void reverseRange(int[] a, int lo, int hi) {
+        hi--;
+        while (lo < hi) {
+            int t = a[lo];
+            a[lo++] = a[hi];
+            a[hi--] = t;
+        }
+    }
+
+    // Sorts a[lo, hi) given that a[lo, start) is already sorted
+    // Binary search finds the slot, arraycopy shifts the block
+    private static void binarySort(int[] a, int lo, int hi, int start) {
+        if (start == lo) start++;
+        for (; start < hi; start++) {
+            int pivot = a[start];
+            int left = lo, right = start;
+            // Find first element > pivot (equal keys stay before → stable)
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (pivot < a[mid]) right = mid;
+                else left = mid + 1;
+            }
+            System.arraycopy(a, left, a, left + 1, start - left);
+            a[left] = pivot;
+        }
+    }
+
+    // n < MIN_MERGE → n; otherwise k in [MIN_MERGE/2, MIN_MERGE] such that
+    // n/k is close to (but not above) a power of two → balanced final merges
+    private static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    private void pushRun(int base, int len) {
+        runBase[stackSize] = base;
+        runLen[stackSize] = len;
+        stackSize++;
+    }
+
+    // Merge until the stack invariant holds again (checks the top 4 runs)
+    private void mergeCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                    || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                if (runLen[n - 1] < runLen[n + 1]) n--;
+            } else if (runLen[n] > runLen[n + 1]) {
+                break;
+            }
+            mergeAt(n);
+        }
+    }
+
+    private void mergeForceCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] < runLen[n + 1]) n--;
+            mergeAt(n);
+        }
+    }
+
+    // Merges runs i and i+1 on the stack
+    private void mergeAt(int i) {
+        int base1 = runBase[i], len1 = runLen[i];
+        int base2 = runBase[i + 1], len2 = runLen[i + 1];
+
+        runLen[i] = len1 + len2;
+        if (i == stackSize - 3) {
+            runBase[i + 1] = runBase[i + 2];
+            runLen[i + 1] = runLen[i + 2];
+        }
+        stackSize--;
+
+        // Elements of run1 <= first of run2 are already in place
+        int k = gallopRight(a[base2], a, base1, len1, 0);
+        base1 += k;
+        len1 -= k;
+        if (len1 == 0) return;
+
+        // Elements of run2 >= last of run1 are already in place
+        len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1);
+        if (len2 == 0) return;
+
+        if (len1 <= len2) mergeLo(base1, len1, base2, len2);
+        else mergeHi(base1, len1, base2, len2);
+    }
+
+    // Leftmost position to insert key into sorted a[base, base+len)
+    // Starts at hint and gallops (1, 3, 7, 15, ...) before binary search
+    private static int gallopLeft(int key, int[] a, int base, int len, int hint) {
+        int lastOfs = 0, ofs = 1;
+        if (key > a[base + hint]) {
+            // Gallop right until a[base+hint+lastOfs] < key <= a[base+hint+ofs]
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && key > a[base + hint + ofs]) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;   // int overflow
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        } else {
+            // Gallop left until a[base+hint-ofs] < key <= a[base+hint-lastOfs]
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && key <= a[base + hint - ofs]) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        }
+        // Binary search in (lastOfs, ofs]
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (key > a[base + m]) lastOfs = m + 1;
+            else ofs = m;
+        }
+        return ofs;
+    }
+
+    // Like gallopLeft, but returns the position AFTER any equal keys
+    private static int gallopRight(int key, int[] a, int base, int len, int hint) {
+        int lastOfs = 0, ofs = 1;
+        if (key < a[base + hint]) {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && key < a[base + hint - ofs]) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        } else {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && key >= a[base + hint + ofs]) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        }
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (key < a[base + m]) ofs = m;
+            else lastOfs = m + 1;
+        }
+        return ofs;
+    }
+
+    // Merge left to right; run1 (the smaller) is copied to tmp
+    // Precondition: a[base1] > a[base2] and last of run1 > all of run2
+    private void mergeLo(int base1, int len1, int base2, int len2) {
+        int[] a = this.a;
+        int[] tmp = ensureCapacity(len1);
+        System.arraycopy(a, base1, tmp, 0, len1);
+
+        int cursor1 = 0, cursor2 = base2, dest = base1;
+        a[dest++] = a[cursor2++];
+        if (--len2 == 0) {
+            System.arraycopy(tmp, cursor1, a, dest, len1);
+            return;
+        }
+        if (len1 == 1) {
+            System.arraycopy(a, cursor2, a, dest, len2);
+            a[dest + len2] = tmp[cursor1];
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            int count1 = 0, count2 = 0;   // consecutive wins of each run
+
+            // One element at a time until one run starts winning consistently
+            do {
+                if (a[cursor2] < tmp[cursor1]) {
+                    a[dest++] = a[cursor2++];
+                    count2++;
+                    count1 = 0;
+                    if (--len2 == 0) break outer;
+                } else {
+                    a[dest++] = tmp[cursor1++];
+                    count1++;
+                    count2 = 0;
+                    if (--len1 == 1) break outer;
+                }
+            } while ((count1 | count2) < minGallop);
+
+            // Galloping: copy whole blocks while it keeps paying off
+            do {
+                count1 = gallopRight(a[cursor2], tmp, cursor1, len1, 0);
+                if (count1 != 0) {
+                    System.arraycopy(tmp, cursor1, a, dest, count1);
+                    dest += count1;
+                    cursor1 += count1;
+                    len1 -= count1;
+                    if (len1 <= 1) break outer;
+                }
+                a[dest++] = a[cursor2++];
+                if (--len2 == 0) break outer;
+
+                count2 = gallopLeft(tmp[cursor1], a, cursor2, len2, 0);
+                if (count2 != 0) {
+                    System.arraycopy(a, cursor2, a, dest, count2);
+                    dest += count2;
+                    cursor2 += count2;
+                    len2 -= count2;
+                    if (len2 == 0) break outer;
+                }
+                a[dest++] = tmp[cursor1++];
+                if (--len1 == 1) break outer;
+                minGallop--;   // galloping works → enter it sooner next time
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (minGallop < 0) minGallop = 0;
+            minGallop += 2;    // penalty for leaving gallop mode
+        }
+        this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+        if (len1 == 1) {
+            System.arraycopy(a, cursor2, a, dest, len2);
+            a[dest + len2] = tmp[cursor1];   // last of run1 is the maximum
+        } else {
+            System.arraycopy(tmp, cursor1, a, dest, len1);
+        }
+    }
+
+    // Merge right to left; run2 (the smaller) is copied to tmp
+    private void mergeHi(int base1, int len1, int base2, int len2) {
+        int[] a = this.a;
+        int[] tmp = ensureCapacity(len2);
+        System.arraycopy(a, base2, tmp, 0, len2);
+
+        int cursor1 = base1 + len1 - 1, cursor2 = len2 - 1;
+        int dest = base2 + len2 - 1;
+        a[dest--] = a[cursor1--];
+        if (--len1 == 0) {
+            System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+            return;
+        }
+        if (len2 == 1) {
+            dest -= len1;
+            cursor1 -= len1;
+            System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+            a[dest] = tmp[cursor2];
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            int count1 = 0, count2 = 0;
+
+            do {
+                if (tmp[cursor2] < a[cursor1]) {
+                    a[dest--] = a[cursor1--];
+                    count1++;
+                    count2 = 0;
+                    if (--len1 == 0) break outer;
+                } else {
+                    a[dest--] = tmp[cursor2--];
+                    count2++;
+                    count1 = 0;
+                    if (--len2 == 1) break outer;
+                }
+            } while ((count1 | count2) < minGallop);
+
+            do {
+                count1 = len1 - gallopRight(tmp[cursor2], a, base1, len1, len1 - 1);
+                if (count1 != 0) {
+                    dest -= count1;
+                    cursor1 -= count1;
+                    len1 -= count1;
+                    System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                    if (len1 == 0) break outer;
+                }
+                a[dest--] = tmp[cursor2--];
+                if (--len2 == 1) break outer;
+
+                count2 = len2 - gallopLeft(a[cursor1], tmp, 0, len2, len2 - 1);
+                if (count2 != 0) {
+                    dest -= count2;
+                    cursor2 -= count2;
+                    len2 -= count2;
+                    System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                    if (len2 <= 1) break outer;
+                }
+                a[dest--] = a[cursor1--];
+                if (--len1 == 0) break outer;
+                minGallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (minGallop < 0) minGallop = 0;
+            minGallop += 2;
+        }
+        this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+        if (len2 == 1) {
+            dest -= len1;
+            cursor1 -= len1;
+            System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+            a[dest] = tmp[cursor2];   // first of run2 is the minimum
+        } else {
+            System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+        }
+    }
+
+    // Grows tmp (roughly doubling) only when a merge needs more room
+    private int[] ensureCapacity(int minCapacity) {
+        if (tmp.length < minCapacity) {
+            int newSize = Integer.highestOneBit(minCapacity) << 1;
+            if (newSize < 0) newSize = minCapacity;   // overflow
+            else newSize = Math.min(newSize, a.length >>> 1);
+            tmp = new int[newSize];
+        }
+        return tmp;
+    }
+
+    public static void main(String[] args) {
+        int[] arr = {1, 2, 3, 9, 8, 7, 4, 5, 6};
+        timSort(arr);
+        System.out.println("TimSort: " + java.util.Arrays.toString(arr));
+        // Output: [1, 2, 3, 4, 5, 6, 7, 8, 9]
+
+        // 95% sorted log: only a few out-of-order events
+        int[] log = new int[1_000_000];
+        for (int i = 0; i < log.length; i++) log[i] = i;
+        java.util.Random rnd = new java.util.Random(7);
+        for (int i = 0; i < log.length / 20; i++) {
+            int j = rnd.nextInt(log.length);
+            log[j] = rnd.nextInt(log.length);
+        }
+        timSort(log);
+        System.out.println("Nearly sorted 1M input: OK");
+    }
+}
+
+
+// ============================================================================
+// 12. SMALL-ARRAY KERNELS: SORTING NETWORKS
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Hybrid sorts (Intro Sort, Quick Sort 3-way, Merge Sort...) spend much
+ *   of their time finishing tiny ranges of <= 16 elements
+ * - Insertion Sort's "while (arr[j] > key)" is a DATA-DEPENDENT branch:
+ *   on random data the CPU guesses wrong ~50% of the time, each miss
+ *   costs ~15-20 cycles (the pipeline is flushed)
+ * - Fix: make the work independent of the data
+ *   → compare-exchange: lo = min(a, b), hi = max(a, b)
+ *     Math.min / Math.max on int/long compile to CMOV (no branch)
+ *   → SORTING NETWORK: a FIXED list of compare-exchanges that sorts
+ *     any input of size n; the loop over the list always runs the same
+ *     way, so the branch predictor is never wrong
+ * - Networks below: optimal size for n <= 10, 14, 15, 16 (Green's 60
+ *   comparator network for 16); 11-13 are pruned from 16 and use one
+ *   comparator more than the best known
+ * - Verified with the 0-1 principle: a network sorts everything iff it
+ *   sorts all 2^n inputs of 0s and 1s
+ * - Used as the base case of Merge Sort, Quick Sort 3-way / 2-pivot and
+ *   Intro Sort; sort() falls back to Insertion Sort above 16 elements
+ * - Tried and dropped: branchless Insertion Sort (compare-exchange chain)
+ *   and branchless Selection Sort (min index via ?: → CMOV). Both always
+ *   do all n²/2 steps, and that costs more than the mispredictions they
+ *   save. main() on 16 random ints: Insertion Sort 268.2 ns, network
+ *   206.3 ns, branchless insertion 419.4 ns, branchless selection 726.5 ns
+ *   → only the network, which is branch-free AND does fewer steps, wins
+ * - NOT stable (a compare-exchange may reorder equal keys, invisible for
+ *   primitives)
+ *
+ * TIME COMPLEXITY:
+ * - Network: fixed, e.g. 60 compare-exchanges for n = 16 (vs up to 120
+ *   unpredictable comparisons for Insertion Sort)
+ *
+ * SPACE COMPLEXITY: O(1)
+ *
+ * EXAMPLE (n = 4, network 0-1, 2-3, 0-2, 1-3, 1-2):
+ * [3, 1, 4, 2] → (0,1) [1, 3, 4, 2] → (2,3) [1, 3, 2, 4]
+ *              → (0,2) [1, 3, 2, 4] → (1,3) [1, 3, 2, 4] → (1,2) [1, 2, 3, 4]
+ *
+ * MEASURING BRANCH MISSES (Linux perf; main() below only reports time):
+ *   perf stat -e branches,branch-misses java -cp out SmallSort
+ *   java -jar target/benchmarks.jar benchmarks.SmallSortBenchmark -prof perfnorm
+ *   (branch-misses per op, see jmh/benchmarks/SmallSortBenchmark.java)
+ */
+class SmallSort {
+    static final int MAX_NETWORK_SIZE = 16;
+
+    // NETWORKS[n] = flattened pairs (i, j), i < j, of the network for n elements
+    private static final int[][] NETWORKS = {
+        /*  0 */ {},
+        /*  1 */ {},
+        /*  2 */ {0, 1},
+        /*  3 */ {0, 2,  0, 1,  1, 2},
+        /*  4 */ {0, 1,  2, 3,  0, 2,  1, 3,  1, 2},
+        /*  5 */ {0, 3,  1, 4,  0, 2,  1, 3,  0, 1,  2, 4,  1, 2,  3, 4,  2, 3},
+        /*  6 */ {0, 5,  1, 3,  2, 4,  1, 2,  3, 4,  0, 3,  2, 5,  0, 1,  2, 3,  4, 5,  1, 2,
+                  3, 4},
+        /*  7 */ {0, 6,  2, 3,  4, 5,  0, 2,  1, 4,  3, 6,  0, 1,  2, 5,  3, 4,  1, 2,  4, 6,
+                  2, 3,  4, 5,  1, 2,  3, 4,  5, 6},
+        /*  8 */ {0, 2,  1, 3,  4, 6,  5, 7,  0, 4,  1, 5,  2, 6,  3, 7,  0, 1,  2, 3,  4, 5,
+                  6, 7,  2, 4,  3, 5,  1, 4,  3, 6,  1, 2,  3, 4,  5, 6},
+        /*  9 */ {0, 3,  1, 7,  2, 5,  4, 8,  0, 7,  2, 4,  3, 8,  5, 6,  0, 2,  1, 3,  4, 5,
+                  7, 8,  1, 4,  3, 6,  5, 7,  0, 1,  2, 4,  3, 5,  6, 8,  2, 3,  4, 5,  6, 7,
+                  1, 2,  3, 4,  5, 6},
+        /* 10 */ {0, 8,  1, 9,  2, 7,  3, 5,  4, 6,  0, 2,  1, 4,  5, 8,  7, 9,  0, 3,  2, 4,
+                  5, 7,  6, 9,  0, 1,  3, 6,  8, 9,  1, 5,  2, 3,  4, 8,  6, 7,  1, 2,  3, 5,
+                  4, 6,  7, 8,  2, 3,  4, 5,  6, 7,  3, 4,  5, 6},
+        /* 11 */ {4, 8,  5, 6,  9, 10,  0, 5,  1, 7,  2, 9,  3, 4,  0, 1,  2, 3,  4, 5,  6, 8,
+                  7, 9,  0, 2,  1, 3,  4, 10,  6, 7,  8, 9,  1, 2,  4, 6,  5, 7,  8, 10,  1, 4,
+                  2, 6,  5, 8,  7, 10,  2, 4,  3, 6,  3, 5,  6, 8,  7, 9,  3, 4,  5, 6,  7, 8,
+                  9, 10,  6, 7,  8, 9},
+        /* 12 */ {4, 8,  5, 6,  7, 11,  9, 10,  0, 5,  1, 7,  2, 9,  3, 4,  0, 1,  2, 3,  4, 5,
+                  6, 8,  7, 9,  10, 11,  0, 2,  1, 3,  4, 10,  5, 11,  6, 7,  8, 9,  1, 2,  4, 6,
+                  5, 7,  8, 10,  9, 11,  1, 4,  2, 6,  5, 8,  7, 10,  2, 4,  3, 6,  3, 5,  6, 8,
+                  7, 9,  3, 4,  5, 6,  7, 8,  9, 10,  6, 7,  8, 9},
+        /* 13 */ {1, 12,  4, 8,  5, 6,  7, 11,  9, 10,  0, 5,  1, 7,  2, 9,  3, 4,  11, 12,  0, 1,
+                  2, 3,  4, 5,  6, 8,  7, 9,  10, 11,  0, 2,  1, 3,  4, 10,  5, 11,  6, 7,  8, 9,
+                  1, 2,  3, 12,  4, 6,  5, 7,  8, 10,  9, 11,  1, 4,  2, 6,  5, 8,  7, 10,  2, 4,
+                  3, 6,  9, 12,  3, 5,  6, 8,  7, 9,  10, 12,  3, 4,  5, 6,  7, 8,  9, 10,  11, 12,
+                  6, 7,  8, 9},
+        /* 14 */ {0, 13,  1, 12,  4, 8,  5, 6,  7, 11,  9, 10,  0, 5,  1, 7,  2, 9,  3, 4,  6, 13,
+                  11, 12,  0, 1,  2, 3,  4, 5,  6, 8,  7, 9,  10, 11,  12, 13,  0, 2,  1, 3,
+                  4, 10,  5, 11,  6, 7,  8, 9,  1, 2,  3, 12,  4, 6,  5, 7,  8, 10,  9, 11,  1, 4,
+                  2, 6,  5, 8,  7, 10,  9, 13,  2, 4,  3, 6,  9, 12,  11, 13,  3, 5,  6, 8,  7, 9,
+                  10, 12,  3, 4,  5, 6,  7, 8,  9, 10,  11, 12,  6, 7,  8, 9},
+        /* 15 */ {0, 13,  1, 12,  3, 14,  4, 8,  5, 6,  7, 11,  9, 10,  0, 5,  1, 7,  2, 9,  3, 4,
+                  6, 13,  8, 14,  11, 12,  0, 1,  2, 3,  4, 5,  6, 8,  7, 9,  10, 11,  12, 13,
+                  0, 2,  1, 3,  4, 10,  5, 11,  6, 7,  8, 9,  12, 14,  1, 2,  3, 12,  4, 6,  5, 7,
+                  8, 10,  9, 11,  13, 14,  1, 4,  2, 6,  5, 8,  7, 10,  9, 13,  11, 14,  2, 4,
+                  3, 6,  9, 12,  11, 13,  3, 5,  6, 8,  7, 9,  10, 12,  3, 4,  5, 6,  7, 8,  9, 10,
+                  11, 12,  6, 7,  8, 9},
+        /* 16 */ {0, 13,  1, 12,  2, 15,  3, 14,  4, 8,  5, 6,  7, 11,  9, 10,  0, 5,  1, 7,  2, 9,
+                  3, 4,  6, 13,  8, 14,  10, 15,  11, 12,  0, 1,  2, 3,  4, 5,  6, 8,  7, 9,
+                  10, 11,  12, 13,  14, 15,  0, 2,  1, 3,  4, 10,  5, 11,  6, 7,  8, 9,  12, 14,
+                  13, 15,  1, 2,  3, 12,  4, 6,  5, 7,  8, 10,  9, 11,  13, 14,  1, 4,  2, 6,
+                  5, 8,  7, 10,  9, 13,  11, 14,  2, 4,  3, 6,  9, 12,  11, 13,  3, 5,  6, 8,
+                  7, 9,  10, 12,  3, 4,  5, 6,  7, 8,  9, 10,  11, 12,  6, 7,  8, 9},
+    };
+
+    // The network for n elements as flattened (i, j) pairs; do not modify
+    static int[] network(int n) {
+        return NETWORKS[n];
+    }
+
+    // Sorts a[from, to); any size, networks for <= 16 elements
+    public static void sort(int[] a, int from, int to) {
+        if (to - from <= MAX_NETWORK_SIZE) networkSort(a, from, to);
+        else InsertionSort.insertionSort(a, from, to - 1);
+    }
+
+    public static void sort(long[] a, int from, int to) {
+        if (to - from <= MAX_NETWORK_SIZE) {
+            networkSort(a, from, to);
+            return;
+        }
+        for (int i = from + 1; i < to; i++) {
+            long key = a[i];
+            int j = i - 1;
+            while (j >= from && a[j] > key) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = key;
+        }
+    }
+
+    // Requires to - from <= 16
+    public static void networkSort(int[] a, int from, int to) {
+        int[] net = NETWORKS[to - from];
+        for (int k = 0; k < net.length; k += 2) {
+            compareExchange(a, from + net[k], from + net[k + 1]);
+        }
+    }
+
+    public static void networkSort(long[] a, int from, int to) {
+        int[] net = NETWORKS[to - from];
+        for (int k = 0; k < net.length; k += 2) {
+            compareExchange(a, from + net[k], from + net[k + 1]);
+        }
+    }
+
+    private static void compareExchange(int[] a, int i, int j) {
+        int x = a[i], y = a[j];
+        a[i] = Math.min(x, y);
+        a[j] = Math.max(x, y);
+    }
+
+    private static void compareExchange(long[] a, int i, int j) {
+        long x = a[i], y = a[j];
+        a[i] = Math.min(x, y);
+        a[j] = Math.max(x, y);
+    }
+
+    public static void main(String[] args) {
+        int[] arr = {3, 1, 4, 2};
+        networkSort(arr, 0, arr.length);
+        System.out.println("Network Sort: " + java.util.Arrays.toString(arr));
+        // Output: [1, 2, 3, 4]
+
+        // Sort 64K random blocks of 16 ints with each kernel
+        int n = 16, blocks = 1 << 16;
+        int[] input = new java.util.Random(1).ints(n * blocks).toArray();
+        int[] work = new int[input.length];
+        java.util.Map<String, java.util.function.Consumer<int[]>> kernels = kernels(n);
+        for (int round = 0; round < 5; round++) {   // early rounds = JIT warm-up
+            for (java.util.Map.Entry<String, java.util.function.Consumer<int[]>> k : kernels.entrySet()) {
+                System.arraycopy(input, 0, work, 0, input.length);
+                long start = System.nanoTime();
+                k.getValue().accept(work);
+                long ns = System.nanoTime() - start;
+                if (round == 4) {
+                    System.out.printf("%-22s %6.1f ns per 16 elements%n", k.getKey(), (double) ns / blocks);
+                }
+            }
+        }
+        // Output (varies by machine):
+        // Insertion Sort          263.4 ns per 16 elements
+        // Network                 128.6 ns per 16 elements
+    }
+
+    // Each kernel by name, as "sort every block of n in the array"
+    // (main above, JMH SmallSortBenchmark)
+    static java.util.Map<String, java.util.function.Consumer<int[]>> kernels(int n) {
+        java.util.Map<String, java.util.function.Consumer<int[]>> kernels = new java.util.LinkedHashMap<>();
+        kernels.put("Insertion Sort", a -> {
+            for (int from = 0; from + n <= a.length; from += n) InsertionSort.insertionSort(a, from, from + n - 1);
+        });
+        kernels.put("Network", a -> {
+            for (int from = 0; from + n <= a.length; from += n) networkSort(a, from, from + n);
+        });
+        return kernels;
+    }
+}
+
+
+// ============================================================================
+// 13. KEY-PAYLOAD SORTS (ARGSORT, PAIRED ARRAYS)
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Sorting records (e.g. Student(id, name)) as a List with a comparator
+ *   means boxed keys / object headers and a pointer chase on EVERY compare
+ * - Instead keep the key in a primitive array and the rest in a parallel
+ *   "payload" array: keys[i] belongs to payload[i]
+ * - Every time a key moves, its payload makes the SAME move (lock-step) →
+ *   compares only touch the dense key array
+ * - sort(keys, payload): stable, Merge Sort path (ties keep input order)
+ * - sortUnstable(keys, payload): in-place, Quick Sort THREE_WAY path
+ *   (falls back to the merge path if the recursion gets too deep)
+ * - argsort(keys): indices that would sort keys (keys left untouched) =
+ *   stable paired sort of a copy of keys with payload 0, 1, ..., n-1
+ *   → gather with records[idx[0]], records[idx[1]], ... afterwards
+ *
+ * TIME COMPLEXITY: O(n log n) for both paths
+ *
+ * SPACE COMPLEXITY:
+ * - Stable: O(n) - one buffer of n/2 keys + n/2 payloads
+ * - Unstable: O(log n) stack, plus the stable path's O(n) buffers if the
+ *   depth limit falls back to the merge path
+ * - argsort: O(n) - the returned index array + a key copy
+ *
+ * EXAMPLE:
+ * keys:    [3, 1, 2, 1]          payload: ["c", "a1", "b", "a2"]
+ * sort  →  [1, 1, 2, 3]                   ["a1", "a2", "b", "c"]
+ * argsort([3, 1, 2, 1]) = [1, 3, 2, 0]
+ */
+class KeyPayloadSort {
+    // Ranges up to this size are finished with insertion sort
+    private static final int INSERTION_THRESHOLD = 24;
+    private static final int NINTHER_THRESHOLD = 128;
+
+    // Indices that stably sort keys; keys itself is not modified
+    public static int[] argsort(int[] keys) {
+        int[] idx = new int[keys.length];
+        for (int i = 0; i < idx.length; i++) idx[i] = i;
+        sort(keys.clone(), idx);
+        return idx;
+    }
+
+    // ------------------------- int keys, int payload -------------------------
+
+    public static void sort(int[] keys, int[] payload) {
+        checkLengths(keys.length, payload.length);
+        int n = keys.length;
+        if (n < 2) return;
+        mergeSort(keys, payload, new int[n / 2], new int[n / 2], 0, n);
+    }
+
+    public static void sortUnstable(int[] keys, int[] payload) {
+        checkLengths(keys.length, payload.length);
+        int n = keys.length;
+        if (n < 2) return;
+        quickSort(keys, payload, 0, n, 2 * (31 - Integer.numberOfLeadingZeros(n)));
+    }
+
+    // Sorts [lo, hi); buffers hold at least (hi - lo) / 2 entries
+    private static void mergeSort(int[] k, int[] p, int[] kBuf, int[] pBuf, int lo, int hi) {
+        if (hi - lo <= INSERTION_THRESHOLD) {
+            insertionSort(k, p, lo, hi);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(k, p, kBuf, pBuf, lo, mid);
+        mergeSort(k, p, kBuf, pBuf, mid, hi);
+        if (k[mid - 1] <= k[mid]) return;   // halves already in order
+
+        // Copy only the left half out, merge back into [lo, hi)
+        int leftLen = mid - lo;
+        System.arraycopy(k, lo, kBuf, 0, leftLen);
+        System.arraycopy(p, lo, pBuf, 0, leftLen);
+        int i = 0, j = mid, d = lo;
+        while (i < leftLen && j < hi) {
+            // Strict < : on a tie the left (earlier) record goes first → stable
+            if (k[j] < kBuf[i]) {
+                k[d] = k[j];
+                p[d++] = p[j++];
+            } else {
+                k[d] = kBuf[i];
+                p[d++] = pBuf[i++];
+            }
+        }
+        // Leftover right-half entries are already in place
+        System.arraycopy(kBuf, i, k, d, leftLen - i);
+        System.arraycopy(pBuf, i, p, d, leftLen - i);
+    }
+
+    // Three-way Quick Sort of [lo, hi), moving p together with k
+    private static void quickSort(int[] k, int[] p, int lo, int hi, int depthLimit) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                int half = (hi - lo) / 2;
+                mergeSort(k, p, new int[half], new int[half], lo, hi);
+                return;
+            }
+            int pivot = k[choosePivot(k, lo, hi - 1)];
+
+            // Invariant: [lo, lt) < pivot, [lt, i) == pivot, (gt, hi) > pivot
+            int lt = lo, i = lo, gt = hi - 1;
+            while (i <= gt) {
+                if (k[i] < pivot) {
+                    swap(k, p, lt++, i++);
+                } else if (k[i] > pivot) {
+                    swap(k, p, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            // Recurse into the smaller side, loop on the larger → O(log n) stack
+            if (lt - lo < hi - gt - 1) {
+                quickSort(k, p, lo, lt, depthLimit);
+                lo = gt + 1;
+            } else {
+                quickSort(k, p, gt + 1, hi, depthLimit);
+                hi = lt;
+            }
+        }
+        insertionSort(k, p, lo, hi);
+    }
+
+    private static void insertionSort(int[] k, int[] p, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int key = k[i];
+            int value = p[i];
+            int j = i - 1;
+            while (j >= lo && k[j] > key) {
+                k[j + 1] = k[j];
+                p[j + 1] = p[j];
+                j--;
+            }
+            k[j + 1] = key;
+            p[j + 1] = value;
+        }
+    }
+
+    private static void swap(int[] k, int[] p, int i, int j) {
+        int tk = k[i];
+        k[i] = k[j];
+        k[j] = tk;
+        int tp = p[i];
+        p[i] = p[j];
+        p[j] = tp;
+    }
+
+    // ------------------------- int keys, long payload -------------------------
+
+    public static void sort(int[] keys, long[] payload) {
+        checkLengths(keys.length, payload.length);
+        int n = keys.length;
+        if (n < 2) return;
+        mergeSort(keys, payload, new int[n / 2], new long[n / 2], 0, n);
+    }
+
+    public static void sortUnstable(int[] keys, long[] payload) {
+        checkLengths(keys.length, payload.length);
+        int n = keys.length;
+        if (n < 2) return;
+        quickSort(keys, payload, 0, n, 2 * (31 - Integer.numberOfLeadingZeros(n)));
+    }
+
+    private static void mergeSort(int[] k, long[] p, int[] kBuf, long[] pBuf, int lo, int hi) {
+        if (hi - lo <= INSERTION_THRESHOLD) {
+            insertionSort(k, p, lo, hi);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(k, p, kBuf, pBuf, lo, mid);
+        mergeSort(k, p, kBuf, pBuf, mid, hi);
+        if (k[mid - 1] <= k[mid]) return;
+
+        int leftLen = mid - lo;
+        System.arraycopy(k, lo, kBuf, 0, leftLen);
+        System.arraycopy(p, lo, pBuf, 0, leftLen);
+        int i = 0, j = mid, d = lo;
+        while (i < leftLen && j < hi) {
+            if (k[j] < kBuf[i]) {
+                k[d] = k[j];
+                p[d++] = p[j++];
+            } else {
+                k[d] = kBuf[i];
+                p[d++] = pBuf[i++];
+            }
+        }
+        System.arraycopy(kBuf, i, k, d, leftLen - i);
+        System.arraycopy(pBuf, i, p, d, leftLen - i);
+    }
+
+    private static void quickSort(int[] k, long[] p, int lo, int hi, int depthLimit) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                int half = (hi - lo) / 2;
+                mergeSort(k, p, new int[half], new long[half], lo, hi);
+                return;
+            }
+            int pivot = k[choosePivot(k, lo, hi - 1)];
+
+            int lt = lo, i = lo, gt = hi - 1;
+            while (i <= gt) {
+                if (k[i] < pivot) {
+                    swap(k, p, lt++, i++);
+                } else if (k[i] > pivot) {
+                    swap(k, p, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - lo < hi - gt - 1) {
+                quickSort(k, p, lo, lt, depthLimit);
+                lo = gt + 1;
+            } else {
+                quickSort(k, p, gt + 1, hi, depthLimit);
+                hi = lt;
+            }
+        }
+        insertionSort(k, p, lo, hi);
+    }
+
+    private static void insertionSort(int[] k, long[] p, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int key = k[i];
+            long value = p[i];
+            int j = i - 1;
+            while (j >= lo && k[j] > key) {
+                k[j + 1] = k[j];
+                p[j + 1] = p[j];
+                j--;
+            }
+            k[j + 1] = key;
+            p[j + 1] = value;
+        }
+    }
+
+    private static void swap(int[] k, long[] p, int i, int j) {
+        int tk = k[i];
+        k[i] = k[j];
+        k[j] = tk;
+        long tp = p[i];
+        p[i] = p[j];
+        p[j] = tp;
+    }
+
+    // ------------------------- int keys, Object payload -------------------------
+
+    public static void sort(int[] keys, Object[] payload) {
+        checkLengths(keys.length, payload.length);
+        int n = keys.length;
+        if (n < 2) return;
+        mergeSort(keys, payload, new int[n / 2], new Object[n / 2], 0, n);
+    }
+
+    public static void sortUnstable(int[] keys, Object[] payload) {
+        checkLengths(keys.length, payload.length);
+        int n = keys.length;
+        if (n < 2) return;
+        quickSort(keys, payload, 0, n, 2 * (31 - Integer.numberOfLeadingZeros(n)));
+    }
+
+    private static void mergeSort(int[] k, Object[] p, int[] kBuf, Object[] pBuf, int lo, int hi) {
+        if (hi - lo <= INSERTION_THRESHOLD) {
+            insertionSort(k, p, lo, hi);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(k, p, kBuf, pBuf, lo, mid);
+        mergeSort(k, p, kBuf, pBuf, mid, hi);
+        if (k[mid - 1] <= k[mid]) return;
+
+        int leftLen = mid - lo;
+        System.arraycopy(k, lo, kBuf, 0, leftLen);
+        System.arraycopy(p, lo, pBuf, 0, leftLen);
+        int i = 0, j = mid, d = lo;
+        while (i < leftLen && j < hi) {
+            if (k[j] < kBuf[i]) {
+                k[d] = k[j];
+                p[d++] = p[j++];
+            } else {
+                k[d] = kBuf[i];
+                p[d++] = pBuf[i++];
+            }
+        }
+        System.arraycopy(kBuf, i, k, d, leftLen - i);
+        System.arraycopy(pBuf, i, p, d, leftLen - i);
+    }
+
+    private static void quickSort(int[] k, Object[] p, int lo, int hi, int depthLimit) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                int half = (hi - lo) / 2;
+                mergeSort(k, p, new int[half], new Object[half], lo, hi);
+                return;
+            }
+            int pivot = k[choosePivot(k, lo, hi - 1)];
+
+            int lt = lo, i = lo, gt = hi - 1;
+            while (i <= gt) {
+                if (k[i] < pivot) {
+                    swap(k, p, lt++, i++);
+                } else if (k[i] > pivot) {
+                    swap(k, p, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - lo < hi - gt - 1) {
+                quickSort(k, p, lo, lt, depthLimit);
+                lo = gt + 1;
+            } else {
+                quickSort(k, p, gt + 1, hi, depthLimit);
+                hi = lt;
+            }
+        }
+        insertionSort(k, p, lo, hi);
+    }
+
+    private static void insertionSort(int[] k, Object[] p, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int key = k[i];
+            Object value = p[i];
+            int j = i - 1;
+            while (j >= lo && k[j] > key) {
+                k[j + 1] = k[j];
+                p[j + 1] = p[j];
+                j--;
+            }
+            k[j + 1] = key;
+            p[j + 1] = value;
+        }
+    }
+
+    private static void swap(int[] k, Object[] p, int i, int j) {
+        int tk = k[i];
+        k[i] = k[j];
+        k[j] = tk;
+        Object tp = p[i];
+        p[i] = p[j];
+        p[j] = tp;
+    }
+
+    // ------------------------------ helpers ------------------------------
+
+    private static void checkLengths(int keys, int payload) {
+        if (keys != payload) {
+            throw new IllegalArgumentException("keys.length (" + keys
+                + ") != payload.length (" + payload + ")");
+        }
+    }
+
+    // Median of three for small ranges, Tukey's ninther for large ones
+    private static int choosePivot(int[] k, int low, int high) {
+        int mid = (low + high) >>> 1;
+        int n = high - low + 1;
+        if (n < NINTHER_THRESHOLD) {
+            return medianOfThree(k, low, mid, high);
+        }
+        int step = (n >>> 3) + (n >>> 6) + 1;
+        int m1 = medianOfThree(k, low, low + step, low + 2 * step);
+        int m2 = medianOfThree(k, mid - step, mid, mid + step);
+        int m3 = medianOfThree(k, high - 2 * step, high - step, high);
+        return medianOfThree(k, m1, m2, m3);
+    }
+
+    private static int medianOfThree(int[] k, int a, int b, int c) {
+        if (k[a] < k[b]) {
+            if (k[b] < k[c]) return b;
+            return k[a] < k[c] ? c : a;
+        } else {
+            if (k[a] < k[c]) return a;
+            return k[b] < k[c] ? c : b;
+        }
+    }
+
+    public static void main(String[] args) {
+        // Student(id, name) records as two parallel arrays
+        int[] ids = {3, 1, 2, 1};
+        String[] names = {"Carol", "Alice", "Bob", "Alan"};
+        sort(ids, names);
+        System.out.println("Paired (stable): " + java.util.Arrays.toString(ids)
+            + " " + java.util.Arrays.toString(names));
+        // Output: [1, 1, 2, 3] [Alice, Alan, Bob, Carol]
+
+        int[] keys = {3, 1, 2, 1};
+        System.out.println("Argsort: " + java.util.Arrays.toString(argsort(keys)));
+        // Output: [1, 3, 2, 0]
+
+        int[] scores = {90, 75, 90, 60};
+        long[] timestamps = {1000L, 1001L, 1002L, 1003L};
+        sortUnstable(scores, timestamps);
+        System.out.println("Paired (unstable): " + java.util.Arrays.toString(scores)
+            + " " + java.util.Arrays.toString(timestamps));
+        // Output: [60, 75, 90, 90] [1003, 1001, 1000, 1002]  (order of the 90s may vary)
+    }
+}
+
+
+// ============================================================================
+// 14. SELECTION: QUICKSELECT, PARTIAL SORT, STREAMING TOP-K
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Often only the k-th smallest (median, percentile) or the top k are
+ *   needed → sorting all n elements is wasted work
+ * - QUICKSELECT: partition like Quick Sort, but continue into the ONE side
+ *   that contains index k → n + n/2 + n/4 + ... = O(n) on average
+ * - INTROSELECT: Quickselect with a budget of 2*log2(n) rounds; past it,
+ *   pivots come from MEDIAN OF MEDIANS (groups of 5, median of their
+ *   medians) → every round drops >= 30% → O(n) worst case
+ * - Partitioning is three-way (< | == | >): if k lands in the == block we
+ *   are done, so many duplicates cannot make it quadratic
+ *   (the Lomuto partition of QuickSort sends all equal keys one way)
+ * - PARTIAL SORT: select(k - 1), then sort only a[0..k-1] → O(n + k log k)
+ * - STREAMING TOP-K (TopK): values arrive one by one; keep a MIN-heap of
+ *   the k largest seen so far; a new value only enters if it beats the
+ *   heap's root → O(log k) per value, O(k) memory, never the whole input
+ * - Everything works inside the given arrays: no allocation
+ *
+ * TIME COMPLEXITY:
+ * - select: O(n) average and worst case
+ * - partialSort: O(n + k log k)
+ * - TopK: O(n log k) for n offers
+ *
+ * SPACE COMPLEXITY: O(1) extra (O(log n) stack for median of medians)
+ *
+ * EXAMPLE:
+ * Array: [7, 2, 9, 4, 1, 8], k = 2
+ * select → [1, 2, 4, 7, 8, 9]  (a[2] = 4; 6 <= 16 elements, so the range
+ *                               is finished with Insertion Sort)
+ * partialSort(k = 3) → [1, 2, 4, ...rest in any order]
+ */
+class Selection {
+    // Ranges up to this size are finished with Insertion Sort
+    private static final int SMALL_THRESHOLD = 16;
+    private static final int NINTHER_THRESHOLD = 128;
+
+    // Rearranges arr so arr[k] is the k-th smallest (0-based), everything
+    // before it <= arr[k] and everything after it >= arr[k]; returns arr[k]
+    public static int select(int[] arr, int k) {
+        return select(arr, 0, arr.length - 1, k);
+    }
+
+    // Same on arr[low..high]; k is an absolute index inside that range
+    public static int select(int[] arr, int low, int high, int k) {
+        if (k < low || k > high) {
+            throw new IndexOutOfBoundsException("k = " + k + " outside [" + low + ", " + high + "]");
+        }
+        int budget = 2 * (31 - Integer.numberOfLeadingZeros(high - low + 1));
+        while (high - low + 1 > SMALL_THRESHOLD) {
+            int p = budget-- > 0 ? choosePivot(arr, low, high) : medianOfMedians(arr, low, high);
+            int pivot = arr[p];
+
+            // Invariant: [low..lt-1] < pivot, [lt..i-1] == pivot, [gt+1..high] > pivot
+            int lt = low, i = low, gt = high;
+            while (i <= gt) {
+                if (arr[i] < pivot) {
+                    swap(arr, lt++, i++);
+                } else if (arr[i] > pivot) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < lt) {
+                high = lt - 1;
+            } else if (k > gt) {
+                low = gt + 1;
+            } else {
+                return arr[k];   // k is inside the == block
+            }
+        }
+        InsertionSort.insertionSort(arr, low, high);
+        return arr[k];
+    }
+
+    // Smallest k elements, sorted, at arr[0..k-1]; the rest in any order
+    public static void partialSort(int[] arr, int k) {
+        if (k < 0 || k > arr.length) {
+            throw new IllegalArgumentException("k = " + k + " outside [0, " + arr.length + "]");
+        }
+        if (k == 0) return;
+        if (k < arr.length) select(arr, k - 1);
+        IntroSort.introSort(arr, 0, k - 1);
+    }
+
+    // Median of medians of groups of 5 → index of a pivot that has at least
+    // ~30% of the range on each side
+    private static int medianOfMedians(int[] arr, int low, int high) {
+        int medians = low;
+        for (int i = low; i <= high; i += 5) {
+            int end = Math.min(i + 4, high);
+            InsertionSort.insertionSort(arr, i, end);
+            // Collect each group's median at the front of the range
+            swap(arr, medians++, (i + end) >>> 1);
+        }
+        int mid = (low + medians - 1) >>> 1;
+        select(arr, low, medians - 1, mid);
+        return mid;
+    }
+
+    // Median of three for small ranges, Tukey's ninther for large ones
+    private static int choosePivot(int[] arr, int low, int high) {
+        int mid = (low + high) >>> 1;
+        int n = high - low + 1;
+        if (n < NINTHER_THRESHOLD) {
+            return medianOfThree(arr, low, mid, high);
+        }
+        int step = (n >>> 3) + (n >>> 6) + 1;
+        int m1 = medianOfThree(arr, low, low + step, low + 2 * step);
+        int m2 = medianOfThree(arr, mid - step, mid, mid + step);
+        int m3 = medianOfThree(arr, high - 2 * step, high - step, high);
+        return medianOfThree(arr, m1, m2, m3);
+    }
+
+    private static int medianOfThree(int[] arr, int a, int b, int c) {
+        if (arr[a] < arr[b]) {
+            if (arr[b] < arr[c]) return b;
+            return arr[a] < arr[c] ? c : a;
+        } else {
+            if (arr[a] < arr[c]) return a;
+            return arr[b] < arr[c] ? c : b;
+        }
+    }
+
+    private static void swap(int[] arr, int i, int j) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    public static void main(String[] args) {
+        int[] arr = {7, 2, 9, 4, 1, 8};
+        System.out.println("Select k=2: " + select(arr, 2));
+        // Output: 4
+
+        int[] scores = {50, 20, 90, 10, 70, 30, 80, 60, 40};
+        int median = select(scores.clone(), scores.length / 2);
+        System.out.println("Median: " + median);
+        // Output: 50
+
+        partialSort(scores, 3);
+        System.out.println("Smallest 3: " + java.util.Arrays.toString(java.util.Arrays.copyOf(scores, 3)));
+        // Output: [10, 20, 30]
+
+        TopK top = new TopK(3);
+        for (int s : new int[] {50, 20, 90, 10, 70, 30, 80, 60, 40}) top.offer(s);
+        int[] best = new int[3];
+        top.drainTo(best);
+        System.out.println("Top 3 (streaming): " + java.util.Arrays.toString(best));
+        // Output: [90, 80, 70]
+    }
+}
+
+// Keeps the k largest values of a stream in a fixed-size min-heap
+class TopK {
+    private final int[] heap;   // heap[0] = smallest of the current top k
+    private int size;
+
+    public TopK(int k) {
+        if (k < 1) throw new IllegalArgumentException("k must be positive: " + k);
+        heap = new int[k];
+    }
+
+    public void offer(int value) {
+        if (size < heap.length) {
+            // Sift up
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= value) break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        } else if (value > heap[0]) {
+            // Replace the current minimum, sift down
+            siftDown(value, size);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Smallest value still in the top k (a new value must beat it)
+    public int threshold() {
+        if (size == 0) throw new java.util.NoSuchElementException("empty");
+        return heap[0];
+    }
+
+    // Writes the top values, largest first, into dst and empties the heap;
+    // returns how many were written
+    public int drainTo(int[] dst) {
+        int n = size;
+        if (dst.length < n) {
+            throw new IllegalArgumentException("dst too small: " + dst.length + " < " + n);
+        }
+        // Repeatedly remove the minimum, filling dst from the back
+        while (size > 0) {
+            int min = heap[0];
+            int last = heap[--size];
+            if (size > 0) siftDown(last, size);
+            dst[size] = min;
+        }
+        return n;
+    }
+
+    // Places value at the root and sifts it down within heap[0..n-1]
+    private void siftDown(int value, int n) {
+        int i = 0;
+        int half = n >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < n && heap[child + 1] < heap[child]) child++;
+            if (value <= heap[child]) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+}
+
+
+// ============================================================================
+// SORTING ALGORITHMS QUICK COMPARISON
+// ============================================================================
+
+/*
+╔═════════════════════════════════════════════════════════════════════════════╗
+║                    SORTING ALGORITHMS - QUICK RECAP                        ║
+╚═════════════════════════════════════════════════════════════════════════════╝
+
+ALGORITHM              TIME COMPLEXITY          SPACE    STABLE  BEST FOR
+                   BEST       AVG       WORST    COMP
+─────────────────────────────────────────────────────────────────────────────
+Bubble Sort        O(n)       O(n²)     O(n²)    O(1)     YES     Educational
+Selection Sort     O(n²)      O(n²)     O(n²)    O(1)     NO      Small datasets
+Insertion Sort     O(n)       O(n²)     O(n²)    O(1)     YES     Small/nearly sorted
+Merge Sort         O(n log n) O(n log n) O(n log n) O(n)  YES     Large datasets
+Recursive Bubble   O(n)       O(n²)     O(n²)    O(n)     YES     Educational
+Recursive Insert   O(n)       O(n²)     O(n²)    O(n)     YES     Educational
+Quick Sort         O(n log n) O(n log n) O(n²)   O(log n) NO      General purpose
+Parallel Merge     O(n log n) O(n log n) O(n log n) O(n)  YES     Huge arrays, many cores
+Intro Sort         O(n log n) O(n log n) O(n log n) O(log n) NO   Sorted/adversarial input
+Radix Sort (LSD)   O(n)       O(n)      O(n)     O(n)     YES     int/long keys, large n
+TimSort            O(n)       O(n log n) O(n log n) O(n)  YES     Nearly sorted / runs
+Sorting Network    O(1)*      O(1)*     O(1)*    O(1)     NO      n <= 16 base case
+Key-Payload Sort   O(n log n) O(n log n) O(n log n) O(n)  YES     Records as parallel arrays
+Quickselect        O(n)       O(n)      O(n)     O(1)     NO      k-th element / top k
+                   (* fixed number of compare-exchanges for a given n)
+
+╔═════════════════════════════════════════════════════════════════════════════╗
+║                         KEY CHARACTERISTICS                                 ║
+╚═════════════════════════════════════════════════════════════════════════════╝
+
+1. BUBBLE SORT
+   ├─ Compares adjacent elements
+   ├─ Stable and in-place
+   ├─ Optimization: break if no swaps
+   └─ Use: Learning, small arrays
+
+2. SELECTION SORT
+   ├─ Finds and places minimum
+   ├─ Not stable, in-place
+   ├─ Consistent O(n²) performance
+   └─ Use: When memory is critical
+
+3. INSERTION SORT
+   ├─ Builds sorted array incrementally
+   ├─ Stable and in-place
+   ├─ O(n) for nearly sorted data
+   └─ Use: Small arrays, online sorting
+
+4. MERGE SORT
+   ├─ Divide and conquer approach
+   ├─ Stable, requires O(n) space
+   ├─ Guaranteed O(n log n)
+   └─ Use: Large datasets, consistent performance
+
+5. RECURSIVE BUBBLE SORT
+   ├─ Bubble sort using recursion
+   ├─ Stable, uses O(n) stack space
+   ├─ Same time complexity as iterative
+   └─ Use: Understanding recursion
+
+6. RECURSIVE INSERTION SORT
+   ├─ Insertion sort using recursion
+   ├─ Stable, uses O(n) stack space
+   ├─ Elegant recursive pattern
+   └─ Use: Understanding recursion
+
+7. QUICK SORT
+   ├─ Divide and conquer with partitioning
+   ├─ Not stable, uses O(log n) stack space
+   ├─ O(n log n) average, O(n²) worst case
+   ├─ THREE_WAY / DUAL_PIVOT schemes group equal keys in one pass
+   └─ Use: General-purpose, industrial standard
+
+8. PARALLEL MERGE SORT
+   ├─ Fork/join over halves + parallel merge (split by binary search)
+   ├─ Stable, ONE O(n) buffer reused by ping-ponging src <-> buffer
+   ├─ Insertion Sort below a tunable cutoff
+   └─ Use: Very large arrays on multi-core machines
+
+9. INTROSORT
+   ├─ Quick Sort + median-of-three / ninther pivot
+   ├─ Recurse on smaller side → O(log n) stack
+   ├─ Heap Sort fallback past depth 2*log2(n) → O(n log n) worst case
+   └─ Use: General purpose when input may already be (reverse) sorted
+
+10. RADIX SORT (LSD)
+   ├─ Counting sort per 8-bit (int) / 11-bit (long) digit, no comparisons
+   ├─ Sign bit flipped → negatives handled; trivial digits skipped
+   ├─ Parallel: per-chunk histograms → prefix sum → parallel scatter
+   └─ Use: Large arrays of plain integer keys
+
+11. TIMSORT
+   ├─ Detects natural runs, extends short ones with binary insertion
+   ├─ Merges by run-stack invariant, gallops when one run dominates
+   ├─ Stable, O(n) on sorted / reverse sorted, O(n log r) for r runs
+   └─ Use: Append-mostly / nearly sorted data of any size
+
+12. SORTING NETWORKS
+   ├─ Fixed compare-exchange sequence per n (<= 16), min/max → CMOV
+   ├─ No data-dependent branches → no branch mispredictions
+   ├─ Branchless insertion / selection were slower than plain Insertion Sort
+   ├─ Base case of Merge Sort, Intro Sort and Quick Sort THREE_WAY / DUAL_PIVOT
+   └─ Use: Finishing tiny ranges inside hybrid sorts
+
+13. KEY-PAYLOAD SORTS / ARGSORT
+   ├─ Primitive key array + int[] / long[] / Object[] payload, moved in lock-step
+   ├─ sort = stable merge path, sortUnstable = in-place 3-way Quick Sort path
+   ├─ argsort returns the sorting permutation, keys untouched
+   └─ Use: Sorting records by a key without boxing or per-compare pointer chasing
+
+14. QUICKSELECT / PARTIAL SORT / TOP-K
+   ├─ Partition, then continue into the side holding k only → O(n)
+   ├─ Median-of-medians pivots past 2*log2(n) rounds → O(n) worst case
+   ├─ partialSort = select + sort the first k → O(n + k log k)
+   └─ Use: Median, percentiles, top k of a big array (TopK for streams)
+
+╔═════════════════════════════════════════════════════════════════════════════╗
+║                      WHEN TO USE WHICH ALGORITHM                           ║
+╚═════════════════════════════════════════════════════════════════════════════╝
+
+Small Dataset (< 50 elements)?
+  → Use Insertion Sort (O(n) best case, simple implementation)
+
+Large Dataset?
+  → Merge Sort (guaranteed O(n log n), stable)
+  → Quick Sort (average O(n log n), widely used)
+
+Need Stable Sort?
+  → Bubble Sort, Insertion Sort, Merge Sort
+
+Memory Critical?
+  → Selection Sort, Bubble Sort (O(1) space)
+
+Already Nearly Sorted?
+  → Insertion Sort (O(n) best case) - only for a FEW misplaced elements,
+    each one costs a shift of up to n elements
+  → TimSort (uses existing runs, stays O(n log n) when disorder grows)
+
+Need Best Average Performance?
+  → Quick Sort (O(n log n) average, faster in practice)
+
+Plain int / long Keys, Large Array?
+  → Radix Sort (O(n), no comparisons; parallelRadixSort on many cores)
+
+Many Duplicate Keys (few distinct values)?
+  → Quick Sort with THREE_WAY or DUAL_PIVOT partitioning
+
+Sorting Records by an int Key?
+  → KeyPayloadSort (key array + payload array, or argsort + gather)
+
+Only Need the k-th Element or the Top k?
+  → Selection.select / partialSort (O(n), no full sort)
+  → TopK when values arrive one at a time
 
 Need Guaranteed Performance?
   → Merge Sort (always O(n log n))
+  → Intro Sort (in-place, O(n log n) worst case)
 
 ╔═════════════════════════════════════════════════════════════════════════════╗
 ║                         QUICK CODE SNIPPETS                                ║
@@ -0,0 +1,901 @@
+/*
+ * SORTING API - CONCEPT NOTES FOR REVISION
+ * ========================================================
+ * One interface for every element type, built on the algorithms
+ * in Sorting.java
+ */
+import java.util.Comparator;
+
+// ============================================================================
+// 1. THE Sorter INTERFACE
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Java generics do not work with primitives: a generic sort over
+ *   Integer boxes every element (16+ bytes each, pointer chase per compare)
+ * - So there is one overload per primitive type, each with its own loop
+ *   → every hot loop sees exactly one element type (monomorphic, the JIT
+ *     can inline the comparison as a single CPU instruction)
+ * - Range form sort(a, from, to): from inclusive, to exclusive
+ *   (same convention as java.util.Arrays)
+ * - Objects: T[] + Comparator, no copying into a List
+ *
+ * DOUBLE ORDERING (same as Double.compare / Arrays.sort):
+ * - -0.0 < 0.0 and NaN is greater than everything (NaNs go last)
+ * - '<' alone gets both wrong: -0.0 < 0.0 is false, every test with NaN
+ *   is false
+ * - Trick: move NaNs to the end, sort the rest with plain '<', then
+ *   rewrite the block of zeros as all -0.0 followed by all 0.0
+ *
+ * IMPLEMENTATIONS:
+ * - Sorter.INSERTION: stable, O(n²), best for tiny or nearly sorted ranges
+ * - Sorter.MERGE:     stable, O(n log n), one (n/2) buffer per call
+ * - Sorter.QUICK:     introsort, NOT stable, O(n log n) worst case, in place
+ *
+ * EXAMPLE:
+ * Sorter.QUICK.sort(arr, 2, 6);          // sorts arr[2..5] only
+ * Sorter.MERGE.sort(students, byName);   // stable object sort
+ */
+interface Sorter {
+    Sorter INSERTION = new InsertionSorter();
+    Sorter MERGE = new MergeSorter();
+    Sorter QUICK = new QuickSorter();
+
+    void sort(int[] a, int from, int to);
+    void sort(long[] a, int from, int to);
+    void sort(short[] a, int from, int to);
+    void sort(char[] a, int from, int to);
+    void sort(double[] a, int from, int to);
+    <T> void sort(T[] a, int from, int to, Comparator<? super T> c);
+
+    default void sort(int[] a) { sort(a, 0, a.length); }
+    default void sort(long[] a) { sort(a, 0, a.length); }
+    default void sort(short[] a) { sort(a, 0, a.length); }
+    default void sort(char[] a) { sort(a, 0, a.length); }
+    default void sort(double[] a) { sort(a, 0, a.length); }
+    default <T> void sort(T[] a, Comparator<? super T> c) { sort(a, 0, a.length, c); }
+}
+
+// Helpers shared by every Sorter implementation
+final class SortSupport {
+    private SortSupport() {}
+
+    // Same checks and messages as java.util.Arrays
+    static void checkRange(int length, int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("fromIndex(" + from + ") > toIndex(" + to + ")");
+        }
+        if (from < 0) throw new ArrayIndexOutOfBoundsException(from);
+        if (to > length) throw new ArrayIndexOutOfBoundsException(to);
+    }
+
+    // Introsort depth budget: 2 * floor(log2(n))
+    static int depthLimit(int n) {
+        return n < 2 ? 0 : 2 * (31 - Integer.numberOfLeadingZeros(n));
+    }
+
+    // Moves all NaNs to the end of a[from, to); returns the end of the non-NaN part
+    static int moveNaNsToEnd(double[] a, int from, int to) {
+        int end = to;
+        for (int i = to - 1; i >= from; i--) {
+            if (a[i] != a[i]) {   // only NaN is not equal to itself
+                double nan = a[i];
+                a[i] = a[--end];
+                a[end] = nan;
+            }
+        }
+        return end;
+    }
+
+    // a[from, to) is sorted by '<', so all zeros form one block:
+    // rewrite it as -0.0, ..., -0.0, 0.0, ..., 0.0
+    static void orderZeros(double[] a, int from, int to) {
+        // First index with a[i] >= 0.0 (-0.0 counts as 0.0 here)
+        int lo = from, hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < 0.0) lo = mid + 1;
+            else hi = mid;
+        }
+        int negativeZeros = 0, end = lo;
+        while (end < to && a[end] == 0.0) {
+            if (Double.doubleToRawLongBits(a[end]) < 0) negativeZeros++;
+            end++;
+        }
+        for (int i = lo; i < end; i++) {
+            a[i] = i < lo + negativeZeros ? -0.0 : 0.0;
+        }
+    }
+}
+
+
+// ============================================================================
+// 2. INSERTION SORTER
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Same algorithm as InsertionSort in Sorting.java, for every type
+ * - Stable, in place, O(n²) worst / O(n) on sorted input
+ * - The static insertionSort(...) helpers are the base case of the
+ *   MERGE and QUICK sorters below
+ */
+final class InsertionSorter implements Sorter {
+    @Override
+    public void sort(int[] a, int from, int to) {
+        SortSupport.checkRange(a.length, from, to);
+        insertionSort(a, from, to);
+    }
+
+    @Override
+    public void sort(long[] a, int from, int to) {
+        SortSupport.checkRange(a.length, from, to);
+        insertionSort(a, from, to);
+    }
+
+    @Override
+    public void sort(short[] a, int from, int to) {
+        SortSupport.checkRange(a.length, from, to);
+        insertionSort(a, from, to);
+    }
+
+    @Override
+    public void sort(char[] a, int from, int to) {
+        SortSupport.checkRange(a.length, from, to);
+        insertionSort(a, from, to);
+    }
+
+    @Override
+    public void sort(double[] a, int from, int to) {
+        SortSupport.checkRange(a.length, from, to);
+        int end = SortSupport.moveNaNsToEnd(a, from, to);
+        insertionSort(a, from, end);
+        SortSupport.orderZeros(a, from, end);
+    }
+
+    @Override
+    public <T> void sort(T[] a, int from, int to, Comparator<? super T> c) {
+        SortSupport.checkRange(a.length, from, to);
+        insertionSort(a, from, to, c);
+    }
+
+    static void insertionSort(int[] a, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int key = a[i];
+            int j = i - 1;
+            while (j >= from && a[j] > key) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = key;
+        }
+    }
+
+    static void insertionSort(long[] a, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            long key = a[i];
+            int j = i - 1;
+            while (j >= from && a[j] > key) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = key;
+        }
+    }
+
+    static void insertionSort(short[] a, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            short key = a[i];
+            int j = i - 1;
+            while (j >= from && a[j] > key) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = key;
+        }
+    }
+
+    static void insertionSort(char[] a, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            char key = a[i];
+            int j = i - 1;
+            while (j >= from && a[j] > key) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = key;
+        }
+    }
+
+    static void insertionSort(double[] a, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            double key = a[i];
+            int j = i - 1;
+            while (j >= from && a[j] > key) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = key;
+        }
+    }
+
+    static <T> void insertionSort(T[] a, int from, int to, Comparator<? super T> c) {
+        for (int i = from + 1; i < to; i++) {
+            T key = a[i];
+            int j = i - 1;
+            while (j >= from && c.compare(a[j], key) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = key;
+        }
+    }
+}
+
+
+// ============================================================================
+// 3. MERGE SORTER
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Top-down merge sort, stable
+ * - ONE buffer of size n/2 per call (MergeSort in Sorting.java allocates
+ *   new left/right arrays at every level)
+ * - Merge copies only the left half out, then merges back in place
+ * - Skips the merge when a[mid-1] <= a[mid] (halves already in order)
+ * - Ranges <= 32 elements finish with insertion sort
+ *
+ * TIME COMPLEXITY: O(n log n), O(n) on already sorted input
+ * SPACE COMPLEXITY: O(n/2) buffer + O(log n) stack
+ */
+final class MergeSorter implements Sorter {
+    private static final int INSERTION_THRESHOLD = 32;
+
+    @Override
+    public void sort(int[] a, int from, int to) {
+        SortSupport.checkRange(a.length, from, to);
+        if (to - from <= INSERTION_THRESHOLD) {
+            InsertionSorter.insertionSort(a, from, to);
+        } else {
+            mergeSort(a, new int[(to - from + 1) / 2], from, to);
+        }
+    }
+
+    @Override
+    public void sort(long[] a, int from, int to) {
+        SortSupport.checkRange(a.length, from, to);
+        if (to - from <= INSERTION_THRESHOLD) {
+            InsertionSorter.insertionSort(a, from, to);
+        } else {
+            mergeSort(a, new long[(to - from + 1) / 2], from, to);
+        }
+    }
+
+    @Override
+    public void sort(short[] a, int from, int to) {
+        SortSupport.checkRange(a.length, from, to);
+        if (to - from <= INSERTION_THRESHOLD) {
+            InsertionSorter.insertionSort(a, from, to);
+        } else {
+            mergeSort(a, new short[(to - from + 1) / 2], from, to);
+        }
+    }
+
+    @Override
+    public void sort(char[] a, int from, int to) {
+        SortSupport.checkRange(a.length, from, to);
+        if (to - from <= INSERTION_THRESHOLD) {
+            InsertionSorter.insertionSort(a, from, to);
+        } else {
+            mergeSort(a, new char[(to - from + 1) / 2], from, to);
+        }
+    }
+
+    @Override
+    public void sort(double[] a, int from, int to) {
+        SortSupport.checkRange(a.length, from, to);
+        int end = SortSupport.moveNaNsToEnd(a, from, to);
+        if (end - from <= INSERTION_THRESHOLD) {
+            InsertionSorter.insertionSort(a, from, end);
+        } else {
+            mergeSort(a, new double[(end - from + 1) / 2], from, end);
+        }
+        SortSupport.orderZeros(a, from, end);
+    }
+
+    @Override
+    public <T> void sort(T[] a, int from, int to, Comparator<? super T> c) {
+        SortSupport.checkRange(a.length, from, to);
+        if (to - from <= INSERTION_THRESHOLD) {
+            InsertionSorter.insertionSort(a, from, to, c);
+        } else {
+            mergeSort(a, new Object[(to - from + 1) / 2], from, to, c);
+        }
+    }
+
+    private static void mergeSort(int[] a, int[] tmp, int lo, int hi) {
+        if (hi - lo <= INSERTION_THRESHOLD) {
+            InsertionSorter.insertionSort(a, lo, hi);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(a, tmp, lo, mid);
+        mergeSort(a, tmp, mid, hi);
+        if (a[mid - 1] <= a[mid]) return;   // halves already in order
+
+        // Only the left half is copied out; the right half is merged in place
+        int n1 = mid - lo;
+        System.arraycopy(a, lo, tmp, 0, n1);
+        int i = 0, j = mid, k = lo;
+        while (i < n1 && j < hi) {
+            a[k++] = a[j] < tmp[i] ? a[j++] : tmp[i++];
+        }
+        System.arraycopy(tmp, i, a, k, n1 - i);
+    }
+
+    private static void mergeSort(long[] a, long[] tmp, int lo, int hi) {
+        if (hi - lo <= INSERTION_THRESHOLD) {
+            InsertionSorter.insertionSort(a, lo, hi);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(a, tmp, lo, mid);
+        mergeSort(a, tmp, mid, hi);
+        if (a[mid - 1] <= a[mid]) return;
+
+        int n1 = mid - lo;
+        System.arraycopy(a, lo, tmp, 0, n1);
+        int i = 0, j = mid, k = lo;
+        while (i < n1 && j < hi) {
+            a[k++] = a[j] < tmp[i] ? a[j++] : tmp[i++];
+        }
+        System.arraycopy(tmp, i, a, k, n1 - i);
+    }
+
+    private static void mergeSort(short[] a, short[] tmp, int lo, int hi) {
+        if (hi - lo <= INSERTION_THRESHOLD) {
+            InsertionSorter.insertionSort(a, lo, hi);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(a, tmp, lo, mid);
+        mergeSort(a, tmp, mid, hi);
+        if (a[mid - 1] <= a[mid]) return;
+
+        int n1 = mid - lo;
+        System.arraycopy(a, lo, tmp, 0, n1);
+        int i = 0, j = mid, k = lo;
+        while (i < n1 && j < hi) {
+            a[k++] = a[j] < tmp[i] ? a[j++] : tmp[i++];
+        }
+        System.arraycopy(tmp, i, a, k, n1 - i);
+    }
+
+    private static void mergeSort(char[] a, char[] tmp, int lo, int hi) {
+        if (hi - lo <= INSERTION_THRESHOLD) {
+            InsertionSorter.insertionSort(a, lo, hi);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(a, tmp, lo, mid);
+        mergeSort(a, tmp, mid, hi);
+        if (a[mid - 1] <= a[mid]) return;
+
+        int n1 = mid - lo;
+        System.arraycopy(a, lo, tmp, 0, n1);
+        int i = 0, j = mid, k = lo;
+        while (i < n1 && j < hi) {
+            a[k++] = a[j] < tmp[i] ? a[j++] : tmp[i++];
+        }
+        System.arraycopy(tmp, i, a, k, n1 - i);
+    }
+
+    private static void mergeSort(double[] a, double[] tmp, int lo, int hi) {
+        if (hi - lo <= INSERTION_THRESHOLD) {
+            InsertionSorter.insertionSort(a, lo, hi);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(a, tmp, lo, mid);
+        mergeSort(a, tmp, mid, hi);
+        if (a[mid - 1] <= a[mid]) return;
+
+        int n1 = mid - lo;
+        System.arraycopy(a, lo, tmp, 0, n1);
+        int i = 0, j = mid, k = lo;
+        while (i < n1 && j < hi) {
+            a[k++] = a[j] < tmp[i] ? a[j++] : tmp[i++];
+        }
+        System.arraycopy(tmp, i, a, k, n1 - i);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void mergeSort(T[] a, Object[] tmp, int lo, int hi, Comparator<? super T> c) {
+        if (hi - lo <= INSERTION_THRESHOLD) {
+            InsertionSorter.insertionSort(a, lo, hi, c);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(a, tmp, lo, mid, c);
+        mergeSort(a, tmp, mid, hi, c);
+        if (c.compare(a[mid - 1], a[mid]) <= 0) return;
+
+        int n1 = mid - lo;
+        System.arraycopy(a, lo, tmp, 0, n1);
+        int i = 0, j = mid, k = lo;
+        while (i < n1 && j < hi) {
+            // Take from the right only if strictly smaller → stable
+            a[k++] = c.compare(a[j], (T) tmp[i]) < 0 ? a[j++] : (T) tmp[i++];
+        }
+        System.arraycopy(tmp, i, a, k, n1 - i);
+    }
+}
+
+
+// ============================================================================
+// 4. QUICK SORTER
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Introsort (see IntroSort in Sorting.java) for every type
+ * - Median-of-three pivot + Hoare partition, recursion on the smaller side
+ * - Heap sort once depth exceeds 2*log2(n) → O(n log n) worst case
+ * - Ranges <= 16 elements finish with insertion sort
+ * - NOT stable (use MERGE for objects when order of equals matters)
+ *
+ * TIME COMPLEXITY: O(n log n) worst case
+ * SPACE COMPLEXITY: O(log n) stack, no buffer
+ */
+final class QuickSorter implements Sorter {
+    private static final int INSERTION_THRESHOLD = 16;
+
+    @Override
+    public void sort(int[] a, int from, int to) {
+        SortSupport.checkRange(a.length, from, to);
+        introSort(a, from, to, SortSupport.depthLimit(to - from));
+    }
+
+    @Override
+    public void sort(long[] a, int from, int to) {
+        SortSupport.checkRange(a.length, from, to);
+        introSort(a, from, to, SortSupport.depthLimit(to - from));
+    }
+
+    @Override
+    public void sort(short[] a, int from, int to) {
+        SortSupport.checkRange(a.length, from, to);
+        introSort(a, from, to, SortSupport.depthLimit(to - from));
+    }
+
+    @Override
+    public void sort(char[] a, int from, int to) {
+        SortSupport.checkRange(a.length, from, to);
+        introSort(a, from, to, SortSupport.depthLimit(to - from));
+    }
+
+    @Override
+    public void sort(double[] a, int from, int to) {
+        SortSupport.checkRange(a.length, from, to);
+        int end = SortSupport.moveNaNsToEnd(a, from, to);
+        introSort(a, from, end, SortSupport.depthLimit(end - from));
+        SortSupport.orderZeros(a, from, end);
+    }
+
+    @Override
+    public <T> void sort(T[] a, int from, int to, Comparator<? super T> c) {
+        SortSupport.checkRange(a.length, from, to);
+        introSort(a, from, to, SortSupport.depthLimit(to - from), c);
+    }
+
+    private static void introSort(int[] a, int lo, int hi, int depthLimit) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(a, lo, hi);
+                return;
+            }
+            swap(a, lo, medianOfThree(a, lo, (lo + hi) >>> 1, hi - 1));
+            int pivot = a[lo];
+            int i = lo - 1, j = hi;
+            while (true) {
+                do { i++; } while (a[i] < pivot);
+                do { j--; } while (a[j] > pivot);
+                if (i >= j) break;
+                swap(a, i, j);
+            }
+            // a[lo..j] <= pivot <= a[j+1..hi-1]
+            if (j + 1 - lo < hi - j - 1) {
+                introSort(a, lo, j + 1, depthLimit);
+                lo = j + 1;
+            } else {
+                introSort(a, j + 1, hi, depthLimit);
+                hi = j + 1;
+            }
+        }
+        InsertionSorter.insertionSort(a, lo, hi);
+    }
+
+    private static int medianOfThree(int[] a, int x, int y, int z) {
+        if (a[x] < a[y]) {
+            if (a[y] < a[z]) return y;
+            return a[x] < a[z] ? z : x;
+        } else {
+            if (a[x] < a[z]) return x;
+            return a[y] < a[z] ? z : y;
+        }
+    }
+
+    private static void heapSort(int[] a, int lo, int hi) {
+        int n = hi - lo;
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(a, lo, i, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(a, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(int[] a, int offset, int i, int n) {
+        int value = a[offset + i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) break;
+            if (child + 1 < n && a[offset + child + 1] > a[offset + child]) child++;
+            if (a[offset + child] <= value) break;
+            a[offset + i] = a[offset + child];
+            i = child;
+        }
+        a[offset + i] = value;
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    private static void introSort(long[] a, int lo, int hi, int depthLimit) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(a, lo, hi);
+                return;
+            }
+            swap(a, lo, medianOfThree(a, lo, (lo + hi) >>> 1, hi - 1));
+            long pivot = a[lo];
+            int i = lo - 1, j = hi;
+            while (true) {
+                do { i++; } while (a[i] < pivot);
+                do { j--; } while (a[j] > pivot);
+                if (i >= j) break;
+                swap(a, i, j);
+            }
+            if (j + 1 - lo < hi - j - 1) {
+                introSort(a, lo, j + 1, depthLimit);
+                lo = j + 1;
+            } else {
+                introSort(a, j + 1, hi, depthLimit);
+                hi = j + 1;
+            }
+        }
+        InsertionSorter.insertionSort(a, lo, hi);
+    }
+
+    private static int medianOfThree(long[] a, int x, int y, int z) {
+        if (a[x] < a[y]) {
+            if (a[y] < a[z]) return y;
+            return a[x] < a[z] ? z : x;
+        } else {
+            if (a[x] < a[z]) return x;
+            return a[y] < a[z] ? z : y;
+        }
+    }
+
+    private static void heapSort(long[] a, int lo, int hi) {
+        int n = hi - lo;
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(a, lo, i, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(a, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] a, int offset, int i, int n) {
+        long value = a[offset + i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) break;
+            if (child + 1 < n && a[offset + child + 1] > a[offset + child]) child++;
+            if (a[offset + child] <= value) break;
+            a[offset + i] = a[offset + child];
+            i = child;
+        }
+        a[offset + i] = value;
+    }
+
+    private static void swap(long[] a, int i, int j) {
+        long temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    private static void introSort(short[] a, int lo, int hi, int depthLimit) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(a, lo, hi);
+                return;
+            }
+            swap(a, lo, medianOfThree(a, lo, (lo + hi) >>> 1, hi - 1));
+            short pivot = a[lo];
+            int i = lo - 1, j = hi;
+            while (true) {
+                do { i++; } while (a[i] < pivot);
+                do { j--; } while (a[j] > pivot);
+                if (i >= j) break;
+                swap(a, i, j);
+            }
+            if (j + 1 - lo < hi - j - 1) {
+                introSort(a, lo, j + 1, depthLimit);
+                lo = j + 1;
+            } else {
+                introSort(a, j + 1, hi, depthLimit);
+                hi = j + 1;
+            }
+        }
+        InsertionSorter.insertionSort(a, lo, hi);
+    }
+
+    private static int medianOfThree(short[] a, int x, int y, int z) {
+        if (a[x] < a[y]) {
+            if (a[y] < a[z]) return y;
+            return a[x] < a[z] ? z : x;
+        } else {
+            if (a[x] < a[z]) return x;
+            return a[y] < a[z] ? z : y;
+        }
+    }
+
+    private static void heapSort(short[] a, int lo, int hi) {
+        int n = hi - lo;
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(a, lo, i, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(a, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(short[] a, int offset, int i, int n) {
+        short value = a[offset + i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) break;
+            if (child + 1 < n && a[offset + child + 1] > a[offset + child]) child++;
+            if (a[offset + child] <= value) break;
+            a[offset + i] = a[offset + child];
+            i = child;
+        }
+        a[offset + i] = value;
+    }
+
+    private static void swap(short[] a, int i, int j) {
+        short temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    private static void introSort(char[] a, int lo, int hi, int depthLimit) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(a, lo, hi);
+                return;
+            }
+            swap(a, lo, medianOfThree(a, lo, (lo + hi) >>> 1, hi - 1));
+            char pivot = a[lo];
+            int i = lo - 1, j = hi;
+            while (true) {
+                do { i++; } while (a[i] < pivot);
+                do { j--; } while (a[j] > pivot);
+                if (i >= j) break;
+                swap(a, i, j);
+            }
+            if (j + 1 - lo < hi - j - 1) {
+                introSort(a, lo, j + 1, depthLimit);
+                lo = j + 1;
+            } else {
+                introSort(a, j + 1, hi, depthLimit);
+                hi = j + 1;
+            }
+        }
+        InsertionSorter.insertionSort(a, lo, hi);
+    }
+
+    private static int medianOfThree(char[] a, int x, int y, int z) {
+        if (a[x] < a[y]) {
+            if (a[y] < a[z]) return y;
+            return a[x] < a[z] ? z : x;
+        } else {
+            if (a[x] < a[z]) return x;
+            return a[y] < a[z] ? z : y;
+        }
+    }
+
+    private static void heapSort(char[] a, int lo, int hi) {
+        int n = hi - lo;
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(a, lo, i, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(a, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(char[] a, int offset, int i, int n) {
+        char value = a[offset + i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) break;
+            if (child + 1 < n && a[offset + child + 1] > a[offset + child]) child++;
+            if (a[offset + child] <= value) break;
+            a[offset + i] = a[offset + child];
+            i = child;
+        }
+        a[offset + i] = value;
+    }
+
+    private static void swap(char[] a, int i, int j) {
+        char temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    private static void introSort(double[] a, int lo, int hi, int depthLimit) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(a, lo, hi);
+                return;
+            }
+            swap(a, lo, medianOfThree(a, lo, (lo + hi) >>> 1, hi - 1));
+            double pivot = a[lo];
+            int i = lo - 1, j = hi;
+            while (true) {
+                do { i++; } while (a[i] < pivot);
+                do { j--; } while (a[j] > pivot);
+                if (i >= j) break;
+                swap(a, i, j);
+            }
+            if (j + 1 - lo < hi - j - 1) {
+                introSort(a, lo, j + 1, depthLimit);
+                lo = j + 1;
+            } else {
+                introSort(a, j + 1, hi, depthLimit);
+                hi = j + 1;
+            }
+        }
+        InsertionSorter.insertionSort(a, lo, hi);
+    }
+
+    private static int medianOfThree(double[] a, int x, int y, int z) {
+        if (a[x] < a[y]) {
+            if (a[y] < a[z]) return y;
+            return a[x] < a[z] ? z : x;
+        } else {
+            if (a[x] < a[z]) return x;
+            return a[y] < a[z] ? z : y;
+        }
+    }
+
+    private static void heapSort(double[] a, int lo, int hi) {
+        int n = hi - lo;
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(a, lo, i, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(a, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] a, int offset, int i, int n) {
+        double value = a[offset + i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) break;
+            if (child + 1 < n && a[offset + child + 1] > a[offset + child]) child++;
+            if (a[offset + child] <= value) break;
+            a[offset + i] = a[offset + child];
+            i = child;
+        }
+        a[offset + i] = value;
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    private static <T> void introSort(T[] a, int lo, int hi, int depthLimit, Comparator<? super T> c) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(a, lo, hi, c);
+                return;
+            }
+            swap(a, lo, medianOfThree(a, lo, (lo + hi) >>> 1, hi - 1, c));
+            T pivot = a[lo];
+            int i = lo - 1, j = hi;
+            while (true) {
+                do { i++; } while (c.compare(a[i], pivot) < 0);
+                do { j--; } while (c.compare(a[j], pivot) > 0);
+                if (i >= j) break;
+                swap(a, i, j);
+            }
+            if (j + 1 - lo < hi - j - 1) {
+                introSort(a, lo, j + 1, depthLimit, c);
+                lo = j + 1;
+            } else {
+                introSort(a, j + 1, hi, depthLimit, c);
+                hi = j + 1;
+            }
+        }
+        InsertionSorter.insertionSort(a, lo, hi, c);
+    }
+
+    private static <T> int medianOfThree(T[] a, int x, int y, int z, Comparator<? super T> c) {
+        if (c.compare(a[x], a[y]) < 0) {
+            if (c.compare(a[y], a[z]) < 0) return y;
+            return c.compare(a[x], a[z]) < 0 ? z : x;
+        } else {
+            if (c.compare(a[x], a[z]) < 0) return x;
+            return c.compare(a[y], a[z]) < 0 ? z : y;
+        }
+    }
+
+    private static <T> void heapSort(T[] a, int lo, int hi, Comparator<? super T> c) {
+        int n = hi - lo;
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(a, lo, i, n, c);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(a, lo, 0, end, c);
+        }
+    }
+
+    private static <T> void siftDown(T[] a, int offset, int i, int n, Comparator<? super T> c) {
+        T value = a[offset + i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) break;
+            if (child + 1 < n && c.compare(a[offset + child + 1], a[offset + child]) > 0) child++;
+            if (c.compare(a[offset + child], value) <= 0) break;
+            a[offset + i] = a[offset + child];
+            i = child;
+        }
+        a[offset + i] = value;
+    }
+
+    private static <T> void swap(T[] a, int i, int j) {
+        T temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+}
+
+
+// ============================================================================
+// EXAMPLE
+// ============================================================================
+class SorterExample {
+    public static void main(String[] args) {
+        int[] arr = {64, 34, 25, 12, 22, 11, 90, 5};
+        Sorter.QUICK.sort(arr, 2, 6);   // only arr[2..5]
+        System.out.println("Range sort: " + java.util.Arrays.toString(arr));
+        // Output: [64, 34, 11, 12, 22, 25, 90, 5]
+
+        double[] d = {3.5, Double.NaN, 0.0, -1.0, -0.0, Double.NEGATIVE_INFINITY};
+        Sorter.MERGE.sort(d);
+        System.out.println("Doubles: " + java.util.Arrays.toString(d));
+        // Output: [-Infinity, -1.0, -0.0, 0.0, 3.5, NaN]
+
+        char[] c = {'d', 'a', 'c', 'b'};
+        Sorter.INSERTION.sort(c);
+        System.out.println("Chars: " + new String(c));
+        // Output: abcd
+
+        String[] names = {"Ravi", "Anu", "Zoya", "Bala"};
+        Sorter.MERGE.sort(names, Comparator.comparing(String::length));
+        System.out.println("By length (stable): " + java.util.Arrays.toString(names));
+        // Output: [Anu, Ravi, Zoya, Bala]
+    }
+}
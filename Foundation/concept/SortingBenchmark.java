@@ -0,0 +1,168 @@
+/*
+ * BENCHMARKING SORTS - CONCEPT NOTES FOR REVISION
+ * ========================================================
+ * Measuring the algorithms in Sorting.java instead of trusting the
+ * complexity table
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// ============================================================================
+// 1. SORTING BENCHMARK
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Every sort in Sorting.java + Arrays.sort / Arrays.parallelSort
+ *   as baselines, on every Distribution, sizes 16 .. maxSize (x16 steps)
+ * - Reports ops/s, ns per element and bytes allocated per sort
+ * - B/op is the CALLING thread's allocation (see Bench): parallel sorts
+ *   allocate on pool threads too, so their rows are marked * and read low;
+ *   for real numbers use the JMH suite (jmh/benchmarks, -prof gc counts
+ *   every thread)
+ * - O(n²) algorithms are skipped above 2^14 elements; the recursive ones
+ *   also recurse n deep, and Lomuto Quick Sort does on non-random inputs
+ * - Each result is checked against Arrays.sort once
+ *
+ * USAGE:
+ *   javac -encoding UTF-8 -d out Sorting.java SortingApi.java ParallelSorting.java \
+ *         AdaptiveSorting.java Bench.java Distribution.java SortingBenchmark.java
+ *   java -Xmx8g -cp out SortingBenchmark [maxSize] [measureMillis]
+ *   e.g. maxSize = 100000000 for 10^8 (4 copies of 400 MB → use -Xmx2g+)
+ *   JMH version (forks, -prof gc): see jmh/benchmarks/SortBenchmark.java
+ *
+ * SAMPLE OUTPUT (excerpt):
+ * algorithm            distribution          n          ops/s    ns/elem         B/op
+ * Merge Sort           RANDOM             4096        3,382.1      72.19      139,232
+ * Quick Sort           RANDOM             4096        2,670.9      91.41            0
+ * Parallel Merge       RANDOM             4096        3,498.8      69.78       16,440*
+ * ...
+ * * B/op counts the calling thread only; these sorts also allocate on
+ *   pool threads (the JMH suite's -prof gc counts every thread)
+ */
+class SortingBenchmark {
+    private static final int QUADRATIC_LIMIT = 1 << 14;
+    private static final long SEED = 42;
+    // Small inputs are sorted in batches of about this many elements
+    private static final int BATCH_ELEMENTS = 1 << 16;
+
+    private static final class Algorithm {
+        final String name;
+        final Consumer<int[]> sort;
+        final boolean quadratic;            // O(n²) on every input
+        final boolean quadraticUnlessRandom; // O(n²) / n-deep on structured input
+        final boolean parallel;             // allocates on pool threads too
+
+        Algorithm(String name, Consumer<int[]> sort, boolean quadratic, boolean quadraticUnlessRandom) {
+            this(name, sort, quadratic, quadraticUnlessRandom, false);
+        }
+
+        Algorithm(String name, Consumer<int[]> sort, boolean quadratic, boolean quadraticUnlessRandom,
+                  boolean parallel) {
+            this.name = name;
+            this.sort = sort;
+            this.quadratic = quadratic;
+            this.quadraticUnlessRandom = quadraticUnlessRandom;
+            this.parallel = parallel;
+        }
+
+        boolean supports(Distribution d, int n) {
+            if (n <= QUADRATIC_LIMIT) return true;
+            if (quadratic) return false;
+            return !(quadraticUnlessRandom && d != Distribution.RANDOM);
+        }
+    }
+
+    static List<Algorithm> algorithms() {
+        List<Algorithm> list = new ArrayList<>();
+        list.add(new Algorithm("Bubble Sort", BubbleSort::bubbleSort, true, false));
+        list.add(new Algorithm("Selection Sort", SelectionSort::selectionSort, true, false));
+        list.add(new Algorithm("Insertion Sort", InsertionSort::insertionSort, true, false));
+        list.add(new Algorithm("Merge Sort", MergeSort::mergeSort, false, false));
+        list.add(new Algorithm("Recursive Bubble",
+            a -> { if (a.length > 0) RecursiveBubbleSort.recursiveBubbleSort(a, a.length); }, true, false));
+        list.add(new Algorithm("Recursive Insert",
+            a -> RecursiveInsertionSort.recursiveInsertionSort(a, a.length), true, false));
+        list.add(new Algorithm("Quick Sort", QuickSort::quickSort, false, true));
+        list.add(new Algorithm("Quick Sort 3-way",
+            a -> QuickSort.quickSort(a, QuickSort.PartitionScheme.THREE_WAY), false, false));
+        list.add(new Algorithm("Quick Sort 2-pivot",
+            a -> QuickSort.quickSort(a, QuickSort.PartitionScheme.DUAL_PIVOT), false, false));
+        list.add(new Algorithm("Intro Sort", IntroSort::introSort, false, false));
+        list.add(new Algorithm("TimSort", TimSort::timSort, false, false));
+        list.add(new Algorithm("Radix Sort", RadixSort::radixSort, false, false));
+        list.add(new Algorithm("Parallel Merge", ParallelMergeSort::parallelMergeSort, false, false, true));
+        list.add(new Algorithm("Parallel Radix", RadixSort::parallelRadixSort, false, false, true));
+        list.add(new Algorithm("Sample Sort", SampleSort::sampleSort, false, false, true));
+        list.add(new Algorithm("Arrays.sort", Arrays::sort, false, false));
+        list.add(new Algorithm("Arrays.parallelSort", Arrays::parallelSort, false, false, true));
+        return list;
+    }
+
+    // Name → sort, for the JMH suite in jmh/benchmarks: classes in a named
+    // package cannot import from this unnamed one, so it looks this up
+    static Map<String, Consumer<int[]>> sortsByName() {
+        Map<String, Consumer<int[]>> sorts = new LinkedHashMap<>();
+        for (Algorithm alg : algorithms()) sorts.put(alg.name, alg.sort);
+        return sorts;
+    }
+
+    static List<Integer> sizes(int maxSize) {
+        List<Integer> sizes = new ArrayList<>();
+        for (long n = 16; n < maxSize; n *= 16) sizes.add((int) n);
+        sizes.add(maxSize);
+        return sizes;
+    }
+
+    // Sorts copies of input; copies are made in prepare(), outside the timing
+    static Bench.BatchOp sortOp(Consumer<int[]> sort, int[] input) {
+        int reps = Math.max(1, BATCH_ELEMENTS / Math.max(1, input.length));
+        int[][] work = new int[reps][input.length];
+        return new Bench.BatchOp() {
+            public int prepare() {
+                for (int[] w : work) System.arraycopy(input, 0, w, 0, input.length);
+                return reps;
+            }
+
+            public void run() {
+                for (int[] w : work) sort.accept(w);
+            }
+        };
+    }
+
+    public static void main(String[] args) {
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+        long measureNanos = (args.length > 1 ? Long.parseLong(args[1]) : 500) * 1_000_000L;
+        long warmupNanos = measureNanos / 2;
+
+        System.out.printf("%-20s %-12s %10s %14s %10s %12s%n",
+            "algorithm", "distribution", "n", "ops/s", "ns/elem", "B/op");
+        for (int n : sizes(maxSize)) {
+            for (Distribution d : Distribution.values()) {
+                int[] input = d.generate(n, SEED);
+                int[] expected = input.clone();
+                Arrays.sort(expected);
+
+                for (Algorithm alg : algorithms()) {
+                    if (!alg.supports(d, n)) continue;
+
+                    int[] check = input.clone();
+                    alg.sort.accept(check);
+                    if (!Arrays.equals(check, expected)) {
+                        throw new IllegalStateException(alg.name + " failed on " + d + " n=" + n);
+                    }
+
+                    Bench.Result r = Bench.run(sortOp(alg.sort, input), warmupNanos, measureNanos);
+                    System.out.printf("%-20s %-12s %10d %,14.1f %10.2f %,12.0f%s%n",
+                        alg.name, d, n, 1e9 / r.nsPerOp, r.nsPerOp / n, r.bytesPerOp,
+                        alg.parallel ? "*" : "");
+                }
+            }
+        }
+        System.out.println("* B/op counts the calling thread only; these sorts also allocate on");
+        System.out.println("  pool threads (the JMH suite's -prof gc counts every thread)");
+    }
+}
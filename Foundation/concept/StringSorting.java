@@ -0,0 +1,483 @@
+/*
+ * STRING SORTING - CONCEPT NOTES FOR REVISION
+ * ========================================================
+ * Sorting String keys without re-comparing their common prefixes
+ */
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+// ============================================================================
+// 1. MSD RADIX SORT (STRINGS)
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Arrays.sort / Collections.sort on Strings: every comparison walks the
+ *   common prefix again → "student-000123" vs "student-000124" costs 13
+ *   char compares before the answer; n log n comparisons of that
+ * - MSD (most significant digit first) radix sort: bucket the strings by
+ *   their char at position d, then sort every bucket by position d + 1
+ *   → each char is looked at O(1) times per level, prefixes never re-read
+ * - Strings that END at position d go to bucket 0 (before every char):
+ *   "ab" < "abc"
+ * - CACHED CHARACTERS: one pass reads charAt(d) of every string into an
+ *   int[] (and finds min / max); counting and distributing then use the
+ *   cache → one String dereference per element per level instead of two,
+ *   and the count array only spans min..max (26 letters, not 65536 chars)
+ * - SHARED PREFIX: if all strings have the same char at d, nothing moves;
+ *   go straight to d + 1 without recursing or copying
+ * - SMALL BUCKETS (<= 16): Insertion Sort comparing from position d on;
+ *   a 65536- or 256-entry count array is not worth it for a few strings
+ * - byte[][] (UTF-8): same with a fixed 256-entry alphabet (unsigned
+ *   bytes). UTF-8 byte order = Unicode code point order; String order is
+ *   UTF-16 order → they only differ for chars above U+FFFF vs U+E000..U+FFFF
+ *
+ * TIME COMPLEXITY: O(D + n·R') where D = chars needed to tell the strings
+ *   apart (distinguishing prefixes), R' = alphabet span of a bucket
+ *
+ * SPACE COMPLEXITY: O(n) for the aux + cache arrays + one count array per
+ *   recursion level
+ *
+ * EXAMPLE:
+ * [she, sells, sea, shells, by, the]
+ * d=0 : b | s s s s | t        → [by] [she sells sea shells] [the]
+ * d=1 on s-bucket: e e | h h   → [sells sea] [she shells]
+ * d=2 : a | l   ,   e e (shared prefix, no move) → d=3: end | l
+ * Output: [by, sea, sells, she, shells, the]
+ */
+class MsdStringSort {
+    static final int CUTOFF = 16;
+
+    // ---------------------------- String[] ----------------------------
+
+    public static void sort(String[] a) {
+        int n = a.length;
+        sort(a, 0, n, 0, new String[n], new int[n]);
+    }
+
+    // Sorts a[lo, hi), whose strings all share their first d chars
+    private static void sort(String[] a, int lo, int hi, int d, String[] aux, int[] digit) {
+        while (hi - lo > CUTOFF) {
+            // 1. Cache the char at d (-1 = the string ends before d)
+            int min = Integer.MAX_VALUE, max = -1;
+            boolean ended = false;
+            for (int i = lo; i < hi; i++) {
+                String s = a[i];
+                int c = d < s.length() ? s.charAt(d) : -1;
+                digit[i] = c;
+                if (c < 0) {
+                    ended = true;
+                } else {
+                    if (c < min) min = c;
+                    if (c > max) max = c;
+                }
+            }
+            if (max < 0) return;   // every string ends here: all equal
+            if (!ended && min == max) {
+                d++;               // shared prefix char: nothing to move
+                continue;
+            }
+
+            // 2. Count; bucket 0 = ended strings, bucket c - min + 1 = char c
+            int buckets = max - min + 2;
+            int[] count = new int[buckets + 1];
+            for (int i = lo; i < hi; i++) count[bucket(digit[i], min) + 1]++;
+            for (int b = 0; b < buckets; b++) count[b + 1] += count[b];
+
+            // 3. Distribute through aux and copy back
+            for (int i = lo; i < hi; i++) aux[count[bucket(digit[i], min)]++] = a[i];
+            System.arraycopy(aux, 0, a, lo, hi - lo);
+
+            // 4. Now count[b] = end of bucket b; sort every char bucket by d + 1
+            for (int b = 1; b < buckets; b++) {
+                if (count[b] - count[b - 1] > 1) {
+                    sort(a, lo + count[b - 1], lo + count[b], d + 1, aux, digit);
+                }
+            }
+            return;
+        }
+        insertionSort(a, lo, hi, d);
+    }
+
+    private static int bucket(int c, int min) {
+        return c < 0 ? 0 : c - min + 1;
+    }
+
+    // Insertion Sort on a[lo, hi), comparing from position d on
+    static void insertionSort(String[] a, int lo, int hi, int d) {
+        for (int i = lo + 1; i < hi; i++) {
+            String s = a[i];
+            int j = i;
+            while (j > lo && less(s, a[j - 1], d)) {
+                a[j] = a[j - 1];
+                j--;
+            }
+            a[j] = s;
+        }
+    }
+
+    // s < t, given that their first d chars are equal
+    static boolean less(String s, String t, int d) {
+        int n = Math.min(s.length(), t.length());
+        for (int i = d; i < n; i++) {
+            char x = s.charAt(i), y = t.charAt(i);
+            if (x != y) return x < y;
+        }
+        return s.length() < t.length();
+    }
+
+    // ---------------------------- byte[][] (UTF-8) ----------------------------
+
+    public static void sort(byte[][] a) {
+        int n = a.length;
+        sort(a, 0, n, 0, new byte[n][], new int[n]);
+    }
+
+    private static void sort(byte[][] a, int lo, int hi, int d, byte[][] aux, int[] digit) {
+        while (hi - lo > CUTOFF) {
+            int first = -2;
+            boolean shared = true;
+            for (int i = lo; i < hi; i++) {
+                byte[] s = a[i];
+                int c = d < s.length ? s[d] & 0xFF : -1;
+                digit[i] = c;
+                if (first == -2) first = c;
+                else if (c != first) shared = false;
+            }
+            if (shared) {
+                if (first < 0) return;
+                d++;
+                continue;
+            }
+
+            int[] count = new int[258];
+            for (int i = lo; i < hi; i++) count[digit[i] + 2]++;
+            for (int b = 0; b < 257; b++) count[b + 1] += count[b];
+
+            for (int i = lo; i < hi; i++) aux[count[digit[i] + 1]++] = a[i];
+            System.arraycopy(aux, 0, a, lo, hi - lo);
+
+            for (int b = 1; b < 257; b++) {
+                if (count[b] - count[b - 1] > 1) {
+                    sort(a, lo + count[b - 1], lo + count[b], d + 1, aux, digit);
+                }
+            }
+            return;
+        }
+        insertionSort(a, lo, hi, d);
+    }
+
+    static void insertionSort(byte[][] a, int lo, int hi, int d) {
+        for (int i = lo + 1; i < hi; i++) {
+            byte[] s = a[i];
+            int j = i;
+            while (j > lo && less(s, a[j - 1], d)) {
+                a[j] = a[j - 1];
+                j--;
+            }
+            a[j] = s;
+        }
+    }
+
+    static boolean less(byte[] s, byte[] t, int d) {
+        return Arrays.compareUnsigned(s, d, s.length, t, d, t.length) < 0;
+    }
+
+    public static void main(String[] args) {
+        String[] words = {"she", "sells", "sea", "shells", "by", "the", "sea", "shore"};
+        sort(words);
+        System.out.println("MSD: " + Arrays.toString(words));
+        // Output: MSD: [by, sea, sea, sells, she, shells, shore, the]
+
+        byte[][] utf8 = {"zoë".getBytes(StandardCharsets.UTF_8), "zoe".getBytes(StandardCharsets.UTF_8),
+                         "zo".getBytes(StandardCharsets.UTF_8)};
+        sort(utf8);
+        StringBuilder sb = new StringBuilder();
+        for (byte[] s : utf8) sb.append(new String(s, StandardCharsets.UTF_8)).append(' ');
+        System.out.println("MSD (UTF-8): " + sb.toString().trim());
+        // Output: MSD (UTF-8): zo zoe zoë
+    }
+}
+
+
+// ============================================================================
+// 2. MULTIKEY QUICKSORT (THREE-WAY RADIX QUICKSORT)
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Quick Sort's 3-way partition, but on ONE CHAR at position d instead
+ *   of whole strings: pivot char v
+ *   [ char < v | char == v | char > v ]
+ *   → < and > parts: sort again on the SAME position d
+ *   → == part: all share one more char → sort on d + 1 (a loop, not a call)
+ * - Compares single chars, never whole strings → prefixes not re-read
+ * - No count arrays at all: better than MSD when the alphabet is large
+ *   (Unicode) or buckets are small; in place, no aux array
+ * - Pivot char: median of the chars of the first, middle and last string
+ * - Small ranges (<= 16): the same Insertion Sort as MSD, from position d
+ * - With a payload array (e.g. the Student records behind the name keys)
+ *   every swap moves both arrays, like KeyPayloadSort.sortUnstable
+ * - NOT stable
+ *
+ * TIME COMPLEXITY: O(D + n log n) char compares on average, D =
+ *   distinguishing prefix length total
+ *
+ * SPACE COMPLEXITY: O(log n) recursion on average
+ *
+ * EXAMPLE (d = 0, pivot char 's'):
+ * [she, by, sells, the, sea]
+ * → [by] [she sells sea] [the]
+ * == part on d = 1, pivot 'h': [sells sea] [she] []
+ * → ... Output: [by, sea, sells, she, the]
+ */
+class MultikeyQuicksort {
+    static final int CUTOFF = 16;
+
+    // ---------------------------- String[] ----------------------------
+
+    public static void sort(String[] a) {
+        sort(a, null, 0, a.length, 0);
+    }
+
+    // Sorts keys and moves payload[i] along with keys[i]
+    public static void sort(String[] keys, Object[] payload) {
+        if (keys.length != payload.length) {
+            throw new IllegalArgumentException("keys and payload differ in length: "
+                + keys.length + " vs " + payload.length);
+        }
+        sort(keys, payload, 0, keys.length, 0);
+    }
+
+    // Sorts a[lo, hi), whose strings all share their first d chars; p may be null
+    private static void sort(String[] a, Object[] p, int lo, int hi, int d) {
+        while (hi - lo > CUTOFF) {
+            int v = charAt(a[medianOf3(a, lo, (lo + hi) >>> 1, hi - 1, d)], d);
+            int lt = lo, gt = hi - 1, i = lo;
+            while (i <= gt) {
+                int c = charAt(a[i], d);
+                if (c < v) swap(a, p, lt++, i++);
+                else if (c > v) swap(a, p, i, gt--);
+                else i++;
+            }
+            // a[lo, lt) < v = a[lt, gt] < a(gt, hi)
+            sort(a, p, lo, lt, d);
+            sort(a, p, gt + 1, hi, d);
+            if (v < 0) return;   // the middle strings all end at d: equal
+            lo = lt;
+            hi = gt + 1;
+            d++;
+        }
+        if (p == null) {
+            MsdStringSort.insertionSort(a, lo, hi, d);
+        } else {
+            insertionSort(a, p, lo, hi, d);
+        }
+    }
+
+    private static int charAt(String s, int d) {
+        return d < s.length() ? s.charAt(d) : -1;
+    }
+
+    private static int medianOf3(String[] a, int i, int j, int k, int d) {
+        int x = charAt(a[i], d), y = charAt(a[j], d), z = charAt(a[k], d);
+        return x < y ? (y < z ? j : x < z ? k : i)
+                     : (x < z ? i : y < z ? k : j);
+    }
+
+    private static void swap(String[] a, Object[] p, int i, int j) {
+        String t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+        if (p != null) {
+            Object o = p[i];
+            p[i] = p[j];
+            p[j] = o;
+        }
+    }
+
+    private static void insertionSort(String[] a, Object[] p, int lo, int hi, int d) {
+        for (int i = lo + 1; i < hi; i++) {
+            String s = a[i];
+            Object o = p[i];
+            int j = i;
+            while (j > lo && MsdStringSort.less(s, a[j - 1], d)) {
+                a[j] = a[j - 1];
+                p[j] = p[j - 1];
+                j--;
+            }
+            a[j] = s;
+            p[j] = o;
+        }
+    }
+
+    // ---------------------------- byte[][] (UTF-8) ----------------------------
+
+    public static void sort(byte[][] a) {
+        sort(a, 0, a.length, 0);
+    }
+
+    private static void sort(byte[][] a, int lo, int hi, int d) {
+        while (hi - lo > CUTOFF) {
+            int v = byteAt(a[medianOf3(a, lo, (lo + hi) >>> 1, hi - 1, d)], d);
+            int lt = lo, gt = hi - 1, i = lo;
+            while (i <= gt) {
+                int c = byteAt(a[i], d);
+                if (c < v) swap(a, lt++, i++);
+                else if (c > v) swap(a, i, gt--);
+                else i++;
+            }
+            sort(a, lo, lt, d);
+            sort(a, gt + 1, hi, d);
+            if (v < 0) return;
+            lo = lt;
+            hi = gt + 1;
+            d++;
+        }
+        MsdStringSort.insertionSort(a, lo, hi, d);
+    }
+
+    private static int byteAt(byte[] s, int d) {
+        return d < s.length ? s[d] & 0xFF : -1;
+    }
+
+    private static int medianOf3(byte[][] a, int i, int j, int k, int d) {
+        int x = byteAt(a[i], d), y = byteAt(a[j], d), z = byteAt(a[k], d);
+        return x < y ? (y < z ? j : x < z ? k : i)
+                     : (x < z ? i : y < z ? k : j);
+    }
+
+    private static void swap(byte[][] a, int i, int j) {
+        byte[] t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    public static void main(String[] args) {
+        String[] words = {"she", "sells", "sea", "shells", "by", "the", "sea", "shore"};
+        sort(words);
+        System.out.println("Multikey: " + Arrays.toString(words));
+        // Output: Multikey: [by, sea, sea, sells, she, shells, shore, the]
+
+        // Student(id, name) records sorted by name
+        String[] names = {"Charlie", "Alice", "Bob", "Alicia"};
+        Object[] ids = {3, 1, 2, 4};
+        sort(names, ids);
+        System.out.println(Arrays.toString(names) + " ids " + Arrays.toString(ids));
+        // Output: [Alice, Alicia, Bob, Charlie] ids [1, 4, 2, 3]
+    }
+}
+
+
+// ============================================================================
+// 3. STRING SORT BENCHMARK
+// ============================================================================
+/*
+ * CONCEPT:
+ * - Arrays.sort (TimSort + String.compareTo, what Collections.sort uses)
+ *   vs MSD radix vs multikey quicksort, on String[] and UTF-8 byte[][]
+ * - Keys with long shared prefixes ("student-" + zero-padded id, URLs)
+ *   are where comparison sorts lose most; random short words are the
+ *   easy case for everyone
+ *
+ * USAGE:
+ *   java -cp out StringSortBenchmark [n] [measureMillis]
+ *
+ * SAMPLE OUTPUT (defaults: n = 1048576, 1000 ms per row):
+ * keys     sort              ns/elem
+ * words    Arrays.sort        857.69
+ * words    MSD                113.79
+ * words    Multikey           576.12
+ * words    MSD byte            68.82
+ * words    Multikey byte      275.78
+ * ids      Arrays.sort        752.33
+ * ids      MSD                304.40
+ * ids      Multikey           645.14
+ * ids      MSD byte           169.86
+ * ids      Multikey byte      399.77
+ * urls     Arrays.sort       1121.66
+ * urls     MSD                699.10
+ * urls     Multikey          1057.68
+ * urls     MSD byte           485.02
+ * urls     Multikey byte      845.53
+ */
+class StringSortBenchmark {
+    private interface Sort<T> {
+        void apply(T[] a);
+    }
+
+    private static <T> Bench.Result measure(Sort<T> sort, T[] input, long nanos) {
+        T[] work = input.clone();
+        Bench.BatchOp op = new Bench.BatchOp() {
+            public int prepare() {
+                System.arraycopy(input, 0, work, 0, input.length);
+                return 1;
+            }
+
+            public void run() {
+                sort.apply(work);
+            }
+        };
+        return Bench.run(op, nanos, nanos);
+    }
+
+    static String[] keys(String kind, int n, long seed) {
+        Random rnd = new Random(seed);
+        String[] a = new String[n];
+        for (int i = 0; i < n; i++) {
+            switch (kind) {
+                case "ids":
+                    a[i] = String.format("student-%09d", rnd.nextInt(1_000_000_000));
+                    break;
+                case "urls":
+                    a[i] = "https://example.com/courses/" + (char) ('a' + rnd.nextInt(26))
+                        + "/students/" + rnd.nextInt(n);
+                    break;
+                default:   // random lowercase words, 3..10 letters
+                    char[] w = new char[3 + rnd.nextInt(8)];
+                    for (int j = 0; j < w.length; j++) w[j] = (char) ('a' + rnd.nextInt(26));
+                    a[i] = new String(w);
+            }
+        }
+        return a;
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+        long nanos = (args.length > 1 ? Long.parseLong(args[1]) : 1000) * 1_000_000L;
+
+        System.out.printf("%-8s %-14s %10s%n", "keys", "sort", "ns/elem");
+        for (String kind : new String[] {"words", "ids", "urls"}) {
+            String[] input = keys(kind, n, 42);
+            byte[][] bytes = new byte[n][];
+            for (int i = 0; i < n; i++) bytes[i] = input[i].getBytes(StandardCharsets.UTF_8);
+
+            // All sorts must agree before anything is timed
+            String[] expected = input.clone();
+            Arrays.sort(expected);
+            String[] msd = input.clone(), mkq = input.clone();
+            MsdStringSort.sort(msd);
+            MultikeyQuicksort.sort(mkq);
+            byte[][] msdBytes = bytes.clone(), mkqBytes = bytes.clone();
+            MsdStringSort.sort(msdBytes);
+            MultikeyQuicksort.sort(mkqBytes);
+            for (int i = 0; i < n; i++) {
+                String e = expected[i];
+                if (!e.equals(msd[i]) || !e.equals(mkq[i])
+                        || !e.equals(new String(msdBytes[i], StandardCharsets.UTF_8))
+                        || !e.equals(new String(mkqBytes[i], StandardCharsets.UTF_8))) {
+                    throw new IllegalStateException(kind + ": mismatch at " + i);
+                }
+            }
+
+            report(kind, "Arrays.sort", measure(Arrays::sort, input, nanos), n);
+            report(kind, "MSD", measure(MsdStringSort::sort, input, nanos), n);
+            report(kind, "Multikey", measure(MultikeyQuicksort::sort, input, nanos), n);
+            report(kind, "MSD byte", measure(MsdStringSort::sort, bytes, nanos), n);
+            report(kind, "Multikey byte", measure(MultikeyQuicksort::sort, bytes, nanos), n);
+        }
+    }
+
+    private static void report(String kind, String name, Bench.Result r, int n) {
+        System.out.printf("%-8s %-14s %10.2f%n", kind, name, r.nsPerOp / n);
+    }
+}
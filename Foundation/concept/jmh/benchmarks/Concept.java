@@ -0,0 +1,71 @@
+package benchmarks;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+/*
+ * Bridge to the concept notes, which live in the unnamed package: a class
+ * in a named package (JMH needs one) cannot import from it. Everything is
+ * looked up by name ONCE, in @Setup, and then used through plain
+ * interfaces (Consumer, Queue), so the measured code has no reflection.
+ */
+final class Concept {
+    private Concept() {}
+
+    // SortingBenchmark.sortsByName().get(name)
+    @SuppressWarnings("unchecked")
+    static Consumer<int[]> sort(String name) {
+        Map<String, Consumer<int[]>> sorts =
+            (Map<String, Consumer<int[]>>) call("SortingBenchmark", "sortsByName", null, new Class<?>[0]);
+        Consumer<int[]> sort = sorts.get(name);
+        if (sort == null) throw new IllegalArgumentException("Unknown sort: " + name + ", known: " + sorts.keySet());
+        return sort;
+    }
+
+    // SmallSort.kernels(n).get(name): sorts every block of n elements
+    @SuppressWarnings("unchecked")
+    static Consumer<int[]> smallSort(String name, int n) {
+        Map<String, Consumer<int[]>> kernels =
+            (Map<String, Consumer<int[]>>) call("SmallSort", "kernels", null, new Class<?>[] {int.class}, n);
+        Consumer<int[]> kernel = kernels.get(name);
+        if (kernel == null) throw new IllegalArgumentException("Unknown kernel: " + name + ", known: " + kernels.keySet());
+        return kernel;
+    }
+
+    // Distribution.valueOf(distribution).generate(n, seed)
+    static int[] input(String distribution, int n, long seed) {
+        Object d = call("Distribution", "valueOf", null, new Class<?>[] {String.class}, distribution);
+        return (int[]) call("Distribution", "generate", d, new Class<?>[] {int.class, long.class}, n, seed);
+    }
+
+    // new <className>(capacity) for one of the ring queues
+    @SuppressWarnings("unchecked")
+    static <E> Queue<E> newQueue(String className, int capacity) {
+        try {
+            Constructor<?> c = Class.forName(className).getDeclaredConstructor(int.class);
+            c.setAccessible(true);
+            return (Queue<E>) c.newInstance(capacity);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(className, e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(className, e);
+        }
+    }
+
+    // Static method when target is null, instance method otherwise
+    static Object call(String className, String method, Object target, Class<?>[] types, Object... args) {
+        try {
+            Method m = Class.forName(className).getDeclaredMethod(method, types);
+            m.setAccessible(true);
+            return m.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(className + "." + method, e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(className + "." + method, e);
+        }
+    }
+}
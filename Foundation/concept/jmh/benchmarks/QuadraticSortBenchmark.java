@@ -0,0 +1,65 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * JMH SORT BENCHMARK - O(n²) SORTS, n = 16 .. 2^14
+ * ========================================================
+ * CONCEPT:
+ * - Same measurement as SortBenchmark for the sorts that are quadratic
+ *   (or recurse n deep) on some input, so they stop at 2^14 elements
+ *   like SortingBenchmark.QUADRATIC_LIMIT
+ * - Lomuto Quick Sort is here: sorted / reversed / few-unique input makes
+ *   it O(n²) with n-deep recursion
+ *
+ * USAGE (from Foundation/concept):
+ *   java -jar target/benchmarks.jar benchmarks.QuadraticSortBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss16m")
+public class QuadraticSortBenchmark {
+    @Param({"Bubble Sort", "Selection Sort", "Insertion Sort", "Recursive Bubble", "Recursive Insert",
+            "Quick Sort"})
+    public String algorithm;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "ORGAN_PIPE", "FEW_UNIQUE", "SAWTOOTH"})
+    public String distribution;
+
+    @Param({"16", "256", "4096", "16384"})
+    public int size;
+
+    private Consumer<int[]> sort;
+    private int[] input;
+    private int[] work;
+
+    @Setup
+    public void setUp() {
+        sort = Concept.sort(algorithm);
+        input = Concept.input(distribution, size, 42);
+        work = input.clone();
+        SortBenchmark.check(sort, input, algorithm);
+    }
+
+    @Benchmark
+    public int[] sort() {
+        System.arraycopy(input, 0, work, 0, input.length);
+        sort.accept(work);
+        return work;
+    }
+}
@@ -0,0 +1,157 @@
+package benchmarks;
+
+import java.util.ArrayDeque;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.Control;
+
+/*
+ * JMH QUEUE BENCHMARK - RING QUEUES vs JDK QUEUES
+ * ========================================================
+ * CONCEPT:
+ * - JMH version of QueueBenchmark (ConcurrentCollections.java): the ring
+ *   queues against LinkedList, ArrayDeque and ArrayBlockingQueue
+ * - offerPoll (one thread): offer 512, poll 512 → ns per element and,
+ *   with -prof gc, B/op (LinkedList allocates a node per offer).
+ *   Every queue gets its own fork, so the call sites stay monomorphic
+ * - transfer (throughput): 1 producer + 1 consumer thread through one
+ *   queue, each spinning (Thread.yield) while full / empty
+ * - pingPong (latency, sample time): one thread offers to "ping" and
+ *   waits for the echo on "pong"; the other echoes. The ping rows give
+ *   round-trip percentiles (p0.50, p0.99, ...)
+ * - LinkedList and ArrayDeque are not thread-safe: offerPoll only.
+ *   More producers (-tg 4,1) only with MpscRingQueue, MpmcRingQueue or
+ *   ArrayBlockingQueue; -tg 4,4 only with the last two
+ * - Threaded numbers need a core per thread; with fewer, they mostly
+ *   measure the scheduler
+ *
+ * USAGE (from Foundation/concept):
+ *   java -jar target/benchmarks.jar benchmarks.RingQueueBenchmark.offerPoll -prof gc
+ *   java -jar target/benchmarks.jar benchmarks.RingQueueBenchmark.transfer
+ *   java -jar target/benchmarks.jar benchmarks.RingQueueBenchmark.pingPong
+ *   java -jar target/benchmarks.jar benchmarks.RingQueueBenchmark.transfer \
+ *        -tg 4,1 -p shared=MpscRingQueue,MpmcRingQueue
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RingQueueBenchmark {
+    static final int CAPACITY = 1024;
+    static final int BATCH = 512;
+    static final Integer ITEM = 1000;
+
+    @State(Scope.Thread)
+    public static class Local {
+        @Param({"LinkedList", "ArrayDeque", "ArrayBlockingQueue", "SpscRingQueue", "MpscRingQueue",
+                "MpmcRingQueue"})
+        public String queue;
+
+        Queue<Integer> q;
+
+        @Setup
+        public void setUp() {
+            q = newQueue(queue);
+        }
+    }
+
+    // One per thread group: producer and consumer (ping and echo) share it.
+    // Fresh queues each iteration: an element left over when the last one
+    // stopped would let ping skip a round trip
+    @State(Scope.Group)
+    public static class Shared {
+        @Param({"ArrayBlockingQueue", "SpscRingQueue", "MpscRingQueue", "MpmcRingQueue"})
+        public String shared;
+
+        Queue<Integer> q, ping, pong;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            q = newQueue(shared);
+            ping = newQueue(shared);
+            pong = newQueue(shared);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(BATCH)
+    public void offerPoll(Local s, Blackhole bh) {
+        Queue<Integer> q = s.q;
+        for (int i = 0; i < BATCH; i++) q.offer(ITEM);
+        for (int i = 0; i < BATCH; i++) bh.consume(q.poll());
+    }
+
+    @Benchmark
+    @Group("transfer")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void offer(Shared s, Control control) {
+        while (!s.q.offer(ITEM) && !control.stopMeasurement) Thread.yield();
+    }
+
+    @Benchmark
+    @Group("transfer")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Integer poll(Shared s, Control control) {
+        Integer x;
+        while ((x = s.q.poll()) == null && !control.stopMeasurement) Thread.yield();
+        return x;
+    }
+
+    @Benchmark
+    @Group("pingPong")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Integer ping(Shared s, Control control) {
+        while (!s.ping.offer(ITEM) && !control.stopMeasurement) Thread.yield();
+        Integer x;
+        while ((x = s.pong.poll()) == null && !control.stopMeasurement) Thread.yield();
+        return x;
+    }
+
+    @Benchmark
+    @Group("pingPong")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void echo(Shared s, Control control) {
+        Integer x;
+        while ((x = s.ping.poll()) == null) {
+            if (control.stopMeasurement) return;
+            Thread.yield();
+        }
+        while (!s.pong.offer(x) && !control.stopMeasurement) Thread.yield();
+    }
+
+    static Queue<Integer> newQueue(String name) {
+        switch (name) {
+            case "LinkedList":         return new LinkedList<>();
+            case "ArrayDeque":         return new ArrayDeque<>(CAPACITY);
+            case "ArrayBlockingQueue": return new ArrayBlockingQueue<>(CAPACITY);
+            default:                   return Concept.newQueue(name, CAPACITY);
+        }
+    }
+}
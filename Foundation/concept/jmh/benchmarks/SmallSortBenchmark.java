@@ -0,0 +1,79 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * JMH SMALL-SORT BENCHMARK - SORTING NETWORK vs INSERTION SORT
+ * ========================================================
+ * CONCEPT:
+ * - JMH version of SmallSort.main: 4096 blocks of n elements, each sorted
+ *   by the kernel on its own; one op = one block
+ * - The point of the network is fewer branch MISSES, which time alone
+ *   does not show: -prof perfnorm (Linux perf) adds branches,
+ *   branch-misses, cycles, instructions... per op
+ * - RANDOM blocks are where Insertion Sort mispredicts; on SORTED ones
+ *   its inner loop exits at once and it wins
+ *
+ * USAGE (from Foundation/concept):
+ *   java -jar target/benchmarks.jar benchmarks.SmallSortBenchmark
+ *   java -jar target/benchmarks.jar benchmarks.SmallSortBenchmark -prof perfnorm
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmallSortBenchmark {
+    static final int BLOCKS = 4096;
+
+    @Param({"Insertion Sort", "Network"})
+    public String kernel;
+
+    @Param({"RANDOM", "SORTED"})
+    public String distribution;
+
+    @Param({"4", "8", "16"})
+    public int size;
+
+    private Consumer<int[]> sort;
+    private int[] input;
+    private int[] work;
+
+    @Setup
+    public void setUp() {
+        sort = Concept.smallSort(kernel, size);
+        input = new int[BLOCKS * size];
+        for (int b = 0; b < BLOCKS; b++) {
+            System.arraycopy(Concept.input(distribution, size, b), 0, input, b * size, size);
+        }
+        work = input.clone();
+        sort.accept(work);
+        for (int from = 0; from < work.length; from += size) {
+            for (int i = from + 1; i < from + size; i++) {
+                if (work[i - 1] > work[i]) throw new IllegalStateException(kernel + " did not sort");
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCKS)
+    public int[] sort() {
+        System.arraycopy(input, 0, work, 0, input.length);
+        sort.accept(work);
+        return work;
+    }
+}
@@ -0,0 +1,87 @@
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * JMH SORT BENCHMARK - O(n log n) SORTS, n = 16 .. 10^8
+ * ========================================================
+ * CONCEPT:
+ * - JMH version of SortingBenchmark: forked JVM per (algorithm,
+ *   distribution, size), proper warm-up, dead-code protection
+ * - Every op copies the input into a reused array, then sorts it
+ *   (System.arraycopy: ~n/16 ns, only visible at n = 16)
+ * - Reports throughput (thrpt, ops/s) and average time (avgt, ns/op);
+ *   ns/element = avgt / size
+ * - Allocation: run with -prof gc → gc.alloc.rate (MB/s) and
+ *   gc.alloc.rate.norm (B/op). It counts EVERY thread, so the parallel
+ *   sorts' pool-thread buffers are included (the hand-rolled
+ *   SortingBenchmark only sees the calling thread)
+ * - The O(n²) sorts and Lomuto Quick Sort are in QuadraticSortBenchmark
+ *   (sizes up to 2^14 only)
+ *
+ * USAGE (from Foundation/concept):
+ *   mvn -B package
+ *   java -jar target/benchmarks.jar benchmarks.SortBenchmark -prof gc
+ *   java -jar target/benchmarks.jar benchmarks.SortBenchmark -prof gc -bm avgt \
+ *        -p algorithm="Intro Sort,Radix Sort" -p size=1048576
+ *   n = 10^8 needs ~2 GB per sort (input + work + scratch): the fork
+ *   gets -Xmx4g
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SortBenchmark {
+    @Param({"Merge Sort", "Quick Sort 3-way", "Quick Sort 2-pivot", "Intro Sort", "TimSort",
+            "Radix Sort", "Parallel Merge", "Parallel Radix", "Sample Sort",
+            "Arrays.sort", "Arrays.parallelSort"})
+    public String algorithm;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "ORGAN_PIPE", "FEW_UNIQUE", "SAWTOOTH"})
+    public String distribution;
+
+    @Param({"16", "256", "4096", "65536", "1048576", "16777216", "100000000"})
+    public int size;
+
+    private Consumer<int[]> sort;
+    private int[] input;
+    private int[] work;
+
+    @Setup
+    public void setUp() {
+        sort = Concept.sort(algorithm);
+        input = Concept.input(distribution, size, 42);
+        work = input.clone();
+        check(sort, input, algorithm);
+    }
+
+    @Benchmark
+    public int[] sort() {
+        System.arraycopy(input, 0, work, 0, input.length);
+        sort.accept(work);
+        return work;
+    }
+
+    // Same check as SortingBenchmark: a wrong sort is not measured
+    static void check(Consumer<int[]> sort, int[] input, String name) {
+        int[] actual = input.clone(), expected = input.clone();
+        sort.accept(actual);
+        Arrays.sort(expected);
+        if (!Arrays.equals(actual, expected)) throw new IllegalStateException(name + " did not sort");
+    }
+}